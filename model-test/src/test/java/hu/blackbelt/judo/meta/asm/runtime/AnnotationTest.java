@@ -22,11 +22,14 @@ package hu.blackbelt.judo.meta.asm.runtime;
 
 import com.google.common.collect.ImmutableMap;
 import lombok.extern.slf4j.Slf4j;
+import org.eclipse.emf.common.util.BasicEList;
 import org.eclipse.emf.common.util.EList;
 import org.eclipse.emf.ecore.*;
+import org.eclipse.emf.ecore.util.EcoreUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
 import java.util.Optional;
 
 import static hu.blackbelt.judo.meta.asm.runtime.AsmUtils.*;
@@ -184,6 +187,78 @@ public class AnnotationTest extends ExecutionContextOnAsmTest {
         Optional<EClass> internalAP = asmUtils.all(EClass.class).filter(a -> "InternalAP".equals(a.getName())).findAny();
         assertTrue(internalAP.isPresent());
         assertThat(asmUtils.getActorTypesOfOperation(getAllOrders.get()), hasItems(internalAP.get()));
+        assertTrue(asmUtils.isOperationExposedTo(getAllOrders.get(), internalAP.get()));
+
+        Optional<EClass> order = asmUtils.all(EClass.class).filter(c -> "Order".equals(c.getName())).findAny();
+        assertTrue(order.isPresent());
+        assertFalse(asmUtils.isOperationExposedTo(getAllOrders.get(), order.get()));
+
+        OperationExposureIndex operationExposureIndex = asmUtils.getOperationExposureIndex();
+        int operationId = operationExposureIndex.getOperationId(getAllOrders.get());
+        int actorOrdinal = operationExposureIndex.getActorOrdinal(internalAP.get());
+        assertTrue(operationId >= 0);
+        assertTrue(operationExposureIndex.isOperationExposedTo(operationId, actorOrdinal));
+        assertThat(operationExposureIndex.getActorType(actorOrdinal), is(internalAP.get()));
+
+        // returned list is a modifiable copy
+        EList<EClass> actorTypes = asmUtils.getActorTypesOfOperation(getAllOrders.get());
+        actorTypes.add(order.get());
+        assertFalse(asmUtils.getActorTypesOfOperation(getAllOrders.get()).contains(order.get()));
+
+        // actor types are returned in order of exposedBy annotations, not in order of actor ordinals
+        EClass externalAP = newEClassBuilder().withName("ExternalAP").build();
+        internalAP.get().getEPackage().getEClassifiers().add(externalAP);
+        addExtensionAnnotation(externalAP, "actorType", "true");
+        EAnnotation exposedByExternalAP = newEAnnotationBuilder().withSource("http://blackbelt.hu/judo/meta/ExtendedMetadata/exposedBy").build();
+        exposedByExternalAP.getDetails().put("value", getClassifierFQName(externalAP));
+        getAllOrders.get().getEAnnotations().add(0, exposedByExternalAP);
+        assertThat(asmUtils.getActorTypeRegistry().getOrdinal(externalAP), equalTo(1));
+        assertThat(asmUtils.getActorTypesOfOperation(getAllOrders.get()), equalTo(new BasicEList<>(Arrays.asList(externalAP, internalAP.get()))));
+
+        // operations added after elements are cached by all(Class) are indexed when the model is changed
+        assertTrue(asmUtils.all(EOperation.class).anyMatch(o -> o == getAllOrders.get()));
+        EOperation getOrders = EcoreFactory.eINSTANCE.createEOperation();
+        getOrders.setName("getOrders");
+        getOrders.getEAnnotations().add(EcoreUtil.copy(exposedByExternalAP));
+        unboundServices.get().getEOperations().add(getOrders);
+        assertTrue(asmUtils.getOperationExposureIndex().contains(getOrders));
+        assertTrue(asmUtils.isOperationExposedTo(getOrders, externalAP));
+    }
+
+    @Test
+    public void testGetActorTypeRegistry () {
+        Optional<EClass> internalAP = asmUtils.all(EClass.class).filter(a -> "InternalAP".equals(a.getName())).findAny();
+        assertTrue(internalAP.isPresent());
+
+        ActorTypeRegistry actorTypeRegistry = asmUtils.getActorTypeRegistry();
+        assertThat(actorTypeRegistry.getActorTypes(), hasItems(internalAP.get()));
+        assertThat(actorTypeRegistry.size(), equalTo(1));
+        assertSame(actorTypeRegistry, asmUtils.getActorTypeRegistry());
+
+        Optional<ActorTypeRegistry.ActorTypeSummary> summary = actorTypeRegistry.getSummary(internalAP.get());
+        assertTrue(summary.isPresent());
+        assertThat(summary.get().getOrdinal(), equalTo(0));
+        assertThat(summary.get().getFqName(), equalTo(getClassifierFQName(internalAP.get())));
+        assertThat(summary.get().getExposedOperationCount(), equalTo(1));
+        assertThat(actorTypeRegistry.getSummaryByFQName(getClassifierFQName(internalAP.get())), equalTo(summary));
+
+        Optional<EClass> order = asmUtils.all(EClass.class).filter(c -> "Order".equals(c.getName())).findAny();
+        assertTrue(order.isPresent());
+        assertFalse(actorTypeRegistry.isActorType(order.get()));
+        assertThat(actorTypeRegistry.getOrdinal(order.get()), equalTo(-1));
+
+        EClass externalAP = newEClassBuilder().withName("ExternalAP").build();
+        internalAP.get().getEPackage().getEClassifiers().add(externalAP);
+        addExtensionAnnotation(externalAP, "actorType", "true");
+
+        ActorTypeRegistry rebuiltActorTypeRegistry = asmUtils.getActorTypeRegistry();
+        assertNotSame(actorTypeRegistry, rebuiltActorTypeRegistry);
+        assertThat(rebuiltActorTypeRegistry.size(), equalTo(2));
+        assertThat(rebuiltActorTypeRegistry.getOrdinal(externalAP), equalTo(1));
+        assertThat(asmUtils.getAllActorTypes(), hasItems(internalAP.get(), externalAP));
+
+        asmUtils.getAllActorTypes().clear();
+        assertThat(asmUtils.getAllActorTypes().size(), equalTo(2));
     }
 
     @Test
@@ -202,6 +277,40 @@ public class AnnotationTest extends ExecutionContextOnAsmTest {
         assertFalse(asmUtils.getMappedEntityType(classWithInvalidMappedEntityTypeAnnotation).isPresent());
     }
 
+    @Test
+    public void testGetMappedTransferObjectTypes () {
+        Optional<EPackage> services = asmModel.getResourceSet().getResources().get(0).getContents().stream()
+                .map(EPackage.class::cast)
+                .flatMap(p -> p.getESubpackages().stream())
+                .filter(p -> "services".equals(p.getName()))
+                .findAny();
+        assertTrue(services.isPresent());
+        EClass orderInfo = (EClass) services.get().getEClassifier("OrderInfo");
+        EClass extendedOrderInfo = newEClassBuilder().withName("ExtendedOrderInfo").withESuperTypes(orderInfo).build();
+        services.get().getEClassifiers().add(extendedOrderInfo);
+
+        Optional<EClass> order = asmUtils.all(EClass.class).filter(c -> "Order".equals(c.getName())).findAny();
+        Optional<EClass> internationalOrder = asmUtils.all(EClass.class).filter(c -> "InternationalOrder".equals(c.getName())).findAny();
+        Optional<EClass> internationalOrderInfo = asmUtils.all(EClass.class).filter(c -> "InternationalOrderInfo".equals(c.getName())).findAny();
+        Optional<EClass> territory = asmUtils.all(EClass.class).filter(c -> "Territory".equals(c.getName())).findAny();
+        assertTrue(order.isPresent());
+        assertTrue(internationalOrder.isPresent());
+        assertTrue(internationalOrderInfo.isPresent());
+        assertTrue(territory.isPresent());
+
+        assertThat(asmUtils.getMappedTransferObjectTypes(order.get()), hasItems(orderInfo, extendedOrderInfo));
+        assertThat(asmUtils.getMappedTransferObjectTypes(order.get()).size(), equalTo(2));
+        assertThat(asmUtils.getMappedTransferObjectTypes(internationalOrder.get()), hasItems(internationalOrderInfo.get()));
+        assertTrue(asmUtils.getMappedTransferObjectTypes(territory.get()).isEmpty());
+
+        // index is rebuilt when the model is changed
+        EClass territoryInfo = newEClassBuilder().withName("TerritoryInfo").build();
+        services.get().getEClassifiers().add(territoryInfo);
+        addExtensionAnnotation(territoryInfo, "mappedEntityType", getClassifierFQName(territory.get()));
+        assertThat(asmUtils.getMappedTransferObjectTypes(territory.get()), hasItems(territoryInfo));
+        assertThat(asmUtils.getMappedTransferObjectTypes(territory.get()).size(), equalTo(1));
+    }
+
     @Test
     public void testGetMappedAttribute () {
         Optional<EClass> order = asmUtils.all(EClass.class).filter(c -> "Order".equals(c.getName())).findAny();
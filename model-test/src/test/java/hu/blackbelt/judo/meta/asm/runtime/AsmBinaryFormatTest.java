@@ -0,0 +1,79 @@
+package hu.blackbelt.judo.meta.asm.runtime;
+
+/*-
+ * #%L
+ * Judo :: Asm :: Model
+ * %%
+ * Copyright (C) 2018 - 2022 BlackBelt Technology
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+
+import hu.blackbelt.judo.meta.asm.support.AsmBinaryFormat;
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.xmi.XMLResource;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AsmBinaryFormatTest {
+
+    @Test
+    public void testConvertIsLossless() throws IOException, AsmModel.AsmValidationException {
+        File xmi = new File("target/test-classes/binary-format.asm");
+        File binary = new File("target/test-classes/binary-format.asmb");
+        File converted = new File("target/test-classes/binary-format-converted.asm");
+
+        AsmModel asmModel = AsmTestModels.createLinkedEntityModel(xmi, 10);
+        asmModel.saveAsmModel(AsmModel.SaveArguments.asmSaveArgumentsBuilder().file(xmi));
+
+        AsmBinaryFormat.convert(xmi, binary);
+        AsmBinaryFormat.convert(binary, converted);
+        assertArrayEquals(Files.readAllBytes(xmi.toPath()), Files.readAllBytes(converted.toPath()));
+
+        AsmModel loaded = AsmModel.loadAsmModel(AsmModel.LoadArguments.asmLoadArgumentsBuilder()
+                .uri(URI.createFileURI(binary.getAbsolutePath()))
+                .file(binary));
+        XMLResource expected = (XMLResource) asmModel.getResource();
+        XMLResource actual = (XMLResource) loaded.getResource();
+        TreeIterator<EObject> expectedContents = expected.getAllContents();
+        TreeIterator<EObject> actualContents = actual.getAllContents();
+        while (expectedContents.hasNext()) {
+            assertTrue(actualContents.hasNext());
+            assertEquals(expected.getID(expectedContents.next()), actual.getID(actualContents.next()));
+        }
+        assertFalse(actualContents.hasNext());
+    }
+
+    @Test
+    public void testSaveAndLoadBinaryStream() throws IOException, AsmModel.AsmValidationException {
+        File binary = new File("target/test-classes/binary-format-option.bin");
+
+        AsmModel asmModel = AsmTestModels.createLinkedEntityModel(binary, 10);
+        asmModel.saveAsmModel(AsmModel.SaveArguments.asmSaveArgumentsBuilder().file(binary).binary(true));
+
+        AsmModel loaded = AsmModel.loadAsmModel(AsmModel.LoadArguments.asmLoadArgumentsBuilder()
+                .uri(URI.createURI("urn:binary-format-option.bin"))
+                .file(binary)
+                .binary(true));
+        assertEquals(asmModel.asString(), loaded.asString());
+    }
+}
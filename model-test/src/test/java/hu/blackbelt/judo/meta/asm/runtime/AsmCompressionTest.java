@@ -0,0 +1,99 @@
+package hu.blackbelt.judo.meta.asm.runtime;
+
+/*-
+ * #%L
+ * Judo :: Asm :: Model
+ * %%
+ * Copyright (C) 2018 - 2022 BlackBelt Technology
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+
+
+import hu.blackbelt.judo.meta.asm.support.AsmCompression;
+import org.eclipse.emf.common.util.URI;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.ZipFile;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AsmCompressionTest {
+
+    @Test
+    public void testCompressionByFileExtension() throws IOException, AsmModel.AsmValidationException {
+        File xmi = new File("target/test-classes/compression.asm");
+        AsmModel asmModel = AsmTestModels.createEntityModel(xmi, 100);
+        asmModel.saveAsmModel(AsmModel.SaveArguments.asmSaveArgumentsBuilder().file(xmi));
+        String expected = AsmTestModels.loadAsString(xmi);
+
+        for (String name : new String[] {"compression.asm.gz", "compression.asm.zip"}) {
+            File file = new File("target/test-classes/" + name);
+            asmModel.saveAsmModel(AsmModel.SaveArguments.asmSaveArgumentsBuilder().file(file));
+            assertTrue(file.length() * 3 < xmi.length(), name);
+
+            AsmModel loaded = AsmModel.loadAsmModel(AsmModel.LoadArguments.asmLoadArgumentsBuilder()
+                    .uri(URI.createFileURI(file.getAbsolutePath()))
+                    .file(file));
+            assertEquals(expected, loaded.asString(), name);
+
+            AsmModel loadedFromUri = AsmModel.loadAsmModel(AsmModel.LoadArguments.asmLoadArgumentsBuilder()
+                    .uri(URI.createFileURI(file.getAbsolutePath())));
+            assertEquals(expected, loadedFromUri.asString(), name);
+        }
+
+        File binary = new File("target/test-classes/compression.asmb");
+        File compressedBinary = new File("target/test-classes/compression.asmb.gz");
+        asmModel.saveAsmModel(AsmModel.SaveArguments.asmSaveArgumentsBuilder().file(binary));
+        asmModel.saveAsmModel(AsmModel.SaveArguments.asmSaveArgumentsBuilder().file(compressedBinary));
+        assertTrue(compressedBinary.length() * 3 < binary.length());
+        assertEquals(AsmTestModels.loadAsString(binary), AsmTestModels.loadAsString(compressedBinary));
+
+        try (ZipFile zipFile = new ZipFile("target/test-classes/compression.asm.zip")) {
+            assertEquals("compression.asm", zipFile.entries().nextElement().getName());
+        }
+    }
+
+    @Test
+    public void testCompressionDetectedByMagicBytes() throws IOException, AsmModel.AsmValidationException {
+        File xmi = new File("target/test-classes/compression-detected.asm");
+        AsmModel asmModel = AsmTestModels.createEntityModel(xmi, 10);
+        asmModel.saveAsmModel(AsmModel.SaveArguments.asmSaveArgumentsBuilder().file(xmi));
+        String expected = AsmTestModels.loadAsString(xmi);
+
+        for (AsmCompression compression : AsmCompression.values()) {
+            File file = new File("target/test-classes/compression-" + compression.name().toLowerCase() + ".asm");
+            asmModel.saveAsmModel(AsmModel.SaveArguments.asmSaveArgumentsBuilder()
+                    .file(file)
+                    .compression(compression));
+
+            AsmModel loaded = AsmModel.loadAsmModel(AsmModel.LoadArguments.asmLoadArgumentsBuilder()
+                    .uri(URI.createFileURI(file.getAbsolutePath()))
+                    .file(file));
+            assertEquals(expected, loaded.asString(), compression.name());
+
+            try (InputStream inputStream = new FileInputStream(file)) {
+                AsmModel loadedFromStream = AsmModel.loadAsmModel(AsmModel.LoadArguments.asmLoadArgumentsBuilder()
+                        .uri(URI.createURI("compression.asm"))
+                        .inputStream(inputStream));
+                assertEquals(expected, loadedFromStream.asString(), compression.name());
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package hu.blackbelt.judo.meta.asm.runtime;
+
+/*-
+ * #%L
+ * Judo :: Asm :: Model
+ * %%
+ * Copyright (C) 2018 - 2022 BlackBelt Technology
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+
+
+import hu.blackbelt.judo.meta.asm.support.AsmIdStrategy;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.eclipse.emf.ecore.util.builder.EcoreBuilders.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AsmIdStrategyTest {
+
+    @Test
+    public void testIdsAreStableAcrossRegenerations() throws IOException, AsmModel.AsmValidationException {
+        for (AsmIdStrategy idStrategy : new AsmIdStrategy[] {AsmIdStrategy.PATH, AsmIdStrategy.HASH}) {
+            File first = new File("target/test-classes/id-strategy-1.asm");
+            File second = new File("target/test-classes/id-strategy-2.asm");
+            AsmTestModels.createEntityModel(first, 10).saveAsmModel(AsmModel.SaveArguments.asmSaveArgumentsBuilder()
+                    .file(first)
+                    .idStrategy(idStrategy));
+            AsmTestModels.createEntityModel(first, 10).saveAsmModel(AsmModel.SaveArguments.asmSaveArgumentsBuilder()
+                    .file(second)
+                    .idStrategy(idStrategy));
+            assertArrayEquals(Files.readAllBytes(first.toPath()), Files.readAllBytes(second.toPath()));
+
+            AsmModel loaded = AsmModel.loadAsmModel(AsmModel.LoadArguments.asmLoadArgumentsBuilder()
+                    .uri(URI.createFileURI(first.getAbsolutePath()))
+                    .file(first)
+                    .validateUniqueXmiids(true));
+            EClass entity = (EClass) ((EPackage) loaded.getResource().getContents().get(0)).getEClassifier("Entity1");
+            assertEquals(idStrategy.createId(entity, "demo/Entity1"), AsmUtils.getId(entity));
+            assertSame(entity, loaded.getResource().getEObject(AsmUtils.getId(entity)));
+        }
+    }
+
+    @Test
+    public void testIdStrategyOfModel() throws IOException, AsmModel.AsmValidationException {
+        File file = new File("target/test-classes/id-strategy-model.asm");
+        AsmModel asmModel = AsmModel.buildAsmModel()
+                .uri(URI.createFileURI(file.getAbsolutePath()))
+                .build();
+        asmModel.setIdStrategy(AsmIdStrategy.PATH);
+        assertSame(AsmIdStrategy.PATH, asmModel.getIdStrategy());
+
+        EClass entity = newEClassBuilder()
+                .withName("Entity")
+                .withEStructuralFeatures(newEAttributeBuilder()
+                        .withName("name")
+                        .withEType(EcorePackage.Literals.ESTRING)
+                        .build())
+                .withEOperations(newEOperationBuilder().withName("op").build(),
+                        newEOperationBuilder().withName("op").build())
+                .build();
+        asmModel.addContent(newEPackageBuilder().withName("demo").withNsURI("http://blackbelt.hu/judo/demo")
+                .withNsPrefix("demo").withEClassifiers(entity).build());
+        AsmUtils.addExtensionAnnotation(entity, "entity", "true");
+        assertNull(AsmUtils.getId(entity));
+
+        asmModel.saveAsmModel(AsmModel.SaveArguments.asmSaveArgumentsBuilder().file(file).validateModel(false));
+        assertEquals("demo/Entity", AsmUtils.getId(entity));
+        assertEquals("demo/Entity/name", AsmUtils.getId(entity.getEStructuralFeatures().get(0)));
+        assertEquals("demo/Entity/op", AsmUtils.getId(entity.getEOperations().get(0)));
+        assertEquals("demo/Entity/op.1", AsmUtils.getId(entity.getEOperations().get(1)));
+        assertEquals("demo/Entity/entity", AsmUtils.getId(entity.getEAnnotations().get(0)));
+
+        asmModel.setIdStrategy(null);
+        assertNull(asmModel.getIdStrategy());
+        EClass other = newEClassBuilder().withName("Other").build();
+        entity.getEPackage().getEClassifiers().add(other);
+        assertNotNull(AsmUtils.getId(other));
+    }
+}
@@ -0,0 +1,135 @@
+package hu.blackbelt.judo.meta.asm.runtime;
+
+/*-
+ * #%L
+ * Judo :: Asm :: Model
+ * %%
+ * Copyright (C) 2018 - 2022 BlackBelt Technology
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+
+
+import hu.blackbelt.judo.meta.asm.support.AsmLoadProfile;
+import hu.blackbelt.judo.meta.asm.support.AsmLoadSession;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.emf.common.util.URI;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Load time benchmarks of model formats and load profiles. Benchmarks are excluded from the default test run, they
+ * are run by the <code>benchmark</code> profile of the module.
+ */
+@Slf4j
+@Tag("benchmark")
+public class AsmLoadBenchmarkTest {
+
+    private static final int BENCHMARK_CLASSES = 2000;
+
+    private static final int BENCHMARK_ITERATIONS = 7;
+
+    @Test
+    public void testBinaryLoadBenchmark() throws IOException, AsmModel.AsmValidationException {
+        File xmi = new File("target/test-classes/binary-format-benchmark.asm");
+        File binary = new File("target/test-classes/binary-format-benchmark.asmb");
+
+        AsmModel asmModel = AsmTestModels.createLinkedEntityModel(xmi, BENCHMARK_CLASSES);
+        asmModel.saveAsmModel(AsmModel.SaveArguments.asmSaveArgumentsBuilder().file(xmi).validateModel(false));
+        asmModel.saveAsmModel(AsmModel.SaveArguments.asmSaveArgumentsBuilder().file(binary).validateModel(false));
+
+        long[] xmiTimes = new long[BENCHMARK_ITERATIONS];
+        long[] binaryTimes = new long[BENCHMARK_ITERATIONS];
+        for (int i = 0; i < BENCHMARK_ITERATIONS; i++) {
+            xmiTimes[i] = measureLoad(xmi, AsmLoadProfile.DEFAULT);
+            binaryTimes[i] = measureLoad(binary, AsmLoadProfile.DEFAULT);
+        }
+        long xmiTime = median(xmiTimes);
+        long binaryTime = median(binaryTimes);
+
+        log.info("Load time of {} classes (median): XMI {} ms, binary {} ms ({}x)", BENCHMARK_CLASSES,
+                xmiTime / 1000000, binaryTime / 1000000, String.format("%.2f", (double) xmiTime / binaryTime));
+        log.info("File size of {} classes: XMI {} bytes, binary {} bytes ({}x)", BENCHMARK_CLASSES,
+                xmi.length(), binary.length(), String.format("%.2f", (double) xmi.length() / binary.length()));
+        assertTrue(binary.length() < xmi.length());
+    }
+
+    @Test
+    public void testLoadProfilesBenchmark() throws IOException, AsmModel.AsmValidationException {
+        File file = new File("target/test-classes/load-profile-benchmark.asm");
+        AsmTestModels.createEntityModel(file, BENCHMARK_CLASSES)
+                .saveAsmModel(AsmModel.SaveArguments.asmSaveArgumentsBuilder().file(file));
+
+        for (AsmLoadProfile loadProfile : AsmLoadProfile.values()) {
+            // validation would dominate load time, state of FAST profile is shared by loads of the session
+            AsmLoadSession loadSession = new AsmLoadSession();
+            long[] times = new long[BENCHMARK_ITERATIONS];
+            for (int i = 0; i < BENCHMARK_ITERATIONS; i++) {
+                long start = System.nanoTime();
+                AsmModel.loadAsmModel(AsmModel.LoadArguments.asmLoadArgumentsBuilder()
+                        .uri(URI.createFileURI(file.getAbsolutePath()))
+                        .file(file)
+                        .loadProfile(loadProfile)
+                        .loadSession(loadSession)
+                        .validateModel(false));
+                times[i] = System.nanoTime() - start;
+            }
+            long median = median(times);
+            log.info("Load profile {}: {} ms, {} models/s", loadProfile, median / 1000000,
+                    median > 0 ? 1000000000L / median : 0);
+        }
+    }
+
+    @Test
+    public void testCompressedLoadBenchmark() throws IOException, AsmModel.AsmValidationException {
+        File xmi = new File("target/test-classes/compression-benchmark.asm");
+        AsmModel asmModel = AsmTestModels.createEntityModel(xmi, BENCHMARK_CLASSES);
+        asmModel.saveAsmModel(AsmModel.SaveArguments.asmSaveArgumentsBuilder().file(xmi));
+
+        for (String name : new String[] {"compression-benchmark.asm", "compression-benchmark.asm.gz",
+                "compression-benchmark.asm.zip"}) {
+            File file = new File("target/test-classes/" + name);
+            asmModel.saveAsmModel(AsmModel.SaveArguments.asmSaveArgumentsBuilder().file(file));
+
+            long[] times = new long[BENCHMARK_ITERATIONS];
+            for (int i = 0; i < BENCHMARK_ITERATIONS; i++) {
+                times[i] = measureLoad(file, AsmLoadProfile.DEFAULT);
+            }
+            log.info("{}: {} bytes, load {} ms", name, file.length(), median(times) / 1000000);
+        }
+    }
+
+    private static long measureLoad(File file, AsmLoadProfile loadProfile)
+            throws IOException, AsmModel.AsmValidationException {
+        long start = System.nanoTime();
+        AsmModel.loadAsmModel(AsmModel.LoadArguments.asmLoadArgumentsBuilder()
+                .uri(URI.createFileURI(file.getAbsolutePath()))
+                .file(file)
+                .loadProfile(loadProfile)
+                .validateModel(false));
+        return System.nanoTime() - start;
+    }
+
+    private static long median(long[] times) {
+        Arrays.sort(times);
+        return times[times.length / 2];
+    }
+}
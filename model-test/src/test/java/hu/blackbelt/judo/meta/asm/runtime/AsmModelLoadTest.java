@@ -0,0 +1,88 @@
+package hu.blackbelt.judo.meta.asm.runtime;
+
+/*-
+ * #%L
+ * Judo :: Asm :: Model
+ * %%
+ * Copyright (C) 2018 - 2022 BlackBelt Technology
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+
+import hu.blackbelt.judo.meta.asm.support.AsmLoadProfile;
+import hu.blackbelt.judo.meta.asm.support.AsmLoadSession;
+import hu.blackbelt.judo.meta.asm.support.AsmReadStrategy;
+import org.eclipse.emf.common.util.URI;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AsmModelLoadTest {
+
+    @Test
+    public void testReadStrategies() throws IOException, AsmModel.AsmValidationException {
+        File file = new File("target/test-classes/read-strategy.asm");
+        AsmModel asmModel = AsmTestModels.createEntityModel(file, 100);
+        asmModel.saveAsmModel(AsmModel.SaveArguments.asmSaveArgumentsBuilder().file(file));
+        byte[] content = Files.readAllBytes(file.toPath());
+        String expected = AsmTestModels.loadAsString(file);
+
+        for (AsmReadStrategy readStrategy : AsmReadStrategy.values()) {
+            try (InputStream inputStream = readStrategy.open(file)) {
+                byte[] buffer = new byte[content.length + 1];
+                int read = 0;
+                int count;
+                while ((count = inputStream.read(buffer, read, buffer.length - read)) > 0) {
+                    read += count;
+                }
+                assertEquals(content.length, read, readStrategy.name());
+            }
+
+            AsmModel loaded = AsmModel.loadAsmModel(AsmModel.LoadArguments.asmLoadArgumentsBuilder()
+                    .uri(URI.createFileURI(file.getAbsolutePath()))
+                    .file(file)
+                    .readStrategy(readStrategy));
+            assertEquals(expected, loaded.asString(), readStrategy.name());
+        }
+    }
+
+    @Test
+    public void testLoadProfiles() throws IOException, AsmModel.AsmValidationException {
+        File file = new File("target/test-classes/load-profile.asm");
+        AsmModel asmModel = AsmTestModels.createEntityModel(file, 100);
+        asmModel.saveAsmModel(AsmModel.SaveArguments.asmSaveArgumentsBuilder().file(file));
+        String expected = AsmTestModels.loadAsString(file);
+
+        // state of FAST profile is shared only between loads of the same session
+        AsmLoadSession loadSession = new AsmLoadSession();
+        for (AsmLoadProfile loadProfile : AsmLoadProfile.values()) {
+            for (int i = 0; i < 2; i++) {
+                AsmModel loaded = AsmModel.loadAsmModel(AsmModel.LoadArguments.asmLoadArgumentsBuilder()
+                        .uri(URI.createFileURI(file.getAbsolutePath()))
+                        .file(file)
+                        .loadProfile(loadProfile)
+                        .loadSession(loadSession));
+                assertEquals(expected, loaded.asString(), loadProfile.name());
+                assertSame(loaded.getResource(), loaded.getResource().getContents().get(0).eResource());
+            }
+        }
+        assertFalse(loadSession.getNameToFeatureMap().isEmpty());
+    }
+}
@@ -0,0 +1,316 @@
+package hu.blackbelt.judo.meta.asm.runtime;
+
+/*-
+ * #%L
+ * Judo :: Asm :: Model
+ * %%
+ * Copyright (C) 2018 - 2022 BlackBelt Technology
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+
+import hu.blackbelt.judo.meta.asm.support.AsmDiagnostic;
+import hu.blackbelt.judo.meta.asm.support.AsmIncrementalValidator;
+import hu.blackbelt.judo.meta.asm.support.AsmModelValidator;
+import hu.blackbelt.judo.meta.asm.support.AsmPackageResources;
+import hu.blackbelt.judo.meta.asm.support.AsmValidationCache;
+import hu.blackbelt.judo.meta.asm.support.AsmValidationResult;
+import hu.blackbelt.judo.meta.asm.support.AsmValidationSession;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.emf.common.util.Diagnostic;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EClassifier;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.eclipse.emf.ecore.util.builder.EcoreBuilders.*;
+import static org.hamcrest.CoreMatchers.hasItems;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+public class AsmModelValidatorTest {
+
+    private AsmModel asmModel;
+
+    private EClass invalidClass;
+
+    private EAttribute untypedAttribute;
+
+    @BeforeEach
+    void setUp() {
+        asmModel = AsmModel.buildAsmModel()
+                .uri(URI.createURI("urn:asm.judo-meta-asm"))
+                .build();
+
+        untypedAttribute = newEAttributeBuilder().withName("untyped").build();
+        invalidClass = newEClassBuilder().withName("1Invalid").withEStructuralFeatures(untypedAttribute).build();
+        EClass validClass = newEClassBuilder().withName("Valid").build();
+
+        EPackage entities = newEPackageBuilder().withName("entities").withNsURI("http://blackbelt.hu/judo/demo/entities")
+                .withNsPrefix("demoEntities").withEClassifiers(invalidClass, validClass).build();
+        EPackage demo = newEPackageBuilder().withName("demo").withNsURI("http://blackbelt.hu/judo/demo")
+                .withNsPrefix("demo").withESubpackages(entities).build();
+        asmModel.addContent(demo);
+    }
+
+    @Test
+    public void testValidateVisitsElementsOnce() {
+        List<Diagnostic> diagnostics = new AsmModelValidator(asmModel.getResourceSet()).validate();
+        log.debug("Diagnostics: {}", diagnostics);
+
+        assertThat(diagnostics.size(), is(3));
+        assertTrue(diagnostics.stream().allMatch(d -> d.getSeverity() == Diagnostic.ERROR));
+
+        Set<Object> invalidElements = diagnostics.stream().map(d -> d.getData().get(0)).collect(Collectors.toSet());
+        assertThat(invalidElements, hasItems(invalidClass, untypedAttribute));
+        assertThat(invalidElements.size(), is(2));
+
+        assertThat(asmModel.getDiagnostics().size(), is(3));
+        assertFalse(asmModel.isValid());
+    }
+
+    @Test
+    public void testValidateSplitPackagesVisitsElementsOnce() {
+        AsmPackageResources.split(asmModel.getResource());
+        assertThat(asmModel.getResourceSet().getResources().size(), is(2));
+
+        AsmModelValidator validator = new AsmModelValidator(asmModel.getResourceSet());
+        assertThat(validator.validate().size(), is(3));
+        assertThat(validator.validateParallel(new ForkJoinPool(2)).size(), is(3));
+        assertThat(validator.stream(Diagnostic.WARNING).count(), is(3L));
+        assertFalse(validator.isValid());
+    }
+
+    @Test
+    public void testValidationSessionIsReusable() {
+        int[] contextCount = new int[1];
+        AsmValidationSession session = new AsmValidationSession() {
+            @Override
+            protected Map<Object, Object> createContext() {
+                contextCount[0]++;
+                return super.createContext();
+            }
+        };
+        AsmModelValidator validator = new AsmModelValidator(asmModel.getResourceSet());
+
+        List<Diagnostic> diagnostics = validator.validate(session);
+        assertThat(validator.validate(session).size(), is(diagnostics.size()));
+        // environment is set up and context is created once for all elements of both validations
+        assertThat(contextCount[0], is(1));
+        assertSame(session.getObjectLabel(invalidClass), session.getObjectLabel(invalidClass));
+    }
+
+    @Test
+    public void testValidationResultIsCachedUntilModelChanges() {
+        AsmValidationResult validationResult = asmModel.getAsmModelResourceSupport().getValidationResult();
+        assertFalse(validationResult.isValid());
+        assertSame(validationResult, asmModel.getAsmModelResourceSupport().getValidationResult());
+        assertEquals(validationResult.getDiagnostics(), asmModel.getDiagnostics());
+        // diagnostics of the model are a copy, the cached result is not changed
+        asmModel.getDiagnostics().clear();
+        assertThat(validationResult.getDiagnostics().size(), is(3));
+
+        invalidClass.setName("Invalid");
+        untypedAttribute.setEType(newEDataTypeBuilder().withName("String").withInstanceClassName("java.lang.String").build());
+        invalidClass.getEPackage().getEClassifiers().add((EClassifier) untypedAttribute.getEType());
+
+        AsmValidationResult revalidated = asmModel.getAsmModelResourceSupport().getValidationResult();
+        assertNotSame(validationResult, revalidated);
+        assertTrue(revalidated.isValid());
+        assertTrue(asmModel.isValid());
+    }
+
+    @Test
+    public void testValidateParallel() {
+        AsmModelValidator validator = new AsmModelValidator(asmModel.getResourceSet());
+
+        List<Diagnostic> diagnostics = validator.validate();
+        List<Diagnostic> parallelDiagnostics = validator.validateParallel(new ForkJoinPool(2));
+
+        assertThat(parallelDiagnostics.stream().map(Diagnostic::getMessage).collect(Collectors.toList()),
+                is(diagnostics.stream().map(Diagnostic::getMessage).collect(Collectors.toList())));
+        assertThat(parallelDiagnostics.stream().map(d -> d.getData().get(0)).collect(Collectors.toList()),
+                is(diagnostics.stream().map(d -> d.getData().get(0)).collect(Collectors.toList())));
+
+        asmModel.getAsmModelResourceSupport().setParallelValidation(true);
+        assertFalse(asmModel.isValid());
+        assertThat(asmModel.getDiagnostics().size(), is(diagnostics.size()));
+    }
+
+    @Test
+    public void testIsValidStopsOnFirstError() {
+        AsmModelValidator validator = new AsmModelValidator(asmModel.getResourceSet());
+        assertFalse(validator.isValid());
+
+        // model has several errors (invalid class name, untyped attribute), elements after the first one are skipped
+        List<EObject> visited = new ArrayList<>();
+        AsmValidationSession session = new AsmValidationSession() {
+            @Override
+            public boolean hasError(EObject eObject) {
+                visited.add(eObject);
+                return super.hasError(eObject);
+            }
+        };
+        assertFalse(validator.isValid(session));
+        List<EObject> all = new ArrayList<>();
+        asmModel.getResource().getAllContents().forEachRemaining(all::add);
+        assertThat(visited.get(visited.size() - 1), is(invalidClass));
+        assertThat(visited.size(), lessThan(all.size()));
+
+        assertFalse(validator.isValidParallel(new ForkJoinPool(2)));
+        assertFalse(asmModel.isValid());
+
+        invalidClass.getEPackage().getEClassifiers().remove(invalidClass);
+
+        assertTrue(validator.isValid());
+        assertTrue(validator.isValidParallel(new ForkJoinPool(2)));
+        assertTrue(asmModel.isValid());
+        assertTrue(asmModel.getDiagnostics().isEmpty());
+    }
+
+    @Test
+    public void testStreamDiagnostics() {
+        List<AsmDiagnostic> diagnostics = asmModel.streamDiagnostics(Diagnostic.WARNING).collect(Collectors.toList());
+        assertThat(diagnostics.size(), is(3));
+        assertThat(diagnostics.get(0).getKey(), is(new AsmDiagnostic.Key(diagnostics.get(0).getSource(),
+                diagnostics.get(0).getCode(), EcoreUtil.getURI(invalidClass))));
+        assertThat(diagnostics.get(0).getElement().get(), is(invalidClass));
+
+        List<AsmDiagnostic> consumed = new ArrayList<>();
+        long count = new AsmModelValidator(asmModel.getResourceSet()).validate(consumed::add, Diagnostic.ERROR, 2);
+        assertThat(count, is(2L));
+        assertThat(consumed.size(), is(2));
+        assertThat(consumed.stream().map(AsmDiagnostic::getKey).collect(Collectors.toList()),
+                is(diagnostics.subList(0, 2).stream().map(AsmDiagnostic::getKey).collect(Collectors.toList())));
+    }
+
+    @Test
+    public void testIncrementalValidation() {
+        AsmIncrementalValidator incrementalValidator =
+                AsmIncrementalValidator.getIncrementalValidator(asmModel.getResourceSet());
+        assertThat(incrementalValidator.getDiagnostics().size(), is(3));
+        assertThat(incrementalValidator.getChangedElementCount(), is(0));
+
+        untypedAttribute.setEType(EcorePackage.Literals.ESTRING);
+        assertThat(incrementalValidator.getChangedElementCount(), is(5));
+        assertThat(incrementalValidator.getDiagnostics().stream().map(Diagnostic::getMessage).collect(Collectors.toSet()),
+                is(new AsmModelValidator(asmModel.getResourceSet()).validate().stream()
+                        .map(Diagnostic::getMessage).collect(Collectors.toSet())));
+
+        asmModel.setIncrementalValidation(true);
+        assertFalse(asmModel.isValid());
+
+        invalidClass.getEPackage().getEClassifiers().remove(invalidClass);
+        assertTrue(asmModel.isValid());
+        assertTrue(incrementalValidator.getDiagnostics().isEmpty());
+
+        asmModel.setIncrementalValidation(false);
+        assertFalse(asmModel.getResourceSet().eAdapters().contains(incrementalValidator));
+    }
+
+    @Test
+    public void testIncrementalValidationOfReferencingElements() {
+        EPackage entities = invalidClass.getEPackage();
+        entities.getEClassifiers().remove(invalidClass);
+        EClass base = newEClassBuilder().withName("Base").build();
+        EClass derived = newEClassBuilder().withName("Derived").withESuperTypes(base)
+                .withEStructuralFeatures(newEAttributeBuilder().withName("name").withEType(EcorePackage.Literals.ESTRING)
+                        .build())
+                .build();
+        entities.getEClassifiers().add(base);
+        entities.getEClassifiers().add(derived);
+
+        AsmIncrementalValidator incrementalValidator =
+                AsmIncrementalValidator.getIncrementalValidator(asmModel.getResourceSet());
+        assertTrue(incrementalValidator.isValid());
+
+        // derived class is not changed, but it is validated again as it references the changed supertype
+        base.getEStructuralFeatures().add(newEAttributeBuilder().withName("name")
+                .withEType(EcorePackage.Literals.ESTRING).build());
+        assertFalse(incrementalValidator.isValid());
+        assertTrue(incrementalValidator.getDiagnostics().stream().anyMatch(d -> d.getData().contains(derived)));
+        assertThat(incrementalValidator.getDiagnostics().size(),
+                is(new AsmModelValidator(asmModel.getResourceSet()).validate().size()));
+
+        base.getEStructuralFeatures().clear();
+        assertTrue(incrementalValidator.isValid());
+        incrementalValidator.detach();
+    }
+
+    @Test
+    public void testValidationCache() throws IOException, AsmModel.AsmValidationException {
+        Path directory = Files.createTempDirectory("asm-validation-cache");
+        File file = directory.resolve("demo.asm").toFile();
+        asmModel.saveAsmModel(AsmModel.SaveArguments.asmSaveArgumentsBuilder().file(file).validateModel(false));
+
+        int[] validationCount = new int[1];
+        AsmValidationCache validationCache = new AsmValidationCache(directory.resolve("cache")) {
+            @Override
+            public List<Diagnostic> computeIfAbsent(String modelDigest, String rulesetDigest,
+                                                    Supplier<? extends Collection<? extends Diagnostic>> validation) {
+                return super.computeIfAbsent(modelDigest, rulesetDigest, () -> {
+                    validationCount[0]++;
+                    return validation.get();
+                });
+            }
+        };
+        for (int i = 0; i < 2; i++) {
+            AsmModel loaded = AsmModel.loadAsmModel(AsmModel.LoadArguments.asmLoadArgumentsBuilder()
+                    .uri(URI.createFileURI(file.getAbsolutePath()))
+                    .file(file)
+                    .validateModel(false)
+                    .validationCache(validationCache));
+            assertFalse(loaded.isValid());
+            assertThat(directory.resolve("cache").toFile().list().length, is(1));
+            // model is validated on the first load only, result of the second load is read from the cache
+            assertThat(validationCount[0], is(1));
+        }
+
+        String modelDigest;
+        try (FileInputStream inputStream = new FileInputStream(file)) {
+            modelDigest = AsmValidationCache.getDigest(AsmValidationCache.digestInputStream(inputStream));
+            // input is owned by the caller, it is not closed
+            assertThat(inputStream.read(), is(-1));
+        }
+        List<Diagnostic> cached = validationCache.get(modelDigest, AsmValidationCache.getStructuralRulesetDigest())
+                .orElseThrow(IllegalStateException::new);
+        assertThat(cached.stream().map(Diagnostic::getMessage).collect(Collectors.toSet()),
+                is(new AsmModelValidator(asmModel.getResourceSet()).validate().stream()
+                        .map(Diagnostic::getMessage).collect(Collectors.toSet())));
+    }
+}
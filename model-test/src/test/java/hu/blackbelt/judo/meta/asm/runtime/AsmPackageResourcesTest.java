@@ -0,0 +1,189 @@
+package hu.blackbelt.judo.meta.asm.runtime;
+
+/*-
+ * #%L
+ * Judo :: Asm :: Model
+ * %%
+ * Copyright (C) 2018 - 2022 BlackBelt Technology
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+
+
+
+import hu.blackbelt.judo.meta.asm.support.AsmIdStrategy;
+import hu.blackbelt.judo.meta.asm.support.AsmPackageResources;
+import hu.blackbelt.judo.meta.asm.support.AsmValidationCache;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EPackage;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.eclipse.emf.ecore.util.builder.EcoreBuilders.newEPackageBuilder;
+import static org.eclipse.emf.ecore.util.builder.EcoreBuilders.newEReferenceBuilder;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AsmPackageResourcesTest {
+
+    @Test
+    public void testSplitPackages() throws IOException, AsmModel.AsmValidationException {
+        File file = new File("target/test-classes/split.asm");
+        File single = new File("target/test-classes/split-single.asm");
+        AsmModel asmModel = AsmTestModels.createPackageModel(file);
+        asmModel.saveAsmModel(AsmModel.SaveArguments.asmSaveArgumentsBuilder().file(single).validateModel(false));
+        asmModel.saveAsmModel(AsmModel.SaveArguments.asmSaveArgumentsBuilder()
+                .file(file)
+                .splitPackages(true)
+                .validateModel(false));
+        for (int i = 0; i < 3; i++) {
+            assertTrue(new File("target/test-classes/split.demo.p" + i + ".asm").exists());
+            assertTrue(new File("target/test-classes/split.demo.p" + i + ".inner.asm").exists());
+        }
+
+        AsmModel loaded = AsmModel.loadAsmModel(AsmModel.LoadArguments.asmLoadArgumentsBuilder()
+                .uri(URI.createFileURI(file.getAbsolutePath()))
+                .file(file)
+                .validateModel(false));
+        assertEquals(1, loaded.getResourceSet().getResources().size());
+
+        EPackage demo = (EPackage) loaded.getResource().getContents().get(0);
+        EPackage p1 = demo.getESubpackages().get(1);
+        assertEquals("p1", p1.getName());
+        assertSame(demo, p1.getESuperPackage());
+        assertEquals(2, loaded.getResourceSet().getResources().size());
+
+        EClass superType = ((EClass) p1.getEClassifier("Entity")).getESuperTypes().get(0);
+        assertEquals("p0", superType.getEPackage().getName());
+        assertEquals(3, loaded.getResourceSet().getResources().size());
+
+        File merged = new File("target/test-classes/split-merged.asm");
+        loaded.saveAsmModel(AsmModel.SaveArguments.asmSaveArgumentsBuilder().file(merged).validateModel(false));
+        assertEquals(1, loaded.getResourceSet().getResources().size());
+        assertArrayEquals(Files.readAllBytes(single.toPath()), Files.readAllBytes(merged.toPath()));
+    }
+
+    @Test
+    public void testSplitPackagesWithIdStrategy() throws IOException, AsmModel.AsmValidationException {
+        File file = new File("target/test-classes/split-path.asm");
+        AsmTestModels.createPackageModel(file).saveAsmModel(AsmModel.SaveArguments.asmSaveArgumentsBuilder()
+                .file(file)
+                .splitPackages(true)
+                .idStrategy(AsmIdStrategy.PATH)
+                .validateModel(false));
+
+        AsmModel loaded = AsmModel.loadAsmModel(AsmModel.LoadArguments.asmLoadArgumentsBuilder()
+                .uri(URI.createFileURI(file.getAbsolutePath()))
+                .file(file)
+                .validateModel(false));
+        EPackage inner = ((EPackage) loaded.getResource().getContents().get(0)).getESubpackages().get(2)
+                .getESubpackages().get(0);
+        assertEquals("demo/p2/inner", AsmUtils.getId(inner));
+        assertEquals("split-path.demo.p2.inner.asm", inner.eResource().getURI().lastSegment());
+    }
+
+    @Test
+    public void testSplitPackagesKeepsLayout() throws IOException, AsmModel.AsmValidationException {
+        File file = new File("target/test-classes/split-layout.asm");
+        File other = new File("target/test-classes/split-layout-other.asm");
+        AsmModel asmModel = AsmTestModels.createPackageModel(file);
+        asmModel.saveAsmModel(AsmModel.SaveArguments.asmSaveArgumentsBuilder()
+                .file(other)
+                .splitPackages(true)
+                .idStrategy(AsmIdStrategy.PATH)
+                .validateModel(false));
+        assertTrue(new File("target/test-classes/split-layout-other.demo.p0.asm").exists());
+
+        // model which was not split is merged back and keeps its URI, xmiid-s of packages are kept
+        assertEquals(1, asmModel.getResourceSet().getResources().size());
+        assertEquals(URI.createFileURI(file.getAbsolutePath()), asmModel.getResource().getURI());
+        EPackage p1 = ((EPackage) asmModel.getResource().getContents().get(0)).getESubpackages().get(1);
+        assertSame(asmModel.getResource(), p1.eResource());
+        assertEquals("demo/p1/Entity", AsmUtils.getId(p1.getEClassifier("Entity")));
+    }
+
+    @Test
+    public void testSplitPackagesWithIdStrategyReferencingNextPackage()
+            throws IOException, AsmModel.AsmValidationException {
+        File file = new File("target/test-classes/split-forward.asm");
+        AsmModel asmModel = AsmTestModels.createPackageModel(file);
+        EPackage demo = (EPackage) asmModel.getResource().getContents().get(0);
+        // p0 is saved before p1, so xmiid of the referenced element is not assigned by the save of p1
+        ((EClass) demo.getESubpackages().get(0).getEClassifier("Entity")).getEStructuralFeatures().add(
+                newEReferenceBuilder().withName("next")
+                        .withEType(demo.getESubpackages().get(1).getEClassifier("Entity"))
+                        .build());
+        asmModel.saveAsmModel(AsmModel.SaveArguments.asmSaveArgumentsBuilder()
+                .file(file)
+                .splitPackages(true)
+                .idStrategy(AsmIdStrategy.HASH)
+                .validateModel(false));
+
+        AsmModel loaded = AsmModel.loadAsmModel(AsmModel.LoadArguments.asmLoadArgumentsBuilder()
+                .uri(URI.createFileURI(file.getAbsolutePath()))
+                .file(file)
+                .validateModel(false));
+        EPackage loadedDemo = (EPackage) loaded.getResource().getContents().get(0);
+        EClass next = (EClass) ((EClass) loadedDemo.getESubpackages().get(0).getEClassifier("Entity"))
+                .getEStructuralFeature("next").getEType();
+        assertFalse(next.eIsProxy());
+        assertSame(loadedDemo.getESubpackages().get(1), next.getEPackage());
+    }
+
+    @Test
+    public void testSplitPackagesWithValidationCache() throws IOException, AsmModel.AsmValidationException {
+        File file = new File("target/test-classes/split-cache.asm");
+        AsmTestModels.createPackageModel(file).saveAsmModel(AsmModel.SaveArguments.asmSaveArgumentsBuilder()
+                .file(file)
+                .splitPackages(true)
+                .validateModel(false));
+
+        // digest of the model file does not cover resources of packages, cache is not used
+        AsmValidationCache validationCache = new AsmValidationCache(Files.createTempDirectory("asm-split-cache"));
+        AsmModel loaded = AsmModel.loadAsmModel(AsmModel.LoadArguments.asmLoadArgumentsBuilder()
+                .uri(URI.createFileURI(file.getAbsolutePath()))
+                .file(file)
+                .validateModel(false)
+                .validationCache(validationCache));
+        assertTrue(loaded.isValid());
+        assertEquals(0, validationCache.getDirectory().toFile().list().length);
+    }
+
+    @Test
+    public void testPackageResourceUriWithoutSegments() {
+        EPackage p0 = newEPackageBuilder().withName("p0").build();
+        newEPackageBuilder().withName("demo").withESubpackages(p0).build();
+
+        assertEquals(URI.createURI("urn:asm.demo.p0"),
+                AsmPackageResources.getPackageResourceUri(URI.createURI("urn:asm"), p0));
+        assertEquals(URI.createFileURI(new File("target/demo.demo.p0.asm").getAbsolutePath()),
+                AsmPackageResources.getPackageResourceUri(
+                        URI.createFileURI(new File("target/demo.asm").getAbsolutePath()), p0));
+    }
+
+    @Test
+    public void testSplitPackagesToStream() {
+        File file = new File("target/test-classes/split-stream.asm");
+        assertThrows(IllegalArgumentException.class, () -> AsmTestModels.createPackageModel(file).saveAsmModel(
+                AsmModel.SaveArguments.asmSaveArgumentsBuilder()
+                        .outputStream(new ByteArrayOutputStream())
+                        .splitPackages(true)
+                        .validateModel(false)));
+    }
+}
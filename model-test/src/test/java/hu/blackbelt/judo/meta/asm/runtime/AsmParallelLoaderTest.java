@@ -0,0 +1,104 @@
+package hu.blackbelt.judo.meta.asm.runtime;
+
+/*-
+ * #%L
+ * Judo :: Asm :: Model
+ * %%
+ * Copyright (C) 2018 - 2022 BlackBelt Technology
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+
+
+
+import hu.blackbelt.judo.meta.asm.support.AsmModelResourceSupport;
+import hu.blackbelt.judo.meta.asm.support.AsmParallelLoader;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AsmParallelLoaderTest {
+
+    @Test
+    public void testLoadPackagesInParallel() throws IOException, AsmModel.AsmValidationException {
+        File file = new File("target/test-classes/parallel.asm");
+        File single = new File("target/test-classes/parallel-single.asm");
+        AsmModel asmModel = AsmTestModels.createPackageModel(file);
+        asmModel.saveAsmModel(AsmModel.SaveArguments.asmSaveArgumentsBuilder().file(single).validateModel(false));
+        asmModel.saveAsmModel(AsmModel.SaveArguments.asmSaveArgumentsBuilder()
+                .file(file)
+                .splitPackages(true)
+                .validateModel(false));
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            AsmModel loaded = AsmModel.loadAsmModel(AsmModel.LoadArguments.asmLoadArgumentsBuilder()
+                    .uri(URI.createFileURI(file.getAbsolutePath()))
+                    .file(file)
+                    .executor(executor)
+                    .validateModel(false));
+            assertEquals(7, loaded.getResourceSet().getResources().size());
+
+            EPackage demo = (EPackage) loaded.getResource().getContents().get(0);
+            EPackage inner = demo.getESubpackages().get(2).getESubpackages().get(0);
+            assertSame(demo, inner.getESuperPackage().getESuperPackage());
+            assertEquals(7, loaded.getResourceSet().getResources().size());
+
+            File merged = new File("target/test-classes/parallel-merged.asm");
+            loaded.saveAsmModel(AsmModel.SaveArguments.asmSaveArgumentsBuilder().file(merged).validateModel(false));
+            assertArrayEquals(Files.readAllBytes(single.toPath()), Files.readAllBytes(merged.toPath()));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testLoadIndependentModels() throws IOException, AsmModel.AsmValidationException {
+        List<URI> uris = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            File file = new File("target/test-classes/parallel-independent-" + i + ".asm");
+            AsmTestModels.createEntityModel(file, 10).saveAsmModel(AsmModel.SaveArguments.asmSaveArgumentsBuilder()
+                    .file(file)
+                    .validateModel(false));
+            uris.add(URI.createFileURI(file.getAbsolutePath()));
+        }
+
+        ResourceSet resourceSet = AsmModelResourceSupport.createAsmResourceSet();
+        List<Resource> resources = AsmParallelLoader.load(resourceSet, uris);
+        assertEquals(4, resources.size());
+        assertEquals(resources, resourceSet.getResources());
+        for (int i = 0; i < 4; i++) {
+            assertEquals(uris.get(i), resources.get(i).getURI());
+            assertTrue(resources.get(i).isLoaded());
+            assertEquals("demo", ((EPackage) resources.get(i).getContents().get(0)).getName());
+        }
+
+        // resources of the resource set are not loaded again
+        assertEquals(resources, AsmParallelLoader.load(resourceSet, uris));
+        assertEquals(4, resourceSet.getResources().size());
+    }
+}
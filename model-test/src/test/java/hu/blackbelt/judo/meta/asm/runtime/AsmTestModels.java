@@ -0,0 +1,156 @@
+package hu.blackbelt.judo.meta.asm.runtime;
+
+/*-
+ * #%L
+ * Judo :: Asm :: Model
+ * %%
+ * Copyright (C) 2018 - 2022 BlackBelt Technology
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EAnnotation;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EcorePackage;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.eclipse.emf.ecore.util.builder.EcoreBuilders.*;
+
+/**
+ * Models and helpers of tests saving and loading ASM models. Each test uses the smallest model that covers what it asserts on.
+ */
+final class AsmTestModels {
+
+    private AsmTestModels() {
+    }
+
+    /**
+     * Create model of entity classes with a name attribute.
+     *
+     * @param file    file of the model
+     * @param classes number of classes
+     * @return model
+     */
+    static AsmModel createEntityModel(File file, int classes) {
+        EPackage demo = createDemoPackage();
+        for (int i = 0; i < classes; i++) {
+            demo.getEClassifiers().add(newEClassBuilder()
+                    .withName("Entity" + i)
+                    .withEStructuralFeatures(createNameAttribute())
+                    .build());
+        }
+        return createModel(file, demo);
+    }
+
+    /**
+     * Create model of annotated entity classes with a common abstract supertype, each class references the previous
+     * one.
+     *
+     * @param file    file of the model
+     * @param classes number of classes
+     * @return model
+     */
+    static AsmModel createLinkedEntityModel(File file, int classes) {
+        EClass base = newEClassBuilder().withName("Base").withAbstract_(true).build();
+        EPackage demo = createDemoPackage();
+        demo.getEClassifiers().add(base);
+        EClass previous = base;
+        for (int i = 0; i < classes; i++) {
+            EAnnotation annotation = newEAnnotationBuilder()
+                    .withSource("http://blackbelt.hu/judo/meta/ExtendedMetadata/entity")
+                    .build();
+            annotation.getDetails().put("value", "true");
+
+            EClass eClass = newEClassBuilder()
+                    .withName("Entity" + i)
+                    .withESuperTypes(base)
+                    .withEAnnotations(annotation)
+                    .withEStructuralFeatures(createNameAttribute())
+                    .withEStructuralFeatures(newEReferenceBuilder()
+                            .withName("previous")
+                            .withEType(previous)
+                            .build())
+                    .build();
+            demo.getEClassifiers().add(eClass);
+            previous = eClass;
+        }
+        return createModel(file, demo);
+    }
+
+    /**
+     * Create model of three sub-packages (each with an inner package), entity class of each sub-package extends the
+     * one of the previous sub-package.
+     *
+     * @param file file of the model
+     * @return model
+     */
+    static AsmModel createPackageModel(File file) {
+        EPackage demo = createDemoPackage();
+        EClass previous = null;
+        for (int i = 0; i < 3; i++) {
+            EClass entity = newEClassBuilder().withName("Entity").build();
+            if (previous != null) {
+                entity.getESuperTypes().add(previous);
+            }
+            previous = entity;
+            demo.getESubpackages().add(newEPackageBuilder().withName("p" + i)
+                    .withNsURI("http://blackbelt.hu/judo/demo/p" + i).withNsPrefix("p" + i)
+                    .withEClassifiers(entity)
+                    .withESubpackages(newEPackageBuilder().withName("inner")
+                            .withNsURI("http://blackbelt.hu/judo/demo/p" + i + "/inner").withNsPrefix("inner" + i)
+                            .build())
+                    .build());
+        }
+        return createModel(file, demo);
+    }
+
+    /**
+     * Load model from file and print it as string. Encoding of loaded models is defined by the XML declaration, so
+     * they are compared to the model loaded by default.
+     *
+     * @param file file of the model
+     * @return model as XML string
+     */
+    static String loadAsString(File file) throws IOException, AsmModel.AsmValidationException {
+        return AsmModel.loadAsmModel(AsmModel.LoadArguments.asmLoadArgumentsBuilder()
+                .uri(URI.createFileURI(file.getAbsolutePath()))
+                .file(file)).asString();
+    }
+
+    private static EPackage createDemoPackage() {
+        return newEPackageBuilder().withName("demo").withNsURI("http://blackbelt.hu/judo/demo")
+                .withNsPrefix("demo").build();
+    }
+
+    private static EAttribute createNameAttribute() {
+        return newEAttributeBuilder()
+                .withName("name")
+                .withEType(EcorePackage.Literals.ESTRING)
+                .build();
+    }
+
+    private static AsmModel createModel(File file, EPackage demo) {
+        AsmModel asmModel = AsmModel.buildAsmModel()
+                .uri(URI.createFileURI(file.getAbsolutePath()))
+                .build();
+        asmModel.addContent(demo);
+        return asmModel;
+    }
+}
@@ -21,6 +21,8 @@ package hu.blackbelt.judo.meta.asm.runtime;
  */
 
 import com.google.common.collect.ImmutableList;
+import hu.blackbelt.judo.meta.asm.support.AsmModelChangeTracker;
+import hu.blackbelt.judo.meta.asm.support.AsmXmiIdValidator;
 import lombok.extern.slf4j.Slf4j;
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.*;
@@ -57,6 +59,33 @@ public class AsmUtilsTest extends ExecutionContextOnAsmTest {
         assertThat(asmUtils.getPackageFQName(ePackage.get()), is("demo.services"));
     }
 
+    @Test
+    public void testChangeTrackerIsReleasedWithCache() {
+        ResourceSet resourceSet = new ResourceSetImpl();
+        AsmUtils utils = new AsmUtils(resourceSet);
+        AsmUtilsCache cache = AsmUtilsCache.getCache(resourceSet);
+        assertEquals(1, resourceSet.eAdapters().size());
+
+        cache.release();
+        cache.release();
+        assertTrue(cache.isReleased());
+        assertTrue(resourceSet.eAdapters().isEmpty());
+
+        // released cache is replaced, its change tracker is not acquired again
+        assertFalse(utils.getModel().isPresent());
+        AsmUtilsCache newCache = AsmUtilsCache.getCache(resourceSet);
+        assertNotSame(cache, newCache);
+        assertEquals(1, resourceSet.eAdapters().size());
+        newCache.release();
+        assertTrue(resourceSet.eAdapters().isEmpty());
+
+        // change tracker used for the lifetime of the resource set is not detached
+        AsmModelChangeTracker changeTracker = AsmModelChangeTracker.getChangeTracker(resourceSet);
+        AsmUtilsCache.getCache(resourceSet).release();
+        assertEquals(1, resourceSet.eAdapters().size());
+        assertSame(changeTracker, resourceSet.eAdapters().get(0));
+    }
+
     @Test
     public void testGetClassifierFQName() {
         Optional<EClassifier> eClassifier = asmUtils.all(EClassifier.class)
@@ -66,6 +95,70 @@ public class AsmUtilsTest extends ExecutionContextOnAsmTest {
         assertThat(asmUtils.getClassifierFQName(eClassifier.get()), is("demo.types.Countries"));
     }
 
+    @Test
+    public void testGetRelativeFQName() {
+        Optional<EClassifier> eClassifier = asmUtils.all(EClassifier.class)
+                .filter(clsf -> "Countries".equals(clsf.getName())).findAny();
+
+        assertTrue(eClassifier.isPresent());
+        assertThat(asmUtils.getRelativeFQName(eClassifier.get()), is("types.Countries"));
+        assertThat(asmUtils.getRelativeFQName(eClassifier.get()), is("types.Countries"));
+    }
+
+    @Test
+    public void testGetModelRoot() {
+        ModelRoot modelRoot = asmUtils.getModelRoot();
+        assertTrue(modelRoot.getRootPackage().isPresent());
+        assertThat(modelRoot.getName(), is("demo"));
+        assertNull(asmUtils.getVersion());
+        assertSame(modelRoot, asmUtils.getModelRoot());
+
+        AsmUtils.addExtensionAnnotation(modelRoot.getRootPackage().get(), "ModelVersion", "1.2.3");
+
+        assertNotSame(modelRoot, asmUtils.getModelRoot());
+        assertThat(asmUtils.getVersion(), is("1.2.3"));
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testCacheModel() {
+        AsmUtilsCache cache = AsmUtilsCache.getCache(asmUtils.getModel().get().eResource().getResourceSet());
+        assertThat(cache.getModel().get().getName(), is("demo"));
+
+        EPackage other = newEPackageBuilder().withName("other").build();
+        cache.setModel(Optional.of(other));
+        assertSame(other, cache.getModel().get());
+        assertSame(other, asmUtils.getModel().get());
+    }
+
+    @Test
+    public void testGetFeatureNaming() {
+        Optional<EAttribute> companyName = asmUtils.all(EAttribute.class)
+                .filter(attr -> "companyName".equals(attr.getName())).findAny();
+        assertTrue(companyName.isPresent());
+
+        // descriptors are computed in bulk by the traversal building the actor type registry
+        ActorTypeRegistry actorTypeRegistry = asmUtils.getActorTypeRegistry();
+        FeatureNaming.Index featureNamingIndex = asmUtils.getFeatureNamingIndex();
+        assertThat(featureNamingIndex.getModificationCount(), is(actorTypeRegistry.getModificationCount()));
+        assertSame(featureNamingIndex, asmUtils.getFeatureNamingIndex());
+
+        FeatureNaming companyNameNaming = asmUtils.getFeatureNaming(companyName.get());
+        assertThat(companyNameNaming.getSafeName(), is("companyName"));
+        assertThat(companyNameNaming.getGetterName(), is(AsmUtils.getterName(companyName.get())));
+        assertThat(companyNameNaming.getSetterName(), is("setCompanyName"));
+        assertThat(companyNameNaming.getJavaTypeCategory(), is(FeatureNaming.JavaTypeCategory.STRING));
+        assertSame(companyNameNaming, asmUtils.getFeatureNaming(companyName.get()));
+
+        EClass primitives = newEClassBuilder().withName("Primitives").withEStructuralFeatures(
+                newEAttributeBuilder().withName("class").withEType(EcorePackage.eINSTANCE.getEBoolean()).build()).build();
+        FeatureNaming classNaming = asmUtils.getFeatureNaming(primitives.getEStructuralFeature("class"));
+        assertThat(classNaming.getSafeName(), is("class_"));
+        assertThat(classNaming.getGetterName(), is("isClass_"));
+        assertThat(classNaming.getSetterName(), is("setClass_"));
+        assertThat(classNaming.getJavaTypeCategory(), is(FeatureNaming.JavaTypeCategory.BOOLEAN));
+    }
+
     @Test
     public void testGetAttributeFQName() {
         Optional<EAttribute> eAttribute = asmUtils.all(EAttribute.class)
@@ -473,7 +566,9 @@ public class AsmUtilsTest extends ExecutionContextOnAsmTest {
         // #2 - non-unique xmiid
         setId(eClass2, "EClass1Xmiid");
 
-        assertThrows(IllegalStateException.class, asmUtils::validateUniqueXmiids);
+        IllegalStateException exception = assertThrows(IllegalStateException.class, asmUtils::validateUniqueXmiids);
+        assertTrue(exception.getMessage().contains("Xmiid EClass1Xmiid must be unique: "
+                + AsmXmiIdValidator.getPath(eClass1) + ", " + AsmXmiIdValidator.getPath(eClass2)));
     }
 
     public File targetDir() {
@@ -21,15 +21,30 @@ package hu.blackbelt.judo.meta.asm.runtime;
  */
 
 import com.google.common.collect.ImmutableList;
-import hu.blackbelt.epsilon.runtime.execution.exceptions.EvlScriptExecutionException;
 import hu.blackbelt.epsilon.runtime.execution.impl.BufferedSlf4jLogger;
 import lombok.extern.slf4j.Slf4j;
+import hu.blackbelt.judo.meta.asm.support.AsmModelValidator;
+import hu.blackbelt.judo.meta.asm.support.AsmValidationProfile;
+import hu.blackbelt.judo.meta.asm.support.AsmValidationProfiler;
+import hu.blackbelt.judo.meta.asm.support.AsmValidationSession;
 import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EClass;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Collection;
 
+import static org.eclipse.emf.ecore.util.builder.EcoreBuilders.newEClassBuilder;
+import static org.eclipse.emf.ecore.util.builder.EcoreBuilders.newEPackageBuilder;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 @Slf4j
 public class AsmValidationTest {
 
@@ -52,7 +67,7 @@ public class AsmValidationTest {
                     AsmEpsilonValidator.calculateAsmValidationScriptURI(),
                     expectedErrors,
                     expectedWarnings);
-        } catch (EvlScriptExecutionException ex) {
+        } catch (AsmEvlValidationException ex) {
             log.error("EVL failed", ex);
             log.error("\u001B[31m - expected errors: {}\u001B[0m", expectedErrors);
             log.error("\u001B[31m - unexpected errors: {}\u001B[0m", ex.getUnexpectedErrors());
@@ -68,4 +83,111 @@ public class AsmValidationTest {
     public void test() throws Exception {
         runEpsilon(ImmutableList.of(), null);
     }
+
+    @Test
+    public void testParallel() throws Exception {
+        try (BufferedSlf4jLogger bufferedLog = new BufferedSlf4jLogger(log)) {
+            AsmEpsilonValidator.validateAsm(bufferedLog,
+                    asmModel,
+                    AsmEpsilonValidator.calculateAsmValidationScriptURI(),
+                    ImmutableList.of(),
+                    null,
+                    4);
+        }
+    }
+
+    @Test
+    public void testValidatorService() throws Exception {
+        AsmValidatorService validatorService = new AsmValidatorService();
+
+        AsmModel otherAsmModel = AsmModel.buildAsmModel()
+                .uri(URI.createURI("urn:other.judo-meta-asm"))
+                .build();
+
+        assertTrue(validatorService.validate(asmModel).isValid());
+        assertTrue(validatorService.validate(otherAsmModel).isValid());
+        assertTrue(validatorService.validate(asmModel).getWarnings().isEmpty());
+    }
+
+    @Test
+    public void testValidatorServiceIsReusedByScriptRoot() throws Exception {
+        java.net.URI scriptRoot = AsmEpsilonValidator.calculateAsmValidationScriptURI();
+        assertSame(AsmEpsilonValidator.getValidatorService(scriptRoot, 1),
+                AsmEpsilonValidator.getValidatorService(scriptRoot, 1));
+        assertNotSame(AsmEpsilonValidator.getValidatorService(scriptRoot, 1),
+                AsmEpsilonValidator.getValidatorService(scriptRoot, 4));
+        assertThat(AsmEpsilonValidator.getValidatorService(scriptRoot, 4).getParallelism(), is(4));
+    }
+
+    @Test
+    public void testJavaConstraintsMatchEvl() throws Exception {
+        addDemoModel();
+        Path scriptRoot = createDemoScript();
+        AsmConstraintRegistry registry = createDemoConstraintRegistry();
+
+        AsmValidatorService.Result evlResult = new AsmValidatorService(scriptRoot.toUri()).validate(asmModel);
+        AsmValidatorService.Result javaResult = new AsmConstraintValidator(registry).validateParallel(asmModel);
+
+        assertThat(javaResult.getErrors(), is(ImmutableList.of("NameIsCapitalized|Class name must be capitalized: demo.address")));
+        assertThat(javaResult.getWarnings(), is(ImmutableList.of("NameIsNotTooShort|Class name is too short: demo.X")));
+        evlResult.check(javaResult.getErrors(), javaResult.getWarnings());
+
+        try (BufferedSlf4jLogger bufferedLog = new BufferedSlf4jLogger(log)) {
+            AsmConstraintValidator.validateAsm(bufferedLog, asmModel, registry,
+                    javaResult.getErrors(), javaResult.getWarnings());
+        }
+    }
+
+    @Test
+    public void testProfiling() throws Exception {
+        addDemoModel();
+        AsmValidationProfiler profiler = new AsmValidationProfiler(2);
+
+        new AsmValidatorService(createDemoScript().toUri()).validate(asmModel, profiler);
+        new AsmConstraintValidator(createDemoConstraintRegistry(), profiler).validate(asmModel);
+        new AsmModelValidator(asmModel.getResourceSet()).validate(new AsmValidationSession(profiler));
+
+        AsmValidationProfile profile = profiler.getProfile();
+        assertThat(profile.getConstraint("evl:NameIsCapitalized").get().getInvocationCount(), is(3L));
+        assertThat(profile.getConstraint("java:NameIsNotTooShort").get().getInvocationCount(), is(3L));
+        assertThat(profile.getConstraint("emf:EClass").get().getInvocationCount(), is(3L));
+        assertThat(profile.getConstraint("emf:EPackage").get().getSlowestContexts().get(0).getContext(), is("demo"));
+        assertThat(profile.getConstraint("emf:EClass").get().getSlowestContexts().size(), is(2));
+        assertTrue(profile.toString().contains("java:NameIsCapitalized"));
+    }
+
+    private void addDemoModel() {
+        asmModel.addContent(newEPackageBuilder().withName("demo").withNsURI("http://blackbelt.hu/judo/demo")
+                .withNsPrefix("demo")
+                .withEClassifiers(newEClassBuilder().withName("Person").build(),
+                        newEClassBuilder().withName("address").build(),
+                        newEClassBuilder().withName("X").build())
+                .build());
+    }
+
+    private Path createDemoScript() throws IOException {
+        Path scriptRoot = Files.createTempDirectory("asm-validation");
+        Files.write(scriptRoot.resolve("asm.evl"), ImmutableList.of(
+                "context ASM!EClass {",
+                "  constraint NameIsCapitalized {",
+                "    check: self.name.substring(0, 1).toUpperCase() == self.name.substring(0, 1)",
+                "    message: \"Class name must be capitalized: \" + asmUtils.getClassifierFQName(self)",
+                "  }",
+                "  critique NameIsNotTooShort {",
+                "    check: self.name.length() > 1",
+                "    message: \"Class name is too short: \" + asmUtils.getClassifierFQName(self)",
+                "  }",
+                "}"));
+        return scriptRoot;
+    }
+
+    private AsmConstraintRegistry createDemoConstraintRegistry() {
+        return AsmConstraintRegistry.createAsmConstraintRegistry()
+                .register(AsmConstraint.constraint("NameIsCapitalized", EClass.class,
+                        (eClass, asmUtils) -> Character.isUpperCase(eClass.getName().charAt(0)),
+                        (eClass, asmUtils) -> "Class name must be capitalized: " + AsmUtils.getClassifierFQName(eClass)))
+                .register(AsmConstraint.critique("NameIsNotTooShort", EClass.class,
+                        (eClass, asmUtils) -> eClass.getName().length() > 1,
+                        (eClass, asmUtils) -> "Class name is too short: " + AsmUtils.getClassifierFQName(eClass)));
+    }
 }
@@ -20,7 +20,6 @@ package hu.blackbelt.judo.meta.asm.runtime;
  * #L%
  */
 
-import hu.blackbelt.epsilon.runtime.execution.exceptions.EvlScriptExecutionException;
 import hu.blackbelt.epsilon.runtime.execution.impl.BufferedSlf4jLogger;
 import lombok.extern.slf4j.Slf4j;
 import org.eclipse.emf.common.util.URI;
@@ -57,7 +56,7 @@ class ExecutionContextOnAsmTest {
                     AsmEpsilonValidator.calculateAsmValidationScriptURI(),
                     Collections.emptyList(),
                     Collections.emptyList());
-        } catch (EvlScriptExecutionException ex) {
+        } catch (AsmEvlValidationException ex) {
             log.error("EVL failed", ex);
             log.error("\u001B[31m - unexpected errors: {}\u001B[0m", ex.getUnexpectedErrors());
             log.error("\u001B[33m - unexpected warnings: {}\u001B[0m", ex.getUnexpectedWarnings());
@@ -0,0 +1,383 @@
+package hu.blackbelt.judo.meta.asm.runtime;
+
+/*-
+ * #%L
+ * Judo :: Asm :: Model
+ * %%
+ * Copyright (C) 2018 - 2022 BlackBelt Technology
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+
+import org.eclipse.emf.common.notify.Notifier;
+import org.eclipse.emf.common.util.BasicEList;
+import org.eclipse.emf.common.util.ECollections;
+import org.eclipse.emf.common.util.EList;
+import org.eclipse.emf.common.util.UniqueEList;
+import org.eclipse.emf.ecore.EAnnotation;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EModelElement;
+import org.eclipse.emf.ecore.EOperation;
+import org.eclipse.emf.ecore.EParameter;
+import org.eclipse.emf.ecore.EReference;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import static hu.blackbelt.judo.meta.asm.runtime.AsmUtils.EXTENDED_METADATA_DETAILS_VALUE_KEY;
+import static hu.blackbelt.judo.meta.asm.runtime.AsmUtils.getAnnotationUri;
+import static hu.blackbelt.judo.meta.asm.runtime.AsmUtils.getClassifierFQName;
+
+/**
+ * Registry of actor types of an ASM model.
+ * <p>
+ * Registry is built by a single traversal of model contents, actor types are registered with ordinals (in model
+ * order), fully qualified names, access points, principal and metadata operations and number of model elements
+ * exposed by them. The registry is immutable, it is bound to the modification count of the model it was built at, so
+ * {@link AsmUtils#getActorTypeRegistry()} can rebuild it when the model is changed.
+ */
+public class ActorTypeRegistry {
+
+    private static final String ACTOR_TYPE_ANNOTATION_URI = getAnnotationUri("actorType");
+    private static final String ACTOR_ANNOTATION_URI = getAnnotationUri("actor");
+    private static final String EXPOSED_BY_ANNOTATION_URI = getAnnotationUri("exposedBy");
+    private static final String BEHAVIOUR_ANNOTATION_URI = getAnnotationUri("behaviour");
+
+    private final long modificationCount;
+
+    private final EList<EClass> actorTypes;
+
+    private final List<ActorTypeSummary> summaries;
+
+    private final Map<EClass, ActorTypeSummary> summariesByActorType;
+
+    private final Map<String, ActorTypeSummary> summariesByFqName;
+
+    private ActorTypeRegistry(final long modificationCount, final List<ActorTypeSummary> summaries) {
+        this.modificationCount = modificationCount;
+        this.summaries = Collections.unmodifiableList(summaries);
+
+        final EList<EClass> actorTypes = new BasicEList<>(summaries.size());
+        final Map<EClass, ActorTypeSummary> summariesByActorType = new HashMap<>();
+        final Map<String, ActorTypeSummary> summariesByFqName = new HashMap<>();
+        for (ActorTypeSummary summary : summaries) {
+            actorTypes.add(summary.actorType);
+            summariesByActorType.put(summary.actorType, summary);
+            summariesByFqName.putIfAbsent(summary.fqName, summary);
+        }
+        this.actorTypes = ECollections.unmodifiableEList(actorTypes);
+        this.summariesByActorType = summariesByActorType;
+        this.summariesByFqName = summariesByFqName;
+    }
+
+    /**
+     * Build registry from model contents.
+     *
+     * @param contents          all contents of the model
+     * @param modificationCount modification count of the model
+     * @return actor type registry
+     */
+    static ActorTypeRegistry build(final Iterator<? extends Notifier> contents, final long modificationCount) {
+        final Builder builder = new Builder();
+        contents.forEachRemaining(builder::add);
+        return builder.build(modificationCount);
+    }
+
+    /**
+     * Builder of registry collecting actor types from model contents, so the registry can be built by a traversal
+     * shared with other indexes of the model.
+     */
+    static class Builder {
+
+        private final Map<String, ActorTypeSummary.Builder> builders = new LinkedHashMap<>();
+
+        private final Map<String, List<EClass>> accessPointsByActorFqName = new HashMap<>();
+
+        private final List<EAnnotation> exposedByAnnotations = new ArrayList<>();
+
+        void add(final Notifier notifier) {
+            if (notifier instanceof EClass) {
+                final EClass eClass = (EClass) notifier;
+                for (EAnnotation annotation : eClass.getEAnnotations()) {
+                    if (ACTOR_TYPE_ANNOTATION_URI.equals(annotation.getSource())
+                            && Boolean.parseBoolean(annotation.getDetails().get(EXTENDED_METADATA_DETAILS_VALUE_KEY))) {
+                        final String fqName = getClassifierFQName(eClass);
+                        builders.putIfAbsent(fqName, new ActorTypeSummary.Builder(eClass, fqName));
+                    } else if (ACTOR_ANNOTATION_URI.equals(annotation.getSource()) && annotation.getDetails().get("name") != null) {
+                        accessPointsByActorFqName.computeIfAbsent(annotation.getDetails().get("name").replace("::", "."), k -> new ArrayList<>())
+                                .add(eClass);
+                    }
+                }
+            } else if (notifier instanceof EAnnotation && EXPOSED_BY_ANNOTATION_URI.equals(((EAnnotation) notifier).getSource())) {
+                exposedByAnnotations.add((EAnnotation) notifier);
+            }
+        }
+
+        ActorTypeRegistry build(final long modificationCount) {
+            accessPointsByActorFqName.forEach((fqName, accessPoints) -> {
+                final ActorTypeSummary.Builder builder = builders.get(fqName);
+                if (builder != null) {
+                    builder.accessPoints.addAll(accessPoints);
+                }
+            });
+
+            for (EAnnotation annotation : exposedByAnnotations) {
+                final ActorTypeSummary.Builder builder = builders.get(annotation.getDetails().get(EXTENDED_METADATA_DETAILS_VALUE_KEY));
+                final EModelElement exposed = annotation.getEModelElement();
+                if (builder != null && exposed != null) {
+                    if (exposed instanceof EClass) {
+                        builder.exposedClassCount++;
+                    } else if (exposed instanceof EAttribute) {
+                        builder.exposedAttributeCount++;
+                    } else if (exposed instanceof EReference) {
+                        builder.exposedReferenceCount++;
+                    } else if (exposed instanceof EOperation) {
+                        builder.exposedOperationCount++;
+                    } else if (exposed instanceof EParameter) {
+                        builder.exposedParameterCount++;
+                    }
+                }
+            }
+
+            final List<ActorTypeSummary> summaries = new ArrayList<>(builders.size());
+            for (ActorTypeSummary.Builder builder : builders.values()) {
+                summaries.add(builder.build(summaries.size()));
+            }
+            return new ActorTypeRegistry(modificationCount, summaries);
+        }
+    }
+
+    /**
+     * Get modification count of the model the registry was built at.
+     *
+     * @return modification count
+     */
+    public long getModificationCount() {
+        return modificationCount;
+    }
+
+    /**
+     * Get all actor types ordered by their ordinals.
+     *
+     * @return unmodifiable list of actor types
+     */
+    public EList<EClass> getActorTypes() {
+        return actorTypes;
+    }
+
+    /**
+     * Get summaries of all actor types ordered by their ordinals.
+     *
+     * @return unmodifiable list of actor type summaries
+     */
+    public List<ActorTypeSummary> getSummaries() {
+        return summaries;
+    }
+
+    /**
+     * Get number of actor types.
+     *
+     * @return number of actor types
+     */
+    public int size() {
+        return summaries.size();
+    }
+
+    /**
+     * Get summary of an actor type.
+     *
+     * @param actorType actor type
+     * @return actor type summary (empty if class is not an actor type)
+     */
+    public Optional<ActorTypeSummary> getSummary(final EClass actorType) {
+        return Optional.ofNullable(summariesByActorType.get(actorType));
+    }
+
+    /**
+     * Get summary of an actor type by fully qualified name.
+     *
+     * @param fqName fully qualified name of actor type
+     * @return actor type summary (empty if no actor type found with the given name)
+     */
+    public Optional<ActorTypeSummary> getSummaryByFQName(final String fqName) {
+        return Optional.ofNullable(summariesByFqName.get(fqName));
+    }
+
+    /**
+     * Get summary of an actor type by ordinal.
+     *
+     * @param ordinal actor ordinal
+     * @return actor type summary
+     */
+    public ActorTypeSummary getSummary(final int ordinal) {
+        return summaries.get(ordinal);
+    }
+
+    /**
+     * Get ordinal of an actor type.
+     *
+     * @param actorType actor type
+     * @return actor ordinal (or -1 if class is not an actor type)
+     */
+    public int getOrdinal(final EClass actorType) {
+        final ActorTypeSummary summary = summariesByActorType.get(actorType);
+        return summary != null ? summary.ordinal : -1;
+    }
+
+    /**
+     * Check if a class is a registered actor type.
+     *
+     * @param eClass class
+     * @return <code>true</code> if class is a registered actor type, <code>false</code> otherwise
+     */
+    public boolean isActorType(final EClass eClass) {
+        return summariesByActorType.containsKey(eClass);
+    }
+
+    /**
+     * Summary of an actor type.
+     */
+    public static class ActorTypeSummary {
+
+        private final EClass actorType;
+        private final int ordinal;
+        private final String fqName;
+        private final EList<EClass> accessPoints;
+        private final EList<EOperation> principalOperations;
+        private final EList<EOperation> metadataOperations;
+        private final int exposedClassCount;
+        private final int exposedAttributeCount;
+        private final int exposedReferenceCount;
+        private final int exposedOperationCount;
+        private final int exposedParameterCount;
+
+        private ActorTypeSummary(final Builder builder, final int ordinal) {
+            this.actorType = builder.actorType;
+            this.ordinal = ordinal;
+            this.fqName = builder.fqName;
+            this.accessPoints = ECollections.unmodifiableEList(builder.accessPoints);
+            this.principalOperations = ECollections.unmodifiableEList(getOperationsByBehaviour(builder.actorType, AsmUtils.OperationBehaviour.GET_PRINCIPAL));
+            this.metadataOperations = ECollections.unmodifiableEList(getOperationsByBehaviour(builder.actorType, AsmUtils.OperationBehaviour.GET_METADATA));
+            this.exposedClassCount = builder.exposedClassCount;
+            this.exposedAttributeCount = builder.exposedAttributeCount;
+            this.exposedReferenceCount = builder.exposedReferenceCount;
+            this.exposedOperationCount = builder.exposedOperationCount;
+            this.exposedParameterCount = builder.exposedParameterCount;
+        }
+
+        private static EList<EOperation> getOperationsByBehaviour(final EClass actorType, final AsmUtils.OperationBehaviour behaviour) {
+            final EList<EOperation> operations = new BasicEList<>();
+            for (EOperation operation : actorType.getEAllOperations()) {
+                for (EAnnotation annotation : operation.getEAnnotations()) {
+                    if (BEHAVIOUR_ANNOTATION_URI.equals(annotation.getSource())
+                            && Objects.equals(behaviour.getType(), annotation.getDetails().get("type"))) {
+                        operations.add(operation);
+                        break;
+                    }
+                }
+            }
+            return operations;
+        }
+
+        public EClass getActorType() {
+            return actorType;
+        }
+
+        public int getOrdinal() {
+            return ordinal;
+        }
+
+        public String getFqName() {
+            return fqName;
+        }
+
+        public EList<EClass> getAccessPoints() {
+            return accessPoints;
+        }
+
+        public EList<EOperation> getPrincipalOperations() {
+            return principalOperations;
+        }
+
+        public EList<EOperation> getMetadataOperations() {
+            return metadataOperations;
+        }
+
+        public int getExposedClassCount() {
+            return exposedClassCount;
+        }
+
+        public int getExposedAttributeCount() {
+            return exposedAttributeCount;
+        }
+
+        public int getExposedReferenceCount() {
+            return exposedReferenceCount;
+        }
+
+        public int getExposedOperationCount() {
+            return exposedOperationCount;
+        }
+
+        public int getExposedParameterCount() {
+            return exposedParameterCount;
+        }
+
+        /**
+         * Get total number of model elements exposed by the actor type.
+         *
+         * @return number of exposed elements
+         */
+        public int getExposedElementCount() {
+            return exposedClassCount + exposedAttributeCount + exposedReferenceCount + exposedOperationCount + exposedParameterCount;
+        }
+
+        @Override
+        public String toString() {
+            return "ActorTypeRegistry.ActorTypeSummary(fqName=" + fqName
+                    + ", ordinal=" + ordinal
+                    + ", accessPoints=" + accessPoints.size()
+                    + ", exposedElements=" + getExposedElementCount() + ")";
+        }
+
+        private static class Builder {
+            private final EClass actorType;
+            private final String fqName;
+            private final EList<EClass> accessPoints = new UniqueEList<>();
+            private int exposedClassCount;
+            private int exposedAttributeCount;
+            private int exposedReferenceCount;
+            private int exposedOperationCount;
+            private int exposedParameterCount;
+
+            private Builder(final EClass actorType, final String fqName) {
+                this.actorType = actorType;
+                this.fqName = fqName;
+            }
+
+            private ActorTypeSummary build(final int ordinal) {
+                return new ActorTypeSummary(this, ordinal);
+            }
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package hu.blackbelt.judo.meta.asm.runtime;
+
+/*-
+ * #%L
+ * Judo :: Asm :: Model
+ * %%
+ * Copyright (C) 2018 - 2022 BlackBelt Technology
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+
+import org.eclipse.emf.ecore.EObject;
+
+import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.function.BiPredicate;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Java constraint of ASM models evaluated by {@link AsmConstraintValidator}.
+ * <p>
+ * A constraint is the Java counterpart of an EVL <code>constraint</code> (reported as error) or <code>critique</code>
+ * (reported as warning). It is checked on every model element of its context type, check and message functions get
+ * a shared {@link AsmUtils} instance, so they can use its cached model indexes. Functions must be thread safe,
+ * elements can be checked in parallel.
+ *
+ * @param <T> context type
+ */
+public final class AsmConstraint<T extends EObject> {
+
+    /**
+     * Severity of an unsatisfied constraint.
+     */
+    public enum Severity {
+        ERROR,
+
+        WARNING
+    }
+
+    private final String name;
+
+    private final Class<T> contextType;
+
+    private final Severity severity;
+
+    private final BiPredicate<T, AsmUtils> check;
+
+    private final BiFunction<T, AsmUtils, String> message;
+
+    private AsmConstraint(final String name, final Class<T> contextType, final Severity severity,
+                          final BiPredicate<T, AsmUtils> check, final BiFunction<T, AsmUtils, String> message) {
+        this.name = requireNonNull(name);
+        this.contextType = requireNonNull(contextType);
+        this.severity = requireNonNull(severity);
+        this.check = requireNonNull(check);
+        this.message = requireNonNull(message);
+    }
+
+    /**
+     * Create a constraint reported as {@link Severity#ERROR} when it is not satisfied.
+     *
+     * @param name        constraint name
+     * @param contextType type of checked elements
+     * @param check       check returning <code>true</code> if element satisfies the constraint
+     * @param message     message of unsatisfied constraint
+     * @param <T>         context type
+     * @return constraint
+     */
+    public static <T extends EObject> AsmConstraint<T> constraint(final String name, final Class<T> contextType,
+                                                                  final BiPredicate<T, AsmUtils> check,
+                                                                  final BiFunction<T, AsmUtils, String> message) {
+        return new AsmConstraint<>(name, contextType, Severity.ERROR, check, message);
+    }
+
+    /**
+     * Create a critique reported as {@link Severity#WARNING} when it is not satisfied.
+     *
+     * @param name        critique name
+     * @param contextType type of checked elements
+     * @param check       check returning <code>true</code> if element satisfies the critique
+     * @param message     message of unsatisfied critique
+     * @param <T>         context type
+     * @return critique
+     */
+    public static <T extends EObject> AsmConstraint<T> critique(final String name, final Class<T> contextType,
+                                                                final BiPredicate<T, AsmUtils> check,
+                                                                final BiFunction<T, AsmUtils, String> message) {
+        return new AsmConstraint<>(name, contextType, Severity.WARNING, check, message);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Class<T> getContextType() {
+        return contextType;
+    }
+
+    public Severity getSeverity() {
+        return severity;
+    }
+
+    /**
+     * Checks the constraint is evaluated on the given element.
+     *
+     * @param eObject model element
+     * @return true if element is instance of context type
+     */
+    public boolean appliesTo(final EObject eObject) {
+        return contextType.isInstance(eObject);
+    }
+
+    /**
+     * Evaluate constraint on the given element.
+     *
+     * @param eObject  model element of context type
+     * @param asmUtils utils of the model
+     * @return message in <code>name|message</code> format if constraint is not satisfied
+     */
+    public Optional<String> evaluate(final EObject eObject, final AsmUtils asmUtils) {
+        final T element = contextType.cast(eObject);
+        if (check.test(element, asmUtils)) {
+            return Optional.empty();
+        }
+        return Optional.of(name + "|" + message.apply(element, asmUtils));
+    }
+
+    @Override
+    public String toString() {
+        return "AsmConstraint(" + name + ", " + contextType.getSimpleName() + ", " + severity + ")";
+    }
+}
@@ -0,0 +1,103 @@
+package hu.blackbelt.judo.meta.asm.runtime;
+
+/*-
+ * #%L
+ * Judo :: Asm :: Model
+ * %%
+ * Copyright (C) 2018 - 2022 BlackBelt Technology
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+
+import org.eclipse.emf.ecore.EObject;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Registry of {@link AsmConstraint}s. Constraints applicable to an implementation class are collected once and cached
+ * until the registry is changed.
+ */
+public class AsmConstraintRegistry {
+
+    private final Map<String, AsmConstraint<?>> constraints = new LinkedHashMap<>();
+
+    private final Map<Class<?>, List<AsmConstraint<?>>> constraintsByType = new ConcurrentHashMap<>();
+
+    /**
+     * Create registry of constraints ported from <code>asm.evl</code>. The EVL script has no ASM constraint at the
+     * moment, so the registry is empty, project specific rules can be registered.
+     *
+     * @return registry of ASM constraints
+     */
+    public static AsmConstraintRegistry createAsmConstraintRegistry() {
+        return new AsmConstraintRegistry();
+    }
+
+    /**
+     * Register a constraint.
+     *
+     * @param constraint constraint
+     * @return this registry
+     * @throws IllegalArgumentException if a constraint is registered with the same name
+     */
+    public synchronized AsmConstraintRegistry register(final AsmConstraint<?> constraint) {
+        if (constraints.containsKey(constraint.getName())) {
+            throw new IllegalArgumentException("Constraint is already registered: " + constraint.getName());
+        }
+        constraints.put(constraint.getName(), constraint);
+        constraintsByType.clear();
+        return this;
+    }
+
+    /**
+     * Unregister a constraint.
+     *
+     * @param name constraint name
+     * @return true if constraint was registered
+     */
+    public synchronized boolean unregister(final String name) {
+        final boolean removed = constraints.remove(name) != null;
+        constraintsByType.clear();
+        return removed;
+    }
+
+    /**
+     * Get all registered constraints in registration order.
+     *
+     * @return constraints
+     */
+    public synchronized Collection<AsmConstraint<?>> getConstraints() {
+        return Collections.unmodifiableList(new ArrayList<>(constraints.values()));
+    }
+
+    /**
+     * Get constraints applicable to the given element.
+     *
+     * @param eObject model element
+     * @return constraints in registration order
+     */
+    public List<AsmConstraint<?>> getConstraints(final EObject eObject) {
+        return constraintsByType.computeIfAbsent(eObject.getClass(), type -> getConstraints().stream()
+                .filter(constraint -> constraint.getContextType().isAssignableFrom(type))
+                .collect(Collectors.toList()));
+    }
+}
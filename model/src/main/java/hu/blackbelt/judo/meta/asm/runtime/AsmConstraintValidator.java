@@ -0,0 +1,179 @@
+package hu.blackbelt.judo.meta.asm.runtime;
+
+/*-
+ * #%L
+ * Judo :: Asm :: Model
+ * %%
+ * Copyright (C) 2018 - 2022 BlackBelt Technology
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+
+import hu.blackbelt.epsilon.runtime.execution.exceptions.ScriptExecutionException;
+import hu.blackbelt.judo.meta.asm.support.AsmValidationProfiler;
+import org.eclipse.emf.ecore.EObject;
+import org.slf4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Validator evaluating Java {@link AsmConstraint}s of an {@link AsmConstraintRegistry} on ASM models.
+ * <p>
+ * Messages are reported in the same <code>name|message</code> format as EVL constraints, so expected errors and
+ * warnings of {@link AsmEpsilonValidator} tests can be used.
+ */
+public class AsmConstraintValidator {
+
+    private final AsmConstraintRegistry registry;
+
+    private final AsmValidationProfiler profiler;
+
+    public AsmConstraintValidator(final AsmConstraintRegistry registry) {
+        this(registry, null);
+    }
+
+    /**
+     * Create validator recording evaluation time of constraints.
+     *
+     * @param registry constraint registry
+     * @param profiler profiler, <code>null</code> to disable profiling
+     */
+    public AsmConstraintValidator(final AsmConstraintRegistry registry, final AsmValidationProfiler profiler) {
+        this.registry = registry;
+        this.profiler = profiler;
+    }
+
+    public static void validateAsm(Logger log, AsmModel asmModel, AsmConstraintRegistry registry,
+                                   Collection<String> expectedErrors, Collection<String> expectedWarnings)
+            throws ScriptExecutionException {
+        AsmValidatorService.Result result = new AsmConstraintValidator(registry).validateParallel(asmModel);
+        result.getErrors().forEach(error -> log.error(error));
+        result.getWarnings().forEach(warning -> log.warn(warning));
+        result.check(expectedErrors, expectedWarnings);
+    }
+
+    /**
+     * Validate model on the calling thread.
+     *
+     * @param asmModel ASM model
+     * @return validation result
+     */
+    public AsmValidatorService.Result validate(final AsmModel asmModel) {
+        final AsmUtils asmUtils = new AsmUtils(asmModel.getResourceSet());
+        return toResult(getElements(asmModel).stream().map(eObject -> evaluate(eObject, asmUtils)));
+    }
+
+    /**
+     * Validate model elements in parallel using the common {@link ForkJoinPool}.
+     *
+     * @param asmModel ASM model
+     * @return validation result
+     */
+    public AsmValidatorService.Result validateParallel(final AsmModel asmModel) {
+        return validateParallel(asmModel, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Validate model elements in parallel. Order of messages is the same as in case of {@link #validate(AsmModel)}.
+     *
+     * @param asmModel ASM model
+     * @param pool     pool used to validate elements
+     * @return validation result
+     */
+    public AsmValidatorService.Result validateParallel(final AsmModel asmModel, final ForkJoinPool pool) {
+        final AsmUtils asmUtils = new AsmUtils(asmModel.getResourceSet());
+        final List<EObject> elements = getElements(asmModel);
+        final List<List<Violation>> violations = execute(pool, () -> elements.parallelStream()
+                .map(eObject -> evaluate(eObject, asmUtils))
+                .collect(Collectors.toList()));
+        return toResult(violations.stream());
+    }
+
+    private List<EObject> getElements(final AsmModel asmModel) {
+        final List<EObject> elements = new ArrayList<>();
+        asmModel.getResourceSet().getAllContents().forEachRemaining(notifier -> {
+            if (notifier instanceof EObject) {
+                elements.add((EObject) notifier);
+            }
+        });
+        return elements;
+    }
+
+    private List<Violation> evaluate(final EObject eObject, final AsmUtils asmUtils) {
+        List<Violation> violations = null;
+        for (AsmConstraint<?> constraint : registry.getConstraints(eObject)) {
+            final String message;
+            if (profiler != null) {
+                final long start = System.nanoTime();
+                message = constraint.evaluate(eObject, asmUtils).orElse(null);
+                profiler.record(AsmValidationProfiler.JAVA + constraint.getName(), eObject, System.nanoTime() - start);
+            } else {
+                message = constraint.evaluate(eObject, asmUtils).orElse(null);
+            }
+            if (message != null) {
+                if (violations == null) {
+                    violations = new ArrayList<>();
+                }
+                violations.add(new Violation(constraint.getSeverity(), message));
+            }
+        }
+        return violations;
+    }
+
+    private static AsmValidatorService.Result toResult(final Stream<List<Violation>> violations) {
+        final List<String> errors = new ArrayList<>();
+        final List<String> warnings = new ArrayList<>();
+        violations.forEachOrdered(elementViolations -> {
+            if (elementViolations != null) {
+                for (Violation violation : elementViolations) {
+                    (violation.severity == AsmConstraint.Severity.ERROR ? errors : warnings).add(violation.message);
+                }
+            }
+        });
+        return new AsmValidatorService.Result(errors, warnings);
+    }
+
+    private static <T> T execute(final ForkJoinPool pool, final Callable<T> callable) {
+        try {
+            return pool.submit(callable).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Model validation is interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Model validation failed", e.getCause());
+        }
+    }
+
+    private static class Violation {
+        private final AsmConstraint.Severity severity;
+
+        private final String message;
+
+        Violation(final AsmConstraint.Severity severity, final String message) {
+            this.severity = severity;
+            this.message = message;
+        }
+    }
+}
@@ -20,67 +20,157 @@ package hu.blackbelt.judo.meta.asm.runtime;
  * #L%
  */
 
-import static hu.blackbelt.epsilon.runtime.execution.ExecutionContext.executionContextBuilder;
-import static hu.blackbelt.epsilon.runtime.execution.contexts.EvlExecutionContext.evlExecutionContextBuilder;
-import static hu.blackbelt.epsilon.runtime.execution.model.emf.WrappedEmfModelContext.wrappedEmfModelContextBuilder;
 import static java.util.Collections.emptyList;
-import static java.util.Collections.singletonMap;
 
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import org.eclipse.epsilon.common.util.UriUtil;
 
-import hu.blackbelt.epsilon.runtime.execution.ExecutionContext;
+import hu.blackbelt.judo.meta.asm.support.AsmValidationCache;
+import hu.blackbelt.judo.meta.asm.support.AsmValidationProfiler;
+import org.eclipse.emf.common.util.BasicDiagnostic;
+import org.eclipse.emf.common.util.Diagnostic;
 import org.slf4j.Logger;
 import hu.blackbelt.epsilon.runtime.execution.exceptions.ScriptExecutionException;
 
 public class AsmEpsilonValidator {
 
+    private static final String EVL_SOURCE = "evl";
+
+    private static volatile URI asmValidationScriptURI;
+
+    // parsed scripts are kept while they are used, services are dropped when they are not used or memory is low
+    private static final Cache<String, AsmValidatorService> validatorServices = CacheBuilder.newBuilder()
+            .maximumSize(16)
+            .softValues()
+            .expireAfterAccess(Long.parseLong(System.getProperty("AsmValidatorServiceExpiration", "600")),
+                    TimeUnit.SECONDS)
+            .build();
+
     public static void validateAsm(Logger log, AsmModel asmModel, URI scriptRoot)
             throws ScriptExecutionException, URISyntaxException {
         validateAsm(log, asmModel, scriptRoot, emptyList(), emptyList());
     }
 
+    /**
+     * Validate ASM model with EVL constraints evaluated by the given number of threads. When parallelism is 1, the
+     * model is validated on the calling thread as with
+     * {@link #validateAsm(Logger, AsmModel, URI, Collection, Collection)}.
+     */
     public static void validateAsm(Logger log, AsmModel asmModel, URI scriptRoot,
-            Collection<String> expectedErrors, Collection<String> expectedWarnings)
+            Collection<String> expectedErrors, Collection<String> expectedWarnings, int parallelism)
+            throws ScriptExecutionException, URISyntaxException {
+        validateAsm(log, asmModel, scriptRoot, expectedErrors, expectedWarnings, parallelism, null);
+    }
+
+    /**
+     * Validate ASM model with EVL constraints evaluated by the given number of threads, evaluation time of constraint
+     * checks are recorded by the given profiler (see {@link AsmValidationProfiler#getProfile()}).
+     */
+    public static void validateAsm(Logger log, AsmModel asmModel, URI scriptRoot,
+            Collection<String> expectedErrors, Collection<String> expectedWarnings, int parallelism,
+            AsmValidationProfiler profiler)
             throws ScriptExecutionException, URISyntaxException {
+        AsmValidatorService.Result result = getValidatorService(scriptRoot, Math.max(parallelism, 1))
+                .validate(asmModel, profiler);
+        result.getErrors().forEach(error -> log.error(error));
+        result.getWarnings().forEach(warning -> log.warn(warning));
+        result.check(expectedErrors, expectedWarnings);
+    }
+
+    /**
+     * Validate ASM model with EVL constraints, validation is skipped when the result of the same model content
+     * validated with the same scripts is found in the given persistent cache.
+     */
+    public static void validateAsm(Logger log, AsmModel asmModel, URI scriptRoot,
+            Collection<String> expectedErrors, Collection<String> expectedWarnings,
+            AsmValidationCache validationCache)
+            throws ScriptExecutionException, URISyntaxException {
+        final String modelDigest;
+        final String rulesetDigest;
+        try {
+            modelDigest = AsmValidationCache.digest(asmModel.getResource());
+            rulesetDigest = AsmValidationCache.getScriptRulesetDigest(UriUtil.resolve("asm.evl", scriptRoot));
+        } catch (IOException e) {
+            throw new ScriptExecutionException("Unable to calculate validation digest: " + e.getMessage());
+        }
 
-        ExecutionContext executionContext = executionContextBuilder()
-                .log(log)
-                .resourceSet(asmModel.getResourceSet())
-                .metaModels(emptyList())
-                .modelContexts(Arrays.asList(
-                        wrappedEmfModelContextBuilder()
-                                .log(log)
-                                .name("ASM")
-                                .resource(asmModel.getResource())
-                                .validateModel(false)
-                                .build()))
-                .injectContexts(singletonMap("asmUtils", new AsmUtils(asmModel.getResourceSet())))
-                .build();
+        final Optional<List<Diagnostic>> cached = validationCache.get(modelDigest, rulesetDigest);
+        final AsmValidatorService.Result result;
+        if (cached.isPresent()) {
+            log.debug("EVL validation result is cached: {}", modelDigest);
+            result = new AsmValidatorService.Result(
+                    getMessages(cached.get(), Diagnostic.ERROR), getMessages(cached.get(), Diagnostic.WARNING));
+        } else {
+            result = getValidatorService(scriptRoot, 1).validate(asmModel);
+            final List<Diagnostic> diagnostics = new ArrayList<>();
+            result.getErrors().forEach(error ->
+                    diagnostics.add(new BasicDiagnostic(Diagnostic.ERROR, EVL_SOURCE, 0, error, null)));
+            result.getWarnings().forEach(warning ->
+                    diagnostics.add(new BasicDiagnostic(Diagnostic.WARNING, EVL_SOURCE, 0, warning, null)));
+            validationCache.put(modelDigest, rulesetDigest, diagnostics);
+        }
+        result.getErrors().forEach(error -> log.error(error));
+        result.getWarnings().forEach(warning -> log.warn(warning));
+        result.check(expectedErrors, expectedWarnings);
+    }
+
+    private static List<String> getMessages(final List<Diagnostic> diagnostics, final int severity) {
+        return diagnostics.stream()
+                .filter(d -> d.getSeverity() == severity)
+                .map(Diagnostic::getMessage)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Validate ASM model with EVL constraints on the calling thread. Unexpected and missing messages (in
+     * <code>constraint name|message</code> format) are reported by {@link AsmEvlValidationException},
+     * <code>null</code> expectations are not checked.
+     */
+    public static void validateAsm(Logger log, AsmModel asmModel, URI scriptRoot,
+            Collection<String> expectedErrors, Collection<String> expectedWarnings)
+            throws ScriptExecutionException, URISyntaxException {
+        validateAsm(log, asmModel, scriptRoot, expectedErrors, expectedWarnings, 1, null);
+    }
 
+    /**
+     * Get validator service of a script root, one service is created for each script root and parallelism. Services
+     * (and so parsed scripts) are cached while they are used, the number of cached services is bounded. Callers
+     * validating many models can hold an {@link AsmValidatorService} themselves.
+     */
+    static AsmValidatorService getValidatorService(URI scriptRoot, int parallelism) throws URISyntaxException {
         try {
-            // run the model / metadata loading
-            executionContext.load();
-
-            // Transformation script
-            executionContext
-                    .executeProgram(evlExecutionContextBuilder().source(UriUtil.resolve("asm.evl", scriptRoot))
-                            .expectedErrors(expectedErrors).expectedWarnings(expectedWarnings).build());
-
-        } finally {
-            executionContext.commit();
-            try {
-                executionContext.close();
-            } catch (Exception e) {
+            return validatorServices.get(parallelism + "|" + scriptRoot,
+                    () -> new AsmValidatorService(scriptRoot, parallelism));
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof URISyntaxException) {
+                throw (URISyntaxException) e.getCause();
             }
+            throw new IllegalStateException(e.getCause());
         }
     }
 
     public static URI calculateAsmValidationScriptURI() throws URISyntaxException {
+        URI asmRoot = asmValidationScriptURI;
+        if (asmRoot == null) {
+            asmRoot = resolveAsmValidationScriptURI();
+            asmValidationScriptURI = asmRoot;
+        }
+        return asmRoot;
+    }
+
+    private static URI resolveAsmValidationScriptURI() throws URISyntaxException {
         URI asmRoot = AsmModel.class.getProtectionDomain().getCodeSource().getLocation().toURI();
         if (asmRoot.toString().endsWith(".jar")) {
             asmRoot = new URI("jar:" + asmRoot.toString() + "!/validations/");
@@ -0,0 +1,90 @@
+package hu.blackbelt.judo.meta.asm.runtime;
+
+/*-
+ * #%L
+ * Judo :: Asm :: Model
+ * %%
+ * Copyright (C) 2018 - 2022 BlackBelt Technology
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+
+import hu.blackbelt.epsilon.runtime.execution.exceptions.ScriptExecutionException;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Exception thrown when unsatisfied constraints and critiques of EVL validation are not the expected ones. It exposes
+ * the same lists as <code>EvlScriptExecutionException</code> of the epsilon runtime.
+ */
+public class AsmEvlValidationException extends ScriptExecutionException {
+
+    private final List<String> unexpectedErrors;
+
+    private final List<String> errorsNotFound;
+
+    private final List<String> unexpectedWarnings;
+
+    private final List<String> warningsNotFound;
+
+    public AsmEvlValidationException(final String message,
+                                     final List<String> unexpectedErrors,
+                                     final List<String> errorsNotFound,
+                                     final List<String> unexpectedWarnings,
+                                     final List<String> warningsNotFound) {
+        super(message);
+        this.unexpectedErrors = Collections.unmodifiableList(unexpectedErrors);
+        this.errorsNotFound = Collections.unmodifiableList(errorsNotFound);
+        this.unexpectedWarnings = Collections.unmodifiableList(unexpectedWarnings);
+        this.warningsNotFound = Collections.unmodifiableList(warningsNotFound);
+    }
+
+    /**
+     * Get error messages which are not expected.
+     *
+     * @return unexpected error messages in <code>constraint name|message</code> format
+     */
+    public List<String> getUnexpectedErrors() {
+        return unexpectedErrors;
+    }
+
+    /**
+     * Get expected error messages which are not reported.
+     *
+     * @return missing error messages in <code>constraint name|message</code> format
+     */
+    public List<String> getErrorsNotFound() {
+        return errorsNotFound;
+    }
+
+    /**
+     * Get warning messages which are not expected.
+     *
+     * @return unexpected warning messages in <code>critique name|message</code> format
+     */
+    public List<String> getUnexpectedWarnings() {
+        return unexpectedWarnings;
+    }
+
+    /**
+     * Get expected warning messages which are not reported.
+     *
+     * @return missing warning messages in <code>critique name|message</code> format
+     */
+    public List<String> getWarningsNotFound() {
+        return warningsNotFound;
+    }
+}
@@ -20,7 +20,17 @@ package hu.blackbelt.judo.meta.asm.runtime;
  * #L%
  */
 
+import hu.blackbelt.judo.meta.asm.support.AsmBinaryFormat;
+import hu.blackbelt.judo.meta.asm.support.AsmCompression;
+import hu.blackbelt.judo.meta.asm.support.AsmIdStrategy;
+import hu.blackbelt.judo.meta.asm.support.AsmDiagnostic;
+import hu.blackbelt.judo.meta.asm.support.AsmLoadProfile;
+import hu.blackbelt.judo.meta.asm.support.AsmLoadSession;
+import hu.blackbelt.judo.meta.asm.support.AsmPackageResources;
+import hu.blackbelt.judo.meta.asm.support.AsmParallelLoader;
 import hu.blackbelt.judo.meta.asm.support.AsmModelResourceSupport;
+import hu.blackbelt.judo.meta.asm.support.AsmReadStrategy;
+import hu.blackbelt.judo.meta.asm.support.AsmValidationCache;
 import org.eclipse.emf.common.util.Diagnostic;
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.EObject;
@@ -33,7 +43,9 @@ import java.util.Dictionary;
 import java.util.Hashtable;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Executor;
 import java.util.Set;
+import java.util.stream.Stream;
 
 import static hu.blackbelt.judo.meta.asm.support.AsmModelResourceSupport.setupRelativeUriRoot;
 import static java.util.Objects.requireNonNull;
@@ -181,33 +193,11 @@ public class AsmModel {
     @SuppressWarnings("WeakerAccess")
     public AsmModel loadResource(LoadArguments loadArguments)
             throws IOException, AsmValidationException {
-
-        Resource resource = getResource();
-        Map loadOptions = loadArguments.getLoadOptions()
-                .orElseGet(AsmModelResourceSupport::getAsmModelDefaultLoadOptions);
-
         try {
-            InputStream inputStream = loadArguments.getInputStream()
-                    .orElseGet(() -> loadArguments.getFile().map(f -> {
-                        try {
-                            return new FileInputStream(f);
-                        } catch (FileNotFoundException e) {
-                            throw new RuntimeException(e);
-                        }
-                    }).orElse(null));
-
-            if (inputStream != null) {
-                resource.load(inputStream, loadOptions);
-            } else {
-                resource.load(loadOptions);
-            }
-
-        } catch (RuntimeException e) {
-            if (e.getCause() instanceof IOException) {
-                throw (IOException) e.getCause();
-            } else {
-                throw e;
-            }
+            asmModelResourceSupport.loadResource(loadArguments.toAsmModelResourceSupportLoadArgumentsBuilder()
+                    .validateModel(false));
+        } catch (AsmModelResourceSupport.AsmValidationException ignore) {
+            throw new IllegalStateException("This exception generated because the code is broken");
         }
 
         if (loadArguments.isValidateModel() && !isValid()) {
@@ -303,6 +293,15 @@ public class AsmModel {
         return asmModelResourceSupport.getDiagnostics();
     }
 
+    /**
+     * Get diagnostics for model as a lazy stream. Model is validated while the stream is consumed.
+     * @param minSeverity minimal severity of returned diagnostics
+     * @return stream of {@link AsmDiagnostic}
+     */
+    public Stream<AsmDiagnostic> streamDiagnostics(int minSeverity) {
+        return asmModelResourceSupport.streamDiagnostics(minSeverity);
+    }
+
     /**
      * Checks the model have any {@link Diagnostic}.ERROR diagnostics. When there is no any the model assumed as valid.
      * @return true when model is valid
@@ -311,6 +310,32 @@ public class AsmModel {
         return asmModelResourceSupport.isValid();
     }
 
+    /**
+     * Enable or disable incremental validation. When it is enabled only elements changed since the last validation
+     * are validated again, so {@link #isValid()} remains cheap while the model is edited.
+     * @param incrementalValidation true to validate model incrementally
+     */
+    public void setIncrementalValidation(boolean incrementalValidation) {
+        asmModelResourceSupport.setIncrementalValidation(incrementalValidation);
+    }
+
+    /**
+     * Get the strategy of xmiid-s of the model.
+     * @return strategy of xmiid-s, null if random UUIDs are generated for elements attached to the model
+     */
+    public AsmIdStrategy getIdStrategy() {
+        return asmModelResourceSupport.getIdStrategy();
+    }
+
+    /**
+     * Set the strategy of xmiid-s of the model (see {@link AsmIdStrategy}). When it is set, random UUIDs are not
+     * generated for elements attached to the model, xmiid-s of all elements are assigned in bulk on save.
+     * @param idStrategy strategy of xmiid-s, null to generate random UUIDs for attached elements
+     */
+    public void setIdStrategy(AsmIdStrategy idStrategy) {
+        asmModelResourceSupport.setIdStrategy(idStrategy);
+    }
+
     /**
      * Print model as string
      * @return model as XML string
@@ -353,6 +378,15 @@ public class AsmModel {
         ResourceSet resourceSet;
         Map<Object, Object> loadOptions;
         boolean validateModel;
+        boolean parallelValidation;
+        boolean validateUniqueXmiids;
+        boolean binary;
+        AsmValidationCache validationCache;
+        AsmReadStrategy readStrategy;
+        AsmLoadProfile loadProfile;
+        AsmCompression compression;
+        Executor executor;
+        AsmLoadSession loadSession;
         InputStream inputStream;
         File file;
 
@@ -372,8 +406,32 @@ public class AsmModel {
             return null;
         }
 
+        private static AsmValidationCache $default$validationCache() {
+            return null;
+        }
+
+        private static AsmReadStrategy $default$readStrategy() {
+            return AsmReadStrategy.BUFFERED;
+        }
+
+        private static AsmLoadProfile $default$loadProfile() {
+            return AsmLoadProfile.DEFAULT;
+        }
+
+        private static AsmCompression $default$compression() {
+            return null;
+        }
+
+        private static Executor $default$executor() {
+            return null;
+        }
+
+        private static AsmLoadSession $default$loadSession() {
+            return null;
+        }
+
         private static Map<Object, Object> $default$loadOptions() {
-            return AsmModelResourceSupport.getAsmModelDefaultLoadOptions();
+            return null;
         }
 
         Optional<URI> getUri() {
@@ -396,6 +454,42 @@ public class AsmModel {
             return validateModel;
         }
 
+        boolean isParallelValidation() {
+            return parallelValidation;
+        }
+
+        boolean isValidateUniqueXmiids() {
+            return validateUniqueXmiids;
+        }
+
+        boolean isBinary() {
+            return binary;
+        }
+
+        Optional<AsmValidationCache> getValidationCache() {
+            return ofNullable(validationCache);
+        }
+
+        AsmReadStrategy getReadStrategy() {
+            return readStrategy;
+        }
+
+        AsmLoadProfile getLoadProfile() {
+            return loadProfile;
+        }
+
+        Optional<AsmCompression> getCompression() {
+            return ofNullable(compression);
+        }
+
+        Optional<Executor> getExecutor() {
+            return ofNullable(executor);
+        }
+
+        Optional<AsmLoadSession> getLoadSession() {
+            return ofNullable(loadSession);
+        }
+
         Optional<File> getFile() {
             return ofNullable(file);
         }
@@ -422,6 +516,11 @@ public class AsmModel {
 
             private boolean validateModel = true;
 
+            private boolean parallelValidation;
+
+            private boolean validateUniqueXmiids;
+            private boolean binary;
+
             private boolean file$set;
             private File file;
 
@@ -429,6 +528,24 @@ public class AsmModel {
             private boolean inputStream$set;
             private InputStream inputStream;
 
+            private boolean validationCache$set;
+            private AsmValidationCache validationCache;
+
+            private boolean readStrategy$set;
+            private AsmReadStrategy readStrategy;
+
+            private boolean loadProfile$set;
+            private AsmLoadProfile loadProfile;
+
+            private boolean compression$set;
+            private AsmCompression compression;
+
+            private boolean executor$set;
+            private Executor executor;
+
+            private boolean loadSession$set;
+            private AsmLoadSession loadSession;
+
 
             LoadArgumentsBuilder() {
             }
@@ -467,8 +584,8 @@ public class AsmModel {
 
 
             /**
-             * Defines the load options for model. If not defined the
-             * {@link AsmModelResourceSupport#getAsmModelDefaultLoadOptions()} us used.
+             * Defines the load options for model. If not defined the options of load profile
+             * (see {@link AsmLoadProfile#getLoadOptions(long)}) are used.
              */
             public LoadArgumentsBuilder loadOptions(final Map<Object, Object> loadOptions) {
                 requireNonNull(loadOptions);
@@ -479,7 +596,9 @@ public class AsmModel {
 
 
             /**
-             * Defines that model validation required or not on load. Default: true
+             * Defines that model validation required or not on load. Validation of a split model (see
+             * {@link AsmPackageResources}) loads resources of all packages, so packages are not loaded on demand.
+             * Default: true
              */
             public LoadArgumentsBuilder validateModel(boolean validateModel) {
                 this.validateModel = validateModel;
@@ -487,6 +606,34 @@ public class AsmModel {
             }
 
 
+            /**
+             * Defines that model is validated in parallel or not. Default: false
+             */
+            public LoadArgumentsBuilder parallelValidation(boolean parallelValidation) {
+                this.parallelValidation = parallelValidation;
+                return this;
+            }
+
+
+            /**
+             * Defines that xmiid-s are checked for uniqueness while the model is loaded. Default: false
+             */
+            public LoadArgumentsBuilder validateUniqueXmiids(boolean validateUniqueXmiids) {
+                this.validateUniqueXmiids = validateUniqueXmiids;
+                return this;
+            }
+
+
+            /**
+             * Defines that model is loaded in binary format (see {@link AsmBinaryFormat}). Default: false, binary
+             * format is used only if the URI or file has {@link AsmBinaryFormat#FILE_EXTENSION} extension.
+             */
+            public LoadArgumentsBuilder binary(boolean binary) {
+                this.binary = binary;
+                return this;
+            }
+
+
             /**
              * Defines the file if it is not loaded from URI. If not defined, URI is used. If inputStream is defined
              * it is used.
@@ -509,6 +656,76 @@ public class AsmModel {
                 return this;
             }
 
+
+            /**
+             * Defines the persistent cache of validation results. When it is defined, validation is skipped if the
+             * same model content was validated before. If not defined, model is always validated. Cache is not used
+             * for split models (see {@link AsmPackageResources}), only content of the resource of the model is
+             * digested.
+             */
+            public LoadArgumentsBuilder validationCache(final AsmValidationCache validationCache) {
+                requireNonNull(validationCache);
+                this.validationCache = validationCache;
+                validationCache$set = true;
+                return this;
+            }
+
+            /**
+             * Defines how the file is read (see {@link AsmReadStrategy}). Default: {@link AsmReadStrategy#BUFFERED}
+             */
+            public LoadArgumentsBuilder readStrategy(final AsmReadStrategy readStrategy) {
+                requireNonNull(readStrategy);
+                this.readStrategy = readStrategy;
+                readStrategy$set = true;
+                return this;
+            }
+
+            /**
+             * Defines the load profile (see {@link AsmLoadProfile}), its load options are used when load options are
+             * not defined. Default: {@link AsmLoadProfile#DEFAULT}
+             */
+            public LoadArgumentsBuilder loadProfile(final AsmLoadProfile loadProfile) {
+                requireNonNull(loadProfile);
+                this.loadProfile = loadProfile;
+                loadProfile$set = true;
+                return this;
+            }
+
+            /**
+             * Defines the compression of the model (see {@link AsmCompression}). If not defined, compression is
+             * selected by the file extension of the file or URI, or it is detected by the magic bytes of the content.
+             */
+            public LoadArgumentsBuilder compression(final AsmCompression compression) {
+                requireNonNull(compression);
+                this.compression = compression;
+                compression$set = true;
+                return this;
+            }
+
+            /**
+             * Defines the executor resources of packages of a split model (see {@link AsmPackageResources}) are
+             * loaded in parallel (see {@link AsmParallelLoader}) after the model is loaded. If not defined,
+             * resources of packages are loaded on demand.
+             */
+            public LoadArgumentsBuilder executor(final Executor executor) {
+                requireNonNull(executor);
+                this.executor = executor;
+                executor$set = true;
+                return this;
+            }
+
+            /**
+             * Defines the load session sharing parser pool, name to feature map and lookup table between loads of
+             * {@link AsmLoadProfile#FAST} profile (see {@link AsmLoadSession}). If not defined, a new session is
+             * created for each load.
+             */
+            public LoadArgumentsBuilder loadSession(final AsmLoadSession loadSession) {
+                requireNonNull(loadSession);
+                this.loadSession = loadSession;
+                loadSession$set = true;
+                return this;
+            }
+
             public LoadArguments build() {
                 URIHandler uriHandler = this.uriHandler;
                 if (!uriHandler$set) uriHandler = LoadArguments.$default$uriHandler();
@@ -521,6 +738,18 @@ public class AsmModel {
                 if (!file$set) file = LoadArguments.$default$file();
                 InputStream inputStream = this.inputStream;
                 if (!inputStream$set) inputStream = LoadArguments.$default$inputStream();
+                AsmValidationCache validationCache = this.validationCache;
+                if (!validationCache$set) validationCache = LoadArguments.$default$validationCache();
+                AsmReadStrategy readStrategy = this.readStrategy;
+                if (!readStrategy$set) readStrategy = LoadArguments.$default$readStrategy();
+                AsmLoadProfile loadProfile = this.loadProfile;
+                if (!loadProfile$set) loadProfile = LoadArguments.$default$loadProfile();
+                AsmCompression compression = this.compression;
+                if (!compression$set) compression = LoadArguments.$default$compression();
+                Executor executor = this.executor;
+                if (!executor$set) executor = LoadArguments.$default$executor();
+                AsmLoadSession loadSession = this.loadSession;
+                if (!loadSession$set) loadSession = LoadArguments.$default$loadSession();
 
                 return new LoadArguments(
                         uri,
@@ -528,6 +757,15 @@ public class AsmModel {
                         resourceSet,
                         loadOptions,
                         validateModel,
+                        parallelValidation,
+                        validateUniqueXmiids,
+                        binary,
+                        validationCache,
+                        readStrategy,
+                        loadProfile,
+                        compression,
+                        executor,
+                        loadSession,
                         file,
                         inputStream);
             }
@@ -540,6 +778,15 @@ public class AsmModel {
                         + ", resourceSet=" + this.resourceSet
                         + ", loadOptions=" + this.loadOptions
                         + ", validateModel=" + this.validateModel
+                        + ", parallelValidation=" + this.parallelValidation
+                        + ", validateUniqueXmiids=" + this.validateUniqueXmiids
+                        + ", binary=" + this.binary
+                        + ", validationCache=" + this.validationCache
+                        + ", readStrategy=" + this.readStrategy
+                        + ", loadProfile=" + this.loadProfile
+                        + ", compression=" + this.compression
+                        + ", executor=" + this.executor
+                        + ", loadSession=" + this.loadSession
                         + ", file=" + this.file
                         + ", inputStream=" + this.inputStream
                         + ")";
@@ -557,6 +804,15 @@ public class AsmModel {
                               final ResourceSet resourceSet,
                               final Map<Object, Object> loadOptions,
                               final boolean validateModel,
+                              final boolean parallelValidation,
+                              final boolean validateUniqueXmiids,
+                              final boolean binary,
+                              final AsmValidationCache validationCache,
+                              final AsmReadStrategy readStrategy,
+                              final AsmLoadProfile loadProfile,
+                              final AsmCompression compression,
+                              final Executor executor,
+                              final AsmLoadSession loadSession,
                               final File file,
                               final InputStream inputStream) {
             this.uri = uri;
@@ -564,6 +820,15 @@ public class AsmModel {
             this.resourceSet = resourceSet;
             this.loadOptions = loadOptions;
             this.validateModel = validateModel;
+            this.parallelValidation = parallelValidation;
+            this.validateUniqueXmiids = validateUniqueXmiids;
+            this.binary = binary;
+            this.validationCache = validationCache;
+            this.readStrategy = readStrategy;
+            this.loadProfile = loadProfile;
+            this.compression = compression;
+            this.executor = executor;
+            this.loadSession = loadSession;
             this.file = file;
             this.inputStream = inputStream;
         }
@@ -576,13 +841,22 @@ public class AsmModel {
                             .uri(getUri()
                                     .orElseGet(() ->
                                             org.eclipse.emf.common.util.URI.createURI("asm.model")))
-                            .validateModel(isValidateModel());
+                            .validateModel(isValidateModel())
+                            .parallelValidation(isParallelValidation())
+                            .validateUniqueXmiids(isValidateUniqueXmiids())
+                            .binary(isBinary());
 
             getUriHandler().ifPresent(argumentsBuilder::uriHandler);
             getResourceSet().ifPresent(argumentsBuilder::resourceSet);
             getLoadOptions().ifPresent(argumentsBuilder::loadOptions);
             getFile().ifPresent(argumentsBuilder::file);
             getInputStream().ifPresent(argumentsBuilder::inputStream);
+            getValidationCache().ifPresent(argumentsBuilder::validationCache);
+            argumentsBuilder.readStrategy(getReadStrategy());
+            argumentsBuilder.loadProfile(getLoadProfile());
+            getCompression().ifPresent(argumentsBuilder::compression);
+            getExecutor().ifPresent(argumentsBuilder::executor);
+            getLoadSession().ifPresent(argumentsBuilder::loadSession);
 
             return argumentsBuilder;
         }
@@ -600,6 +874,10 @@ public class AsmModel {
         File file;
         Map<Object, Object> saveOptions;
         boolean validateModel;
+        boolean binary;
+        AsmCompression compression;
+        AsmIdStrategy idStrategy;
+        boolean splitPackages;
 
         private static OutputStream $default$outputStream() {
             return null;
@@ -613,6 +891,14 @@ public class AsmModel {
             return null;
         }
 
+        private static AsmCompression $default$compression() {
+            return null;
+        }
+
+        private static AsmIdStrategy $default$idStrategy() {
+            return null;
+        }
+
         public Optional<OutputStream> getOutputStream() {
             return ofNullable(outputStream);
         }
@@ -629,6 +915,22 @@ public class AsmModel {
             return validateModel;
         }
 
+        public boolean isBinary() {
+            return binary;
+        }
+
+        public Optional<AsmCompression> getCompression() {
+            return ofNullable(compression);
+        }
+
+        public Optional<AsmIdStrategy> getIdStrategy() {
+            return ofNullable(idStrategy);
+        }
+
+        public boolean isSplitPackages() {
+            return splitPackages;
+        }
+
         /**
          * Builder for {@link AsmModel#saveAsmModel(SaveArguments)}.
          */
@@ -645,6 +947,16 @@ public class AsmModel {
 
             private boolean validateModel = true;
 
+            private boolean binary;
+
+            private boolean compression$set;
+            private AsmCompression compression;
+
+            private boolean idStrategy$set;
+            private AsmIdStrategy idStrategy;
+
+            private boolean splitPackages;
+
 
             SaveArgumentsBuilder() {
             }
@@ -653,11 +965,15 @@ public class AsmModel {
             public AsmModelResourceSupport.SaveArguments.SaveArgumentsBuilder
             toAsmModelResourceSupportSaveArgumentsBuilder() {
                 AsmModelResourceSupport.SaveArguments.SaveArgumentsBuilder argumentsBuilder =
-                        AsmModelResourceSupport.SaveArguments.asmSaveArgumentsBuilder().validateModel(validateModel);
+                        AsmModelResourceSupport.SaveArguments.asmSaveArgumentsBuilder().validateModel(validateModel)
+                                .binary(binary)
+                                .splitPackages(splitPackages);
 
                 if (outputStream$set) argumentsBuilder.outputStream(outputStream);
                 if (file$set) argumentsBuilder.file(file);
                 if (saveOptions$set) argumentsBuilder.saveOptions(saveOptions);
+                if (compression$set) argumentsBuilder.compression(compression);
+                if (idStrategy$set) argumentsBuilder.idStrategy(idStrategy);
                 return argumentsBuilder;
             }
 
@@ -704,6 +1020,48 @@ public class AsmModel {
                 return this;
             }
 
+            /**
+             * Defines that model is saved in binary format (see {@link AsmBinaryFormat}). Default: false, binary
+             * format is used only if the URI or file has {@link AsmBinaryFormat#FILE_EXTENSION} extension.
+             */
+            public SaveArgumentsBuilder binary(boolean binary) {
+                this.binary = binary;
+                return this;
+            }
+
+            /**
+             * Defines the compression of the saved model (see {@link AsmCompression}). If not defined, compression is
+             * selected by the file extension of the file or URI.
+             */
+            public SaveArgumentsBuilder compression(final AsmCompression compression) {
+                requireNonNull(compression);
+                this.compression = compression;
+                compression$set = true;
+                return this;
+            }
+
+            /**
+             * Defines the strategy of xmiid-s (see {@link AsmIdStrategy}), xmiid-s of all elements are assigned by it
+             * before save. If not defined, the strategy of the model is used, existing xmiid-s are kept without it.
+             */
+            public SaveArgumentsBuilder idStrategy(final AsmIdStrategy idStrategy) {
+                requireNonNull(idStrategy);
+                this.idStrategy = idStrategy;
+                idStrategy$set = true;
+                return this;
+            }
+
+            /**
+             * Defines that sub-packages of the model are saved to their own resources (see
+             * {@link AsmPackageResources}). The model is saved to its URI or to the file, it keeps its URI after save
+             * and a model which was not split is merged back. When it is false, split packages are merged back to
+             * the model. Default: false
+             */
+            public SaveArgumentsBuilder splitPackages(boolean splitPackages) {
+                this.splitPackages = splitPackages;
+                return this;
+            }
+
 
             public SaveArguments build() {
                 OutputStream outputStream = this.outputStream;
@@ -712,7 +1070,12 @@ public class AsmModel {
                 if (!file$set) file = SaveArguments.$default$file();
                 Map<Object, Object> saveOptions = this.saveOptions;
                 if (!saveOptions$set) saveOptions = SaveArguments.$default$saveOptions();
-                return new SaveArguments(outputStream, file, saveOptions, validateModel);
+                AsmCompression compression = this.compression;
+                if (!compression$set) compression = SaveArguments.$default$compression();
+                AsmIdStrategy idStrategy = this.idStrategy;
+                if (!idStrategy$set) idStrategy = SaveArguments.$default$idStrategy();
+                return new SaveArguments(outputStream, file, saveOptions, validateModel, binary, compression,
+                        idStrategy, splitPackages);
             }
 
             @java.lang.Override
@@ -722,6 +1085,10 @@ public class AsmModel {
                         + "outputStream=" + this.outputStream
                         + ", file=" + this.file
                         + ", saveOptions=" + this.saveOptions
+                        + ", binary=" + this.binary
+                        + ", compression=" + this.compression
+                        + ", idStrategy=" + this.idStrategy
+                        + ", splitPackages=" + this.splitPackages
                         + ")";
             }
         }
@@ -734,11 +1101,15 @@ public class AsmModel {
 
         public AsmModelResourceSupport.SaveArguments.SaveArgumentsBuilder toAsmModelResourceSupportSaveArgumentsBuilder() {
             AsmModelResourceSupport.SaveArguments.SaveArgumentsBuilder argumentsBuilder =
-                    AsmModelResourceSupport.SaveArguments.asmSaveArgumentsBuilder().validateModel(validateModel);
+                    AsmModelResourceSupport.SaveArguments.asmSaveArgumentsBuilder().validateModel(validateModel)
+                            .binary(binary)
+                            .splitPackages(splitPackages);
 
             getOutputStream().ifPresent(o -> argumentsBuilder.outputStream(o));
             getFile().ifPresent(o -> argumentsBuilder.file(o));
             getSaveOptions().ifPresent(o -> argumentsBuilder.saveOptions(o));
+            getCompression().ifPresent(o -> argumentsBuilder.compression(o));
+            getIdStrategy().ifPresent(o -> argumentsBuilder.idStrategy(o));
             return argumentsBuilder;
         }
 
@@ -747,11 +1118,19 @@ public class AsmModel {
         private SaveArguments(final OutputStream outputStream,
                               final File file,
                               final Map<Object, Object> saveOptions,
-                              final boolean validateModel) {
+                              final boolean validateModel,
+                              final boolean binary,
+                              final AsmCompression compression,
+                              final AsmIdStrategy idStrategy,
+                              final boolean splitPackages) {
             this.outputStream = outputStream;
             this.file = file;
             this.saveOptions = saveOptions;
             this.validateModel = validateModel;
+            this.binary = binary;
+            this.compression = compression;
+            this.idStrategy = idStrategy;
+            this.splitPackages = splitPackages;
         }
     }
 
@@ -23,6 +23,8 @@ package hu.blackbelt.judo.meta.asm.runtime;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import hu.blackbelt.judo.meta.asm.support.AsmIdStrategy;
+import hu.blackbelt.judo.meta.asm.support.AsmXmiIdValidator;
 import org.eclipse.emf.common.notify.Notifier;
 import org.eclipse.emf.common.util.BasicEList;
 import org.eclipse.emf.common.util.ECollections;
@@ -71,6 +73,16 @@ public class AsmUtils {
     private static final List<String> BYTE_ARRAY_TYPES = Arrays.asList("byte[]", "java.sql.Blob");
     private static final List<String> TEXT_TYPES = Arrays.asList("java.sql.Clob");
 
+    private static final Set<String> JAVA_KEYWORDS = new HashSet<>(Arrays.asList(
+            "abstract", "assert", "boolean", "break", "byte", "case", "catch", "char",
+            "continue", "default", "do", "double", "else", "enum", "exports", "extends",
+            "final", "finally", "float", "for", "if", "implements", "import", "instanceof",
+            "long", "module", "native", "new", "package", "private", "protected",
+            "public", "requires", "return", "short", "static", "strictfp", "super",
+            "switch", "synchronized", "this", "throw", "throws", "transient", "try",
+            "void", "volatile", "while", "true", "null", "false", "var", "const", "goto",
+            "class", "Class", "int", "interface"));
+
     private static final Logger log = org.slf4j.LoggerFactory.getLogger(AsmUtils.class);
 
     private static final String EXPOSED_BY_ANNOTATION_NAME = "exposedBy";
@@ -79,13 +91,23 @@ public class AsmUtils {
 
     private final ResourceSet resourceSet;
 
-    private final AsmUtilsCache cache;
+    private volatile AsmUtilsCache cache;
 
     public AsmUtils(final ResourceSet resourceSet) {
         this.resourceSet = resourceSet;
         this.cache = AsmUtilsCache.getCache(resourceSet);
     }
 
+    private AsmUtilsCache getAsmUtilsCache() {
+        AsmUtilsCache current = cache;
+        if (current.isReleased()) {
+            // cache is evicted (and its change tracker is released), cache of the resource set is created again
+            current = AsmUtilsCache.getCache(resourceSet);
+            cache = current;
+        }
+        return current;
+    }
+
     /**
      * Get the fully qualified name of a package.
      *
@@ -137,12 +159,7 @@ public class AsmUtils {
      * @return fully qualified name without model name
      */
     public String getRelativeFQName(final EClassifier eClassifier) {
-        final String entityFQName = getClassifierFQName(eClassifier);
-        if (!entityFQName.startsWith(getModel().get().getName())) {
-            throw new IllegalArgumentException("The classifier name does not start with model name - " + entityFQName);
-        }
-        final String entityTypeName = entityFQName.substring(getModel().get().getName().length() + 1);
-        return entityTypeName;
+        return getModelRoot().getRelativeFQName(eClassifier);
     }
 
 
@@ -211,26 +228,26 @@ public class AsmUtils {
      * @return resolved classifier (if found)
      */
     public Optional<EClassifier> resolve(final String fqName) {
-        if (cache.getClassifiersByFqName().isEmpty()) {
-            cache.getClassifiersByFqName().putAll(all(EClassifier.class)
+        if (getAsmUtilsCache().getClassifiersByFqName().isEmpty()) {
+            getAsmUtilsCache().getClassifiersByFqName().putAll(all(EClassifier.class)
                     .collect(Collectors.toMap(c -> getClassifierFQName(c), c -> Optional.of(c))));
         }
-        if (cache.getClassifiersByFqName().containsKey(fqName)) {
-            return cache.getClassifiersByFqName().get(fqName);
+        if (getAsmUtilsCache().getClassifiersByFqName().containsKey(fqName)) {
+            return getAsmUtilsCache().getClassifiersByFqName().get(fqName);
         } else {
             final Optional<EClassifier> resolved = all(EClassifier.class)
                     .filter(c -> Objects.equals(fqName, getClassifierFQName(c)))
                     .findAny();
 
             if (resolved.isPresent()) {
-                cache.getClassifiersByFqName().put(fqName, resolved);
+                getAsmUtilsCache().getClassifiersByFqName().put(fqName, resolved);
                 return resolved;
             } else {
                 log.warn("EClassifier by fully qualified name '" + fqName + "' not found, trying to resolve by name only");
                 final Optional<EClassifier> resolvedByNameOnly = all(EClassifier.class)
                         .filter(c -> Objects.equals(fqName, c.getName()))
                         .findAny();
-                cache.getClassifiersByFqName().put(fqName, resolvedByNameOnly);
+                getAsmUtilsCache().getClassifiersByFqName().put(fqName, resolvedByNameOnly);
                 return resolvedByNameOnly;
             }
         }
@@ -243,17 +260,17 @@ public class AsmUtils {
      * @return resolved reference (if found)
      */
     public Optional<EReference> resolveReference(final String fqName) {
-        if (cache.getReferencesByFqName().isEmpty()) {
-            cache.getReferencesByFqName().putAll(all(EReference.class)
+        if (getAsmUtilsCache().getReferencesByFqName().isEmpty()) {
+            getAsmUtilsCache().getReferencesByFqName().putAll(all(EReference.class)
                     .collect(Collectors.toMap(r -> getReferenceFQName(r), r -> Optional.of(r))));
         }
-        if (cache.getReferencesByFqName().containsKey(fqName)) {
-            return cache.getReferencesByFqName().get(fqName);
+        if (getAsmUtilsCache().getReferencesByFqName().containsKey(fqName)) {
+            return getAsmUtilsCache().getReferencesByFqName().get(fqName);
         } else {
             final Optional<EReference> result = all(EReference.class)
                     .filter(r -> Objects.equals(fqName, getReferenceFQName(r)))
                     .findAny();
-            cache.getReferencesByFqName().put(fqName, result);
+            getAsmUtilsCache().getReferencesByFqName().put(fqName, result);
             return result;
         }
     }
@@ -265,17 +282,17 @@ public class AsmUtils {
      * @return resolved attribute (if found)
      */
     public Optional<EAttribute> resolveAttribute(final String fqName) {
-        if (cache.getAttributesByFqName().isEmpty()) {
-            cache.getAttributesByFqName().putAll(all(EAttribute.class)
+        if (getAsmUtilsCache().getAttributesByFqName().isEmpty()) {
+            getAsmUtilsCache().getAttributesByFqName().putAll(all(EAttribute.class)
                     .collect(Collectors.toMap(a -> getAttributeFQName(a), a -> Optional.of(a))));
         }
-        if (cache.getAttributesByFqName().containsKey(fqName)) {
-            return cache.getAttributesByFqName().get(fqName);
+        if (getAsmUtilsCache().getAttributesByFqName().containsKey(fqName)) {
+            return getAsmUtilsCache().getAttributesByFqName().get(fqName);
         } else {
             final Optional<EAttribute> result = all(EAttribute.class)
                     .filter(a -> Objects.equals(fqName, getAttributeFQName(a)))
                     .findAny();
-            cache.getAttributesByFqName().put(fqName, result);
+            getAsmUtilsCache().getAttributesByFqName().put(fqName, result);
             return result;
         }
     }
@@ -287,17 +304,17 @@ public class AsmUtils {
      * @return resolved operation (if found)
      */
     public Optional<EOperation> resolveOperation(final String fqName) {
-        if (cache.getOperationsByFqName().isEmpty()) {
-            cache.getOperationsByFqName().putAll(all(EOperation.class)
+        if (getAsmUtilsCache().getOperationsByFqName().isEmpty()) {
+            getAsmUtilsCache().getOperationsByFqName().putAll(all(EOperation.class)
                     .collect(Collectors.toMap(o -> getOperationFQName(o), o -> Optional.of(o))));
         }
-        if (cache.getOperationsByFqName().containsKey(fqName)) {
-            return cache.getOperationsByFqName().get(fqName);
+        if (getAsmUtilsCache().getOperationsByFqName().containsKey(fqName)) {
+            return getAsmUtilsCache().getOperationsByFqName().get(fqName);
         } else {
             final Optional<EOperation> result = all(EOperation.class)
                     .filter(o -> Objects.equals(fqName, getOperationFQName(o)))
                     .findAny();
-            cache.getOperationsByFqName().put(fqName, result);
+            getAsmUtilsCache().getOperationsByFqName().put(fqName, result);
             return result;
         }
     }
@@ -402,7 +419,9 @@ public class AsmUtils {
                     .withSource(sourceUri)
                     .build();
             eModelElement.getEAnnotations().add(newAnnotation);
-            setId(newAnnotation, getId(newAnnotation.eContainer()) + "/" + upperFirst(annotationName) + "/" + upperFirst(value));
+            if (!hasIdStrategy(eModelElement)) {
+                setId(newAnnotation, getId(newAnnotation.eContainer()) + "/" + upperFirst(annotationName) + "/" + upperFirst(value));
+            }
             newAnnotation.getDetails().put(EXTENDED_METADATA_DETAILS_VALUE_KEY, value);
 
             AsmUtilsCache cache = null;
@@ -415,6 +434,12 @@ public class AsmUtils {
         }
     }
 
+    // xmiid-s of resources with id strategy are assigned on save
+    private static boolean hasIdStrategy(final EObject eObject) {
+        return eObject.eResource() instanceof XMLResource
+                && AsmIdStrategy.of(((XMLResource) eObject.eResource()).getDefaultSaveOptions()) != null;
+    }
+
     private static String upperFirst(String s) {
         if (s == null || s.isEmpty()) return s;
         return s.substring(0, 1).toUpperCase() + s.substring(1);
@@ -614,27 +639,61 @@ public class AsmUtils {
      * @return mapped entity type (or null if no mappedEntityType annotation found nor it represents a valid entity type)
      */
     public Optional<EClass> getMappedEntityType(final EClass eClass) {
-        if (cache.getEntityByMappedTransfer().containsKey(eClass)) {
-            return cache.getEntityByMappedTransfer().get(eClass);
+        if (getAsmUtilsCache().getEntityByMappedTransfer().containsKey(eClass)) {
+            return getAsmUtilsCache().getEntityByMappedTransfer().get(eClass);
         } else {
             final Optional<String> mappedEntityTypeFQName = getExtensionAnnotationValue(eClass, "mappedEntityType", false);
             if (mappedEntityTypeFQName.isPresent()) {
                 final Optional<EClass> entityType = getClassByFQName(mappedEntityTypeFQName.get());
                 if (entityType.isPresent()) {
                     if (isEntityType(entityType.get())) {
-                        cache.getEntityByMappedTransfer().put(eClass, entityType);
+                        getAsmUtilsCache().getEntityByMappedTransfer().put(eClass, entityType);
                     } else {
                         log.error("Invalid entity type: {}", mappedEntityTypeFQName.get());
-                        cache.getEntityByMappedTransfer().put(eClass, Optional.empty());
+                        getAsmUtilsCache().getEntityByMappedTransfer().put(eClass, Optional.empty());
                     }
                 } else {
-                    cache.getEntityByMappedTransfer().put(eClass, Optional.empty());
+                    getAsmUtilsCache().getEntityByMappedTransfer().put(eClass, Optional.empty());
                 }
             } else {
-                cache.getEntityByMappedTransfer().put(eClass, Optional.empty());
+                getAsmUtilsCache().getEntityByMappedTransfer().put(eClass, Optional.empty());
             }
         }
-        return cache.getEntityByMappedTransfer().get(eClass);
+        return getAsmUtilsCache().getEntityByMappedTransfer().get(eClass);
+    }
+
+    /**
+     * Get mapped transfer object types of an entity type. Transfer object types inheriting the mapping from one of
+     * their supertypes are included.
+     * <p>
+     * The reverse index is built on first call (by resolving mapped entity type of all classes) and it is cached
+     * until the model is changed or {@link AsmUtilsCache#clear()} is called.
+     *
+     * @param entityType entity type
+     * @return list of mapped transfer object types (empty list if entity type is not mapped by any transfer object type)
+     */
+    public EList<EClass> getMappedTransferObjectTypes(final EClass entityType) {
+        final long modificationCount = getAsmUtilsCache().getModificationCount();
+        MappedTransferObjectTypeIndex mappedTransferObjectTypeIndex = getAsmUtilsCache().getMappedTransferObjectTypeIndex();
+        if (mappedTransferObjectTypeIndex == null || mappedTransferObjectTypeIndex.getModificationCount() != modificationCount) {
+            if (mappedTransferObjectTypeIndex != null) {
+                // model is changed since the last index, cached lookups of mapped entity types may be outdated
+                getAsmUtilsCache().getElementsByType().remove(EClassifier.class);
+                getAsmUtilsCache().getClassifiersByFqName().clear();
+                getAsmUtilsCache().getEntityByMappedTransfer().clear();
+            }
+            final Map<EClass, EList<EClass>> index = new HashMap<>();
+            all().filter(e -> e instanceof EClass).map(e -> (EClass) e).forEach(transferObjectType ->
+                    Stream.concat(Stream.of(transferObjectType), transferObjectType.getEAllSuperTypes().stream())
+                            .map(c -> getMappedEntityType(c))
+                            .filter(mappedEntityType -> mappedEntityType.isPresent())
+                            .map(mappedEntityType -> mappedEntityType.get())
+                            .distinct()
+                            .forEach(mappedEntityType -> index.computeIfAbsent(mappedEntityType, e -> new UniqueEList<>()).add(transferObjectType)));
+            mappedTransferObjectTypeIndex = new MappedTransferObjectTypeIndex(modificationCount, index);
+            getAsmUtilsCache().setMappedTransferObjectTypeIndex(mappedTransferObjectTypeIndex);
+        }
+        return mappedTransferObjectTypeIndex.getMappedTransferObjectTypes(entityType);
     }
 
     /**
@@ -721,7 +780,7 @@ public class AsmUtils {
     /**
      * Get resolved exposed by annotation.
      * <p>
-     * Exposed by must be an access point.
+     * Exposed by must be an access point, access points are looked up in the {@link ActorTypeRegistry} first.
      *
      * @param eAnnotation annotation
      * @return access point (or null if no exposedBy annotation found nor it is a valid access point)
@@ -730,6 +789,11 @@ public class AsmUtils {
         if (Objects.equals(eAnnotation.getSource(), getAnnotationUri(EXPOSED_BY_ANNOTATION_NAME))) {
             if (eAnnotation.getDetails().containsKey(EXTENDED_METADATA_DETAILS_VALUE_KEY)) {
                 final String exposedByFqName = eAnnotation.getDetails().get(EXTENDED_METADATA_DETAILS_VALUE_KEY);
+                final Optional<EClass> actorType = getActorTypeRegistry().getSummaryByFQName(exposedByFqName)
+                        .map(summary -> summary.getActorType());
+                if (actorType.isPresent()) {
+                    return actorType;
+                }
                 final Optional<EClass> resolvedExposedBy = getClassByFQName(exposedByFqName);
                 if (resolvedExposedBy.isPresent()) {
                     if (isActorType(resolvedExposedBy.get())) {
@@ -751,16 +815,75 @@ public class AsmUtils {
 
     /**
      * Get list of actor types exposing an operation.
+     * <p>
+     * Actor types of operations in the model are resolved by {@link OperationExposureIndex}, operations not
+     * contained by the model are resolved by their exposedBy annotations.
      *
      * @param eOperation operation
-     * @return list of actor types
+     * @return new list of actor types in order of exposedBy annotations
      */
     public EList<EClass> getActorTypesOfOperation(final EOperation eOperation) {
-        return new BasicEList<>(eOperation.getEAnnotations().stream()
+        final OperationExposureIndex operationExposureIndex = getOperationExposureIndex();
+        if (operationExposureIndex.contains(eOperation)) {
+            return new BasicEList<>(operationExposureIndex.getActorTypesOfOperation(eOperation));
+        } else {
+            return resolveActorTypesOfOperation(eOperation);
+        }
+    }
+
+    /**
+     * Check if an operation is exposed by a given actor type.
+     *
+     * @param eOperation operation
+     * @param actorType  actor type
+     * @return <code>true</code> if operation is exposed by actor type, <code>false</code> otherwise
+     */
+    public boolean isOperationExposedTo(final EOperation eOperation, final EClass actorType) {
+        final OperationExposureIndex operationExposureIndex = getOperationExposureIndex();
+        if (operationExposureIndex.contains(eOperation)) {
+            return operationExposureIndex.isOperationExposedTo(eOperation, actorType);
+        } else {
+            return resolveActorTypesOfOperation(eOperation).contains(actorType);
+        }
+    }
+
+    /**
+     * Get index of actor types exposing operations. Index is built on first call and it is cached until
+     * {@link AsmUtilsCache#clear()} is called or the actor type registry is rebuilt (when the model is changed).
+     *
+     * @return operation exposure index
+     */
+    public OperationExposureIndex getOperationExposureIndex() {
+        final ActorTypeRegistry actorTypeRegistry = getActorTypeRegistry();
+        OperationExposureIndex operationExposureIndex = getAsmUtilsCache().getOperationExposureIndex();
+        if (operationExposureIndex == null || operationExposureIndex.getActorTypeRegistry() != actorTypeRegistry) {
+            // operations are collected from the current model, cached elements of all(Class) may be outdated
+            operationExposureIndex = new OperationExposureIndex(actorTypeRegistry,
+                    all().filter(e -> e instanceof EOperation).map(e -> (EOperation) e).collect(Collectors.toList()),
+                    o -> resolveActorTypesOfOperation(o, actorTypeRegistry));
+            getAsmUtilsCache().setOperationExposureIndex(operationExposureIndex);
+        }
+        return operationExposureIndex;
+    }
+
+    private EList<EClass> resolveActorTypesOfOperation(final EOperation eOperation) {
+        return eOperation.getEAnnotations().stream()
                 .map(a -> getResolvedExposedBy(a))
                 .filter(exposedBy -> exposedBy.isPresent())
                 .map(exposedBy -> exposedBy.get())
-                .collect(Collectors.toList()));
+                .collect(Collectors.toCollection(BasicEList::new));
+    }
+
+    private EList<EClass> resolveActorTypesOfOperation(final EOperation eOperation, final ActorTypeRegistry actorTypeRegistry) {
+        return eOperation.getEAnnotations().stream()
+                .map(a -> Objects.equals(a.getSource(), getAnnotationUri(EXPOSED_BY_ANNOTATION_NAME))
+                        ? actorTypeRegistry.getSummaryByFQName(a.getDetails().get(EXTENDED_METADATA_DETAILS_VALUE_KEY))
+                                .map(summary -> Optional.of(summary.getActorType()))
+                                .orElseGet(() -> getResolvedExposedBy(a))
+                        : Optional.<EClass>empty())
+                .filter(exposedBy -> exposedBy.isPresent())
+                .map(exposedBy -> exposedBy.get())
+                .collect(Collectors.toCollection(BasicEList::new));
     }
 
     /**
@@ -772,29 +895,29 @@ public class AsmUtils {
      */
     public Optional<EAttribute> getMappedAttribute(EAttribute type) {
 
-        if (cache.getEntityAttributeByMappedAttribute().containsKey(type)) {
-            return cache.getEntityAttributeByMappedAttribute().get(type);
+        if (getAsmUtilsCache().getEntityAttributeByMappedAttribute().containsKey(type)) {
+            return getAsmUtilsCache().getEntityAttributeByMappedAttribute().get(type);
         } else {
             Optional<String> mappedAttributeName = getExtensionAnnotationValue(type, "binding", false);
             Optional<EClass> mappedEntityType = getMappedEntityType(type.getEContainingClass());
             if (mappedAttributeName.isPresent()) {
                 if (!mappedEntityType.isPresent()) {
                     log.warn("Mapped attribute container class is not mapped: " + getAttributeFQName(type));
-                    cache.getEntityAttributeByMappedAttribute().put(type, empty());
+                    getAsmUtilsCache().getEntityAttributeByMappedAttribute().put(type, empty());
                 } else {
                     if (mappedEntityType.get().getEStructuralFeature(mappedAttributeName.get()) instanceof EAttribute) {
-                        cache.getEntityAttributeByMappedAttribute().put(type,
+                        getAsmUtilsCache().getEntityAttributeByMappedAttribute().put(type,
                                 Optional.of((EAttribute) mappedEntityType.get().getEStructuralFeature(mappedAttributeName.get())));
                     } else {
                         log.warn("The given mapped alias is not attribute type: " + getAttributeFQName(type));
-                        cache.getEntityAttributeByMappedAttribute().put(type, empty());
+                        getAsmUtilsCache().getEntityAttributeByMappedAttribute().put(type, empty());
                     }
                 }
             } else {
-                cache.getEntityAttributeByMappedAttribute().put(type, empty());
+                getAsmUtilsCache().getEntityAttributeByMappedAttribute().put(type, empty());
             }
         }
-        return cache.getEntityAttributeByMappedAttribute().get(type);
+        return getAsmUtilsCache().getEntityAttributeByMappedAttribute().get(type);
     }
 
     /**
@@ -805,29 +928,29 @@ public class AsmUtils {
      * @return mapped reference
      */
     public Optional<EReference> getMappedReference(EReference type) {
-        if (cache.getEntityReferenceByMappedReference().containsKey(type)) {
-            return cache.getEntityReferenceByMappedReference().get(type);
+        if (getAsmUtilsCache().getEntityReferenceByMappedReference().containsKey(type)) {
+            return getAsmUtilsCache().getEntityReferenceByMappedReference().get(type);
         } else {
             Optional<String> mappedReferenceName = getExtensionAnnotationValue(type, "binding", false);
             Optional<EClass> mappedEntityType = getMappedEntityType(type.getEContainingClass());
             if (mappedReferenceName.isPresent()) {
                 if (!mappedEntityType.isPresent()) {
                     log.warn("Mapped reference container class is not mapped: " + getReferenceFQName(type));
-                    cache.getEntityReferenceByMappedReference().put(type, empty());
+                    getAsmUtilsCache().getEntityReferenceByMappedReference().put(type, empty());
                 } else {
                     if (mappedEntityType.get().getEStructuralFeature(mappedReferenceName.get()) instanceof EReference) {
-                        cache.getEntityReferenceByMappedReference().put(type,
+                        getAsmUtilsCache().getEntityReferenceByMappedReference().put(type,
                                 Optional.of((EReference) mappedEntityType.get().getEStructuralFeature(mappedReferenceName.get())));
                     } else {
                         log.warn("The given mapped alias is not attribute type: " + getReferenceFQName(type));
-                        cache.getEntityReferenceByMappedReference().put(type, empty());
+                        getAsmUtilsCache().getEntityReferenceByMappedReference().put(type, empty());
                     }
                 }
             } else {
-                cache.getEntityReferenceByMappedReference().put(type, empty());
+                getAsmUtilsCache().getEntityReferenceByMappedReference().put(type, empty());
             }
         }
-        return cache.getEntityReferenceByMappedReference().get(type);
+        return getAsmUtilsCache().getEntityReferenceByMappedReference().get(type);
     }
 
     /**
@@ -970,12 +1093,45 @@ public class AsmUtils {
     /**
      * Get all access points.
      *
-     * @return access points
+     * @return list of access points (ordered by actor ordinals)
      */
     public EList<EClass> getAllActorTypes() {
-        return new BasicEList<>(all(EClass.class)
-                .filter(c -> isActorType(c))
-                .collect(Collectors.toList()));
+        return new BasicEList<>(getActorTypeRegistry().getActorTypes());
+    }
+
+    /**
+     * Get registry of actor types. Registry is built on first call (with Java naming descriptors of structural
+     * features, see {@link #getFeatureNamingIndex()}), it is rebuilt when the model is changed.
+     *
+     * @return actor type registry
+     */
+    public ActorTypeRegistry getActorTypeRegistry() {
+        final long modificationCount = getAsmUtilsCache().getModificationCount();
+        final ActorTypeRegistry actorTypeRegistry = getAsmUtilsCache().getActorTypeRegistry();
+        if (actorTypeRegistry == null || actorTypeRegistry.getModificationCount() != modificationCount) {
+            return indexModel(modificationCount).getActorTypeRegistry();
+        }
+        return actorTypeRegistry;
+    }
+
+    /**
+     * Build actor type registry and Java naming descriptors of structural features by a single traversal of the
+     * model and cache them.
+     *
+     * @param modificationCount modification count of the model
+     * @return cache of the model
+     */
+    private AsmUtilsCache indexModel(final long modificationCount) {
+        final ActorTypeRegistry.Builder actorTypeRegistryBuilder = new ActorTypeRegistry.Builder();
+        final FeatureNaming.Index.Builder featureNamingIndexBuilder = new FeatureNaming.Index.Builder();
+        resourceSet.getAllContents().forEachRemaining(notifier -> {
+            actorTypeRegistryBuilder.add(notifier);
+            featureNamingIndexBuilder.add(notifier);
+        });
+        final AsmUtilsCache asmUtilsCache = getAsmUtilsCache();
+        asmUtilsCache.setActorTypeRegistry(actorTypeRegistryBuilder.build(modificationCount));
+        asmUtilsCache.setFeatureNamingIndex(featureNamingIndexBuilder.build(modificationCount));
+        return asmUtilsCache;
     }
 
     /**
@@ -1073,19 +1229,18 @@ public class AsmUtils {
      * Decorate model elements with annotations required to process ASM model (ie generating OpenAPI model).
      */
     public void enrichWithAnnotations() {
-        getAllActorTypes().forEach(actorType -> {
-            final String actorTypeFqName = getClassifierFQName(actorType);
+        getActorTypeRegistry().getSummaries().forEach(actorTypeSummary -> {
+            final EClass actorType = actorTypeSummary.getActorType();
+            final String actorTypeFqName = actorTypeSummary.getFqName();
             if (log.isDebugEnabled()) {
                 log.debug("Actor type: {}", actorTypeFqName);
             }
 
-            all(EClass.class)
-                    .filter(ap -> getExtensionAnnotationListByName(ap, "actor").stream()
-                            .anyMatch(a -> a.getDetails().get("name") != null && a.getDetails().get("name").replace("::", ".").equals(getClassifierFQName(actorType))))
+            actorTypeSummary.getAccessPoints()
                     .forEach(accessPoint -> addExposedByAnnotationToTransferObjectType(accessPoint, actorTypeFqName, 0, false));
             addExposedByAnnotationToTransferObjectType(actorType, actorTypeFqName, 0, true);
         });
-        cache.clear();
+        getAsmUtilsCache().clear();
     }
 
     /**
@@ -1154,11 +1309,11 @@ public class AsmUtils {
      * @return all elements with clazz type
      */
     public <T> Stream<T> all(final Class<T> clazz) {
-        if (cache.getElementsByType().containsKey(clazz)) {
-            return cache.getElementsByType().get(clazz).stream();
+        if (getAsmUtilsCache().getElementsByType().containsKey(clazz)) {
+            return getAsmUtilsCache().getElementsByType().get(clazz).stream();
         } else {
             final Collection<T> result = all().filter(e -> clazz.isAssignableFrom(e.getClass())).map(e -> (T) e).collect(Collectors.toList());
-            cache.getElementsByType().put(clazz, result);
+            getAsmUtilsCache().getElementsByType().put(clazz, result);
             return result.stream();
         }
     }
@@ -1233,15 +1388,7 @@ public class AsmUtils {
      * @return the converted string
      */
     public static String safeName(String str) {
-        if (Arrays.asList(
-                "abstract", "assert", "boolean", "break", "byte", "case", "catch", "char",
-                "continue", "default", "do", "double", "else", "enum", "exports", "extends",
-                "final", "finally", "float", "for", "if", "implements", "import", "instanceof",
-                "long", "module", "native", "new", "package", "private", "protected",
-                "public", "requires", "return", "short", "static", "strictfp", "super",
-                "switch", "synchronized", "this", "throw", "throws", "transient", "try",
-                "void", "volatile", "while", "true", "null", "false", "var", "const", "goto",
-                "class", "Class", "int", "interface").contains(str)) {
+        if (JAVA_KEYWORDS.contains(str)) {
             return str + "_";
         } else {
             return str;
@@ -1255,8 +1402,7 @@ public class AsmUtils {
      * @return the setter method signature
      */
     public static String setterName(EStructuralFeature eStructuralFeature) {
-        return "set" + safeName(
-                eStructuralFeature.getName().substring(0, 1).toUpperCase() + eStructuralFeature.getName().substring(1));
+        return "set" + capitalizedSafeName(eStructuralFeature);
     }
 
     /**
@@ -1266,17 +1412,44 @@ public class AsmUtils {
      * @return the getter method signature
      */
     public static String getterName(EStructuralFeature eStructuralFeature) {
-        if ("boolean".equals(eStructuralFeature.getEType().getInstanceClassName())) {
-            return "is" + safeName(
-                    eStructuralFeature.getName().substring(0, 1).toUpperCase()
-                            + eStructuralFeature.getName().substring(1));
+        if (FeatureNaming.isPrimitiveBoolean(eStructuralFeature)) {
+            return "is" + capitalizedSafeName(eStructuralFeature);
         } else {
-            return "get" + safeName(
-                    eStructuralFeature.getName().substring(0, 1).toUpperCase()
-                            + eStructuralFeature.getName().substring(1));
+            return "get" + capitalizedSafeName(eStructuralFeature);
         }
     }
 
+    private static String capitalizedSafeName(EStructuralFeature eStructuralFeature) {
+        final String name = eStructuralFeature.getName();
+        return safeName(name.substring(0, 1).toUpperCase() + name.substring(1));
+    }
+
+    /**
+     * Get Java naming descriptor (safe name, getter and setter names, type category) of an attribute or reference.
+     * Descriptors of all features are computed on first call, they are computed again when the model is changed.
+     *
+     * @param eStructuralFeature attribute or reference
+     * @return naming descriptor
+     */
+    public FeatureNaming getFeatureNaming(final EStructuralFeature eStructuralFeature) {
+        return getFeatureNamingIndex().get(eStructuralFeature);
+    }
+
+    /**
+     * Get index of Java naming descriptors of all attributes and references of the model. Index is built by the
+     * traversal of the model building the actor type registry, it is rebuilt when the model is changed.
+     *
+     * @return naming descriptor index
+     */
+    public FeatureNaming.Index getFeatureNamingIndex() {
+        final long modificationCount = getAsmUtilsCache().getModificationCount();
+        final FeatureNaming.Index featureNamingIndex = getAsmUtilsCache().getFeatureNamingIndex();
+        if (featureNamingIndex == null || featureNamingIndex.getModificationCount() != modificationCount) {
+            return indexModel(modificationCount).getFeatureNamingIndex();
+        }
+        return featureNamingIndex;
+    }
+
     /**
      * Check if a reference is embedded in a transfer object type.
      *
@@ -1442,10 +1615,16 @@ public class AsmUtils {
     }
 
     public Optional<EPackage> getModel() {
-        if (cache.getModel() == null) {
-            cache.setModel(all(EPackage.class).filter(p -> p.eContainer() == null).findAny());
-        }
-        return cache.getModel();
+        return getModelRoot().getRootPackage();
+    }
+
+    /**
+     * Get root of the model. Root is resolved on first call, it is resolved again when the model is changed.
+     *
+     * @return model root
+     */
+    public ModelRoot getModelRoot() {
+        return getAsmUtilsCache().getModelRoot();
     }
 
     public static Set<String> getAllOperationNames(final EClass clazz) {
@@ -1533,23 +1712,7 @@ public class AsmUtils {
      */
     public void validateUniqueXmiids() {
         log.debug("Xmiid validation started...");
-        final List<String> ids = all()
-                .filter(o -> o instanceof EObject)
-                .map(o -> getId((EObject) o))
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
-        final Set<String> nonUniqueXmiids = ids.stream()
-                .filter(id -> {
-                    log.debug("Checking id: " + id);
-                    return ids.stream().filter(id::equals).count() > 1;
-                })
-                .collect(Collectors.toSet());
-
-        if (nonUniqueXmiids.size() != 0) {
-            final StringBuilder builder = new StringBuilder();
-            nonUniqueXmiids.forEach(id -> builder.append("Xmiid ").append(id).append(" must be unique\n"));
-            throw new IllegalStateException("There are non-unique xmiid-s\n" + builder.toString());
-        }
+        AsmXmiIdValidator.validate(resourceSet.getAllContents()).check();
     }
 
     public enum OperationBehaviour {
@@ -1625,13 +1788,11 @@ public class AsmUtils {
     }
 
     public String getVersion() {
-        EPackage model = getModel().orElseThrow(() -> new IllegalStateException("Could not find model root package"));
-        Optional<EAnnotation> annotation = getExtensionAnnotationByName(model, "ModelVersion", false);
-        if (annotation.isPresent()) {
-            EAnnotation eAnnotation = annotation.get();
-            return eAnnotation.getDetails().get("value");
+        final ModelRoot modelRoot = getModelRoot();
+        if (!modelRoot.getRootPackage().isPresent()) {
+            throw new IllegalStateException("Could not find model root package");
         }
-        return null;
+        return modelRoot.getVersion();
     }
 
     private static String pad(int level, final String message) {
@@ -23,6 +23,8 @@ package hu.blackbelt.judo.meta.asm.runtime;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.google.common.cache.RemovalListener;
+import hu.blackbelt.judo.meta.asm.support.AsmModelChangeTracker;
 import org.eclipse.emf.ecore.*;
 import org.eclipse.emf.ecore.resource.ResourceSet;
 
@@ -32,13 +34,16 @@ import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class AsmUtilsCache {
 
     private final static CacheLoader<ResourceSet, AsmUtilsCache> cacheLoader = new CacheLoader<>() {
         @Override
         public AsmUtilsCache load(ResourceSet resourceSet) {
-            AsmUtilsCache cache = new AsmUtilsCache();
+            // expired caches of other resource sets are evicted, so their change trackers are released
+            cacheProvider.cleanUp();
+            AsmUtilsCache cache = new AsmUtilsCache(resourceSet);
             return cache;
         }
     };
@@ -46,6 +51,7 @@ public class AsmUtilsCache {
     private final static LoadingCache<ResourceSet, AsmUtilsCache> cacheProvider = CacheBuilder
             .newBuilder()
             .expireAfterAccess(Long.parseLong(System.getProperty("AsmUtilsCacheExpiration", "60")), TimeUnit.SECONDS)
+            .removalListener((RemovalListener<ResourceSet, AsmUtilsCache>) notification -> notification.getValue().release())
             .build(cacheLoader);
 
 
@@ -69,12 +75,37 @@ public class AsmUtilsCache {
 
     private final Map<Pair<EModelElement, String>, Optional<EAnnotation>> annotationsByModelElementAndName = new ConcurrentHashMap<>();
 
-    private Optional<EPackage> model;
+    private volatile MappedTransferObjectTypeIndex mappedTransferObjectTypeIndex;
+
+    private volatile OperationExposureIndex operationExposureIndex;
+
+    private volatile ActorTypeRegistry actorTypeRegistry;
+
+    private final ResourceSet resourceSet;
+
+    // acquired when the cache is created, released once when the cache is evicted
+    private final AsmModelChangeTracker changeTracker;
+
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    private volatile ModelRoot modelRoot;
+
+    private volatile FeatureNaming.Index featureNamingIndex;
+
+    private AsmUtilsCache(ResourceSet resourceSet) {
+        this.resourceSet = resourceSet;
+        this.changeTracker = AsmModelChangeTracker.acquire(resourceSet);
+    }
 
     public static AsmUtilsCache getCache(ResourceSet resourceSet) {
         AsmUtilsCache cache = null;
         try {
             cache = cacheProvider.get(resourceSet);
+            while (cache.isReleased()) {
+                // released explicitly, replaced by a new cache
+                cacheProvider.asMap().remove(resourceSet, cache);
+                cache = cacheProvider.get(resourceSet);
+            }
         } catch (ExecutionException e) {
             throw new RuntimeException(e);
         }
@@ -91,6 +122,11 @@ public class AsmUtilsCache {
         entityByMappedTransfer.clear();
         entityAttributeByMappedAttribute.clear();
         entityReferenceByMappedReference.clear();
+        mappedTransferObjectTypeIndex = null;
+        operationExposureIndex = null;
+        actorTypeRegistry = null;
+        modelRoot = null;
+        featureNamingIndex = null;
     }
 
     public Map<String, Optional<EClassifier>> getClassifiersByFqName() {
@@ -133,12 +169,99 @@ public class AsmUtilsCache {
         return annotationsByModelElementAndName;
     }
 
+    public MappedTransferObjectTypeIndex getMappedTransferObjectTypeIndex() {
+        return mappedTransferObjectTypeIndex;
+    }
+
+    public void setMappedTransferObjectTypeIndex(MappedTransferObjectTypeIndex mappedTransferObjectTypeIndex) {
+        this.mappedTransferObjectTypeIndex = mappedTransferObjectTypeIndex;
+    }
+
+    public OperationExposureIndex getOperationExposureIndex() {
+        return operationExposureIndex;
+    }
+
+    public void setOperationExposureIndex(OperationExposureIndex operationExposureIndex) {
+        this.operationExposureIndex = operationExposureIndex;
+    }
+
+    public ActorTypeRegistry getActorTypeRegistry() {
+        return actorTypeRegistry;
+    }
+
+    public void setActorTypeRegistry(ActorTypeRegistry actorTypeRegistry) {
+        this.actorTypeRegistry = actorTypeRegistry;
+    }
+
+    /**
+     * Get modification count of the model (resource set) the cache belongs to.
+     *
+     * @return modification count
+     */
+    public long getModificationCount() {
+        return changeTracker.getModificationCount();
+    }
+
+    /**
+     * Release change tracker of the model and clear the cache. It is called when the cache is evicted, further calls
+     * are ignored. A released cache is not updated by model changes anymore, so it must not be used after release.
+     */
+    public void release() {
+        if (released.compareAndSet(false, true)) {
+            changeTracker.release();
+            clear();
+        }
+    }
+
+    /**
+     * Check if the cache is released.
+     *
+     * @return <code>true</code> if the cache is released (see {@link #release()})
+     */
+    public boolean isReleased() {
+        return released.get();
+    }
+
+    public FeatureNaming.Index getFeatureNamingIndex() {
+        return featureNamingIndex;
+    }
+
+    public void setFeatureNamingIndex(FeatureNaming.Index featureNamingIndex) {
+        this.featureNamingIndex = featureNamingIndex;
+    }
+
+    /**
+     * Get root of the model. Root is resolved on first call, it is resolved again when the model is changed.
+     *
+     * @return model root
+     */
+    public ModelRoot getModelRoot() {
+        final long modificationCount = getModificationCount();
+        ModelRoot modelRoot = this.modelRoot;
+        if (modelRoot == null || modelRoot.getModificationCount() != modificationCount) {
+            modelRoot = ModelRoot.resolve(resourceSet.getResources(), modificationCount);
+            this.modelRoot = modelRoot;
+        }
+        return modelRoot;
+    }
+
+    public void setModelRoot(ModelRoot modelRoot) {
+        this.modelRoot = modelRoot;
+    }
+
     public Optional<EPackage> getModel() {
-        return model;
+        return getModelRoot().getRootPackage();
     }
 
+    /**
+     * Set root package of the model, it is used until the model is changed.
+     *
+     * @param ePackage root package
+     * @deprecated model root is resolved by {@link #getModelRoot()}
+     */
+    @Deprecated
     public void setModel(Optional<EPackage> ePackage) {
-        this.model = ePackage;
+        this.modelRoot = ePackage != null ? ModelRoot.of(ePackage, getModificationCount()) : null;
     }
 
     public static class Pair<T1, T2> {
@@ -0,0 +1,389 @@
+package hu.blackbelt.judo.meta.asm.runtime;
+
+/*-
+ * #%L
+ * Judo :: Asm :: Model
+ * %%
+ * Copyright (C) 2018 - 2022 BlackBelt Technology
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+
+import hu.blackbelt.epsilon.runtime.execution.exceptions.ScriptExecutionException;
+import hu.blackbelt.judo.meta.asm.support.AsmValidationProfiler;
+import org.eclipse.epsilon.common.module.ModuleElement;
+import org.eclipse.epsilon.common.parse.problem.ParseProblem;
+import org.eclipse.epsilon.common.util.UriUtil;
+import org.eclipse.epsilon.emc.emf.InMemoryEmfModel;
+import org.eclipse.epsilon.eol.exceptions.EolRuntimeException;
+import org.eclipse.epsilon.eol.execute.ExecutorFactory;
+import org.eclipse.epsilon.eol.execute.context.IEolContext;
+import org.eclipse.epsilon.eol.execute.context.Variable;
+import org.eclipse.epsilon.eol.execute.control.IExecutionListener;
+import org.eclipse.epsilon.evl.EvlModule;
+import org.eclipse.epsilon.evl.concurrent.EvlModuleParallelElements;
+import org.eclipse.epsilon.evl.dom.Constraint;
+import org.eclipse.epsilon.evl.execute.UnsatisfiedConstraint;
+import org.eclipse.epsilon.evl.execute.context.EvlContext;
+import org.eclipse.epsilon.evl.execute.context.IEvlContext;
+import org.eclipse.epsilon.evl.execute.context.concurrent.EvlContextParallel;
+import org.slf4j.Logger;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+
+/**
+ * Long-lived EVL validator of ASM models.
+ * <p>
+ * The validation script is resolved once and parsed {@link EvlModule}s are pooled, so a module is parsed only when
+ * all of the already parsed modules are in use by concurrent validations. Every validation binds the model in its own
+ * context, the parsed module is returned to the pool after the validation.
+ * <p>
+ * When parallelism is greater than one, constraints are evaluated by {@link EvlModuleParallelElements}, model
+ * elements are distributed between the given number of threads.
+ */
+public class AsmValidatorService {
+
+    private static final Logger log = org.slf4j.LoggerFactory.getLogger(AsmValidatorService.class);
+
+    private static final String MODEL_NAME = "ASM";
+
+    private final URI scriptUri;
+
+    private final int parallelism;
+
+    private final Queue<EvlModule> modules = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Create validator service using the ASM validation scripts (see
+     * {@link AsmEpsilonValidator#calculateAsmValidationScriptURI()}).
+     *
+     * @throws URISyntaxException when script URI cannot be calculated
+     */
+    public AsmValidatorService() throws URISyntaxException {
+        this(AsmEpsilonValidator.calculateAsmValidationScriptURI());
+    }
+
+    /**
+     * Create validator service using <code>asm.evl</code> of the given script root.
+     *
+     * @param scriptRoot root URI of validation scripts
+     * @throws URISyntaxException when script URI cannot be resolved
+     */
+    public AsmValidatorService(final URI scriptRoot) throws URISyntaxException {
+        this(scriptRoot, 1);
+    }
+
+    /**
+     * Create validator service using <code>asm.evl</code> of the given script root.
+     *
+     * @param scriptRoot  root URI of validation scripts
+     * @param parallelism number of threads evaluating constraints, 1 to validate on the calling thread
+     * @throws URISyntaxException when script URI cannot be resolved
+     */
+    public AsmValidatorService(final URI scriptRoot, final int parallelism) throws URISyntaxException {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        }
+        this.scriptUri = UriUtil.resolve("asm.evl", scriptRoot);
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Get URI of the validation script.
+     *
+     * @return script URI
+     */
+    public URI getScriptUri() {
+        return scriptUri;
+    }
+
+    /**
+     * Get number of threads evaluating constraints.
+     *
+     * @return parallelism
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Validate an ASM model.
+     *
+     * @param asmModel ASM model
+     * @return validation result
+     * @throws ScriptExecutionException when script cannot be parsed or executed
+     */
+    public Result validate(final AsmModel asmModel) throws ScriptExecutionException {
+        return validate(asmModel, null);
+    }
+
+    /**
+     * Validate an ASM model recording evaluation time of constraint checks.
+     *
+     * @param asmModel ASM model
+     * @param profiler profiler, <code>null</code> to disable profiling
+     * @return validation result
+     * @throws ScriptExecutionException when script cannot be parsed or executed
+     */
+    public Result validate(final AsmModel asmModel, final AsmValidationProfiler profiler)
+            throws ScriptExecutionException {
+        final EvlModule module = acquire();
+        final IEvlContext context = createContext(profiler != null ? new ProfilingListener(profiler) : null);
+        try {
+            context.getModelRepository().addModel(new InMemoryEmfModel(MODEL_NAME, asmModel.getResource()));
+            context.getFrameStack().putGlobal(
+                    Variable.createReadOnlyVariable("asmUtils", new AsmUtils(asmModel.getResourceSet())));
+            module.setContext(context);
+
+            final Set<UnsatisfiedConstraint> unsatisfiedConstraints;
+            try {
+                unsatisfiedConstraints = module.execute();
+            } catch (EolRuntimeException e) {
+                throw scriptExecutionException("Could not execute " + scriptUri + ": " + e.getMessage(), e);
+            }
+            return new Result(unsatisfiedConstraints);
+        } finally {
+            // model is owned by the caller, it must not be disposed with the context
+            context.getModelRepository().getModels().clear();
+            context.dispose();
+            module.setContext(createContext(null));
+            modules.offer(module);
+        }
+    }
+
+    /**
+     * Discard parsed modules.
+     */
+    public void clear() {
+        modules.clear();
+    }
+
+    private EvlModule acquire() throws ScriptExecutionException {
+        final EvlModule pooled = modules.poll();
+        if (pooled != null) {
+            return pooled;
+        }
+
+        log.debug("Parsing {}", scriptUri);
+        final EvlModule module = parallelism > 1
+                ? new EvlModuleParallelElements(new EvlContextParallel(parallelism))
+                : new EvlModule();
+        try {
+            module.parse(scriptUri);
+        } catch (Exception e) {
+            throw scriptExecutionException("Could not parse " + scriptUri + ": " + e.getMessage(), e);
+        }
+        if (!module.getParseProblems().isEmpty()) {
+            throw new ScriptExecutionException("Could not parse " + scriptUri + ": " + module.getParseProblems()
+                    .stream().map(ParseProblem::toString).collect(Collectors.joining(", ")));
+        }
+        return module;
+    }
+
+    private static ScriptExecutionException scriptExecutionException(final String message, final Throwable cause) {
+        final ScriptExecutionException exception = new ScriptExecutionException(message);
+        exception.initCause(cause);
+        return exception;
+    }
+
+    /**
+     * Execution listener measuring check blocks of constraints. Nested executions are ignored, check block of a
+     * constraint is executed on a single thread.
+     */
+    private static class ProfilingListener implements IExecutionListener {
+        private final AsmValidationProfiler profiler;
+
+        private final ThreadLocal<Deque<Long>> starts = ThreadLocal.withInitial(ArrayDeque::new);
+
+        ProfilingListener(final AsmValidationProfiler profiler) {
+            this.profiler = profiler;
+        }
+
+        @Override
+        public void aboutToExecute(final ModuleElement ast, final IEolContext context) {
+            if (getConstraint(ast) != null) {
+                starts.get().push(System.nanoTime());
+            }
+        }
+
+        @Override
+        public void finishedExecuting(final ModuleElement ast, final Object result, final IEolContext context) {
+            finished(ast, context);
+        }
+
+        @Override
+        public void finishedExecutingWithException(final ModuleElement ast, final EolRuntimeException exception,
+                                                   final IEolContext context) {
+            finished(ast, context);
+        }
+
+        private void finished(final ModuleElement ast, final IEolContext context) {
+            final Constraint constraint = getConstraint(ast);
+            if (constraint != null && !starts.get().isEmpty()) {
+                final long nanos = System.nanoTime() - starts.get().pop();
+                final Variable self = context.getFrameStack().get("self");
+                profiler.record(AsmValidationProfiler.EVL + constraint.getName(),
+                        self != null ? self.getValue() : null, nanos);
+            }
+        }
+
+        private static Constraint getConstraint(final ModuleElement ast) {
+            final ModuleElement block = ast.getParent();
+            if (block != null && block.getParent() instanceof Constraint
+                    && ((Constraint) block.getParent()).getCheckBlock() == block) {
+                return (Constraint) block.getParent();
+            }
+            return null;
+        }
+    }
+
+    private IEvlContext createContext(final IExecutionListener listener) {
+        if (parallelism <= 1) {
+            final IEvlContext context = new EvlContext();
+            if (listener != null) {
+                context.getExecutorFactory().addExecutionListener(listener);
+            }
+            return context;
+        }
+        if (listener == null) {
+            return new EvlContextParallel(parallelism);
+        }
+        // worker threads use their own executor factories, listeners of the main one are not inherited
+        final IEvlContext context = new EvlContextParallel(parallelism) {
+            @Override
+            protected ExecutorFactory createThreadLocalExecutorFactory() {
+                final ExecutorFactory executorFactory = super.createThreadLocalExecutorFactory();
+                executorFactory.addExecutionListener(listener);
+                return executorFactory;
+            }
+        };
+        context.getExecutorFactory().addExecutionListener(listener);
+        return context;
+    }
+
+    /**
+     * Result of an EVL validation.
+     */
+    public static class Result {
+
+        private final List<String> errors = new ArrayList<>();
+
+        private final List<String> warnings = new ArrayList<>();
+
+        Result(final List<String> errors, final List<String> warnings) {
+            this.errors.addAll(errors);
+            this.warnings.addAll(warnings);
+        }
+
+        Result(final Set<UnsatisfiedConstraint> unsatisfiedConstraints) {
+            for (UnsatisfiedConstraint unsatisfiedConstraint : unsatisfiedConstraints) {
+                final String message = unsatisfiedConstraint.getConstraint().getName() + "|"
+                        + unsatisfiedConstraint.getMessage();
+                if (unsatisfiedConstraint.getConstraint().isCritique()) {
+                    warnings.add(message);
+                } else {
+                    errors.add(message);
+                }
+            }
+        }
+
+        /**
+         * Get messages of unsatisfied constraints in <code>constraint name|message</code> format.
+         *
+         * @return error messages
+         */
+        public List<String> getErrors() {
+            return Collections.unmodifiableList(errors);
+        }
+
+        /**
+         * Get messages of unsatisfied critiques in <code>critique name|message</code> format.
+         *
+         * @return warning messages
+         */
+        public List<String> getWarnings() {
+            return Collections.unmodifiableList(warnings);
+        }
+
+        /**
+         * Checks there is no unsatisfied constraint.
+         *
+         * @return true if model is valid
+         */
+        public boolean isValid() {
+            return errors.isEmpty();
+        }
+
+        /**
+         * Check unsatisfied constraints and critiques are the expected ones. Messages are compared in
+         * <code>name|message</code> format, <code>null</code> expectations are not checked.
+         *
+         * @param expectedErrors   expected error messages
+         * @param expectedWarnings expected warning messages
+         * @throws AsmEvlValidationException when there is any unexpected or missing message
+         */
+        public void check(final Collection<String> expectedErrors, final Collection<String> expectedWarnings)
+                throws AsmEvlValidationException {
+            final List<String> unexpectedErrors = new ArrayList<>();
+            final List<String> errorsNotFound = new ArrayList<>();
+            final List<String> unexpectedWarnings = new ArrayList<>();
+            final List<String> warningsNotFound = new ArrayList<>();
+            final StringBuilder problems = new StringBuilder();
+            if (expectedErrors != null) {
+                compare("errors", errors, expectedErrors, unexpectedErrors, errorsNotFound, problems);
+            }
+            if (expectedWarnings != null) {
+                compare("warnings", warnings, expectedWarnings, unexpectedWarnings, warningsNotFound, problems);
+            }
+            if (problems.length() > 0) {
+                throw new AsmEvlValidationException("EVL validation failed" + problems,
+                        unexpectedErrors, errorsNotFound, unexpectedWarnings, warningsNotFound);
+            }
+        }
+
+        private static void compare(final String kind, final List<String> actual, final Collection<String> expected,
+                                    final List<String> unexpected, final List<String> notFound,
+                                    final StringBuilder problems) {
+            unexpected.addAll(actual);
+            for (String message : expected) {
+                if (!unexpected.remove(message)) {
+                    notFound.add(message);
+                }
+            }
+            if (!unexpected.isEmpty()) {
+                problems.append("\n - unexpected ").append(kind).append(": ").append(unexpected);
+            }
+            if (!notFound.isEmpty()) {
+                problems.append("\n - ").append(kind).append(" not found: ").append(notFound);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "Result(errors=" + errors + ", warnings=" + warnings + ")";
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package hu.blackbelt.judo.meta.asm.runtime;
+
+/*-
+ * #%L
+ * Judo :: Asm :: Model
+ * %%
+ * Copyright (C) 2018 - 2022 BlackBelt Technology
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+
+import org.eclipse.emf.common.notify.Notifier;
+import org.eclipse.emf.ecore.EClassifier;
+import org.eclipse.emf.ecore.EDataType;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EStructuralFeature;
+
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import static hu.blackbelt.judo.meta.asm.runtime.AsmUtils.*;
+
+/**
+ * Java naming descriptor of a structural feature (attribute or reference): safe name, getter and setter method names
+ * and category of Java type.
+ * <p>
+ * Descriptors of a model are computed in bulk when the model is indexed (by the traversal building the
+ * {@link ActorTypeRegistry}) and cached by {@link AsmUtils#getFeatureNaming(EStructuralFeature)},
+ * names are the same as returned by {@link AsmUtils#safeName(String)}, {@link AsmUtils#getterName(EStructuralFeature)}
+ * and {@link AsmUtils#setterName(EStructuralFeature)}.
+ */
+public final class FeatureNaming {
+
+    /**
+     * Category of Java type of a structural feature.
+     */
+    public enum JavaTypeCategory {
+        REFERENCE,
+        ENUMERATION,
+        BOOLEAN,
+        INTEGER,
+        DECIMAL,
+        STRING,
+        TEXT,
+        BYTE_ARRAY,
+        DATE,
+        TIMESTAMP,
+        TIME,
+        OTHER;
+
+        /**
+         * Get category of Java type of a structural feature.
+         *
+         * @param eStructuralFeature attribute or reference
+         * @return Java type category
+         */
+        public static JavaTypeCategory of(final EStructuralFeature eStructuralFeature) {
+            if (eStructuralFeature instanceof EReference) {
+                return REFERENCE;
+            }
+            final EClassifier eType = eStructuralFeature.getEType();
+            if (!(eType instanceof EDataType)) {
+                return OTHER;
+            }
+            final EDataType eDataType = (EDataType) eType;
+            if (isEnumeration(eDataType)) {
+                return ENUMERATION;
+            } else if (isBoolean(eDataType)) {
+                return BOOLEAN;
+            } else if (isInteger(eDataType)) {
+                return INTEGER;
+            } else if (isDecimal(eDataType)) {
+                return DECIMAL;
+            } else if (isString(eDataType)) {
+                return STRING;
+            } else if (isText(eDataType)) {
+                return TEXT;
+            } else if (isByteArray(eDataType)) {
+                return BYTE_ARRAY;
+            } else if (isDate(eDataType)) {
+                return DATE;
+            } else if (isTimestamp(eDataType)) {
+                return TIMESTAMP;
+            } else if (isTime(eDataType)) {
+                return TIME;
+            } else {
+                return OTHER;
+            }
+        }
+    }
+
+    private final EStructuralFeature feature;
+
+    private final String safeName;
+
+    private final String getterName;
+
+    private final String setterName;
+
+    private final JavaTypeCategory javaTypeCategory;
+
+    private FeatureNaming(final EStructuralFeature feature) {
+        this.feature = feature;
+
+        final String name = feature.getName();
+        final String capitalizedName = safeName(name.substring(0, 1).toUpperCase() + name.substring(1));
+        this.safeName = safeName(name);
+        this.getterName = (isPrimitiveBoolean(feature) ? "is" : "get") + capitalizedName;
+        this.setterName = "set" + capitalizedName;
+        this.javaTypeCategory = JavaTypeCategory.of(feature);
+    }
+
+    /**
+     * Create naming descriptor of a structural feature.
+     *
+     * @param eStructuralFeature attribute or reference
+     * @return naming descriptor
+     */
+    public static FeatureNaming of(final EStructuralFeature eStructuralFeature) {
+        return new FeatureNaming(eStructuralFeature);
+    }
+
+    static boolean isPrimitiveBoolean(final EStructuralFeature eStructuralFeature) {
+        return "boolean".equals(eStructuralFeature.getEType().getInstanceClassName());
+    }
+
+    public EStructuralFeature getFeature() {
+        return feature;
+    }
+
+    public String getSafeName() {
+        return safeName;
+    }
+
+    public String getGetterName() {
+        return getterName;
+    }
+
+    public String getSetterName() {
+        return setterName;
+    }
+
+    public JavaTypeCategory getJavaTypeCategory() {
+        return javaTypeCategory;
+    }
+
+    @Override
+    public String toString() {
+        return "FeatureNaming(" + feature.getName() + ", getter=" + getterName + ", setter=" + setterName
+                + ", category=" + javaTypeCategory + ")";
+    }
+
+    /**
+     * Naming descriptors of all structural features of a model. The index is bound to the modification count of the
+     * model it was built at.
+     */
+    public static final class Index {
+
+        private final long modificationCount;
+
+        private final Map<EStructuralFeature, FeatureNaming> featureNamings;
+
+        private Index(final long modificationCount, final Map<EStructuralFeature, FeatureNaming> featureNamings) {
+            this.modificationCount = modificationCount;
+            this.featureNamings = featureNamings;
+        }
+
+        /**
+         * Build index of naming descriptors from model contents.
+         *
+         * @param contents          all contents of the model
+         * @param modificationCount modification count of the model
+         * @return index of naming descriptors
+         */
+        static Index build(final Iterator<? extends Notifier> contents, final long modificationCount) {
+            final Builder builder = new Builder();
+            contents.forEachRemaining(builder::add);
+            return builder.build(modificationCount);
+        }
+
+        public long getModificationCount() {
+            return modificationCount;
+        }
+
+        /**
+         * Get naming descriptor of a structural feature. Descriptor of features that are not part of the model is
+         * created (but not cached).
+         *
+         * @param eStructuralFeature attribute or reference
+         * @return naming descriptor
+         */
+        public FeatureNaming get(final EStructuralFeature eStructuralFeature) {
+            final FeatureNaming featureNaming = featureNamings.get(eStructuralFeature);
+            return featureNaming != null ? featureNaming : new FeatureNaming(eStructuralFeature);
+        }
+
+        public int size() {
+            return featureNamings.size();
+        }
+
+        /**
+         * Builder of index collecting structural features from model contents, so the index can be built by a
+         * traversal shared with other indexes of the model.
+         */
+        static class Builder {
+
+            private final Map<EStructuralFeature, FeatureNaming> featureNamings = new IdentityHashMap<>();
+
+            void add(final Notifier notifier) {
+                if (notifier instanceof EStructuralFeature) {
+                    featureNamings.put((EStructuralFeature) notifier, new FeatureNaming((EStructuralFeature) notifier));
+                }
+            }
+
+            Index build(final long modificationCount) {
+                return new Index(modificationCount, featureNamings);
+            }
+        }
+    }
+}
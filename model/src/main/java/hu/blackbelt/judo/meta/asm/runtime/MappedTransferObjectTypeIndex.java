@@ -0,0 +1,68 @@
+package hu.blackbelt.judo.meta.asm.runtime;
+
+/*-
+ * #%L
+ * Judo :: Asm :: Model
+ * %%
+ * Copyright (C) 2018 - 2022 BlackBelt Technology
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+
+import org.eclipse.emf.common.util.ECollections;
+import org.eclipse.emf.common.util.EList;
+import org.eclipse.emf.ecore.EClass;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reverse index of mapped transfer object types by their mapped entity types.
+ * <p>
+ * The index is immutable, it is bound to the modification count of the model it was built at, so
+ * {@link AsmUtils#getMappedTransferObjectTypes(EClass)} can rebuild it when the model is changed.
+ */
+public class MappedTransferObjectTypeIndex {
+
+    private final long modificationCount;
+
+    private final Map<EClass, EList<EClass>> mappedTransferObjectTypesByEntity = new HashMap<>();
+
+    MappedTransferObjectTypeIndex(final long modificationCount, final Map<EClass, EList<EClass>> mappedTransferObjectTypesByEntity) {
+        this.modificationCount = modificationCount;
+        mappedTransferObjectTypesByEntity.forEach((entityType, transferObjectTypes) ->
+                this.mappedTransferObjectTypesByEntity.put(entityType, ECollections.unmodifiableEList(transferObjectTypes)));
+    }
+
+    /**
+     * Get modification count of the model the index was built at.
+     *
+     * @return modification count
+     */
+    public long getModificationCount() {
+        return modificationCount;
+    }
+
+    /**
+     * Get mapped transfer object types of an entity type.
+     *
+     * @param entityType entity type
+     * @return unmodifiable list of mapped transfer object types (empty list if entity type is not mapped by any
+     * transfer object type)
+     */
+    public EList<EClass> getMappedTransferObjectTypes(final EClass entityType) {
+        return mappedTransferObjectTypesByEntity.getOrDefault(entityType, ECollections.emptyEList());
+    }
+}
@@ -0,0 +1,161 @@
+package hu.blackbelt.judo.meta.asm.runtime;
+
+/*-
+ * #%L
+ * Judo :: Asm :: Model
+ * %%
+ * Copyright (C) 2018 - 2022 BlackBelt Technology
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+
+import org.eclipse.emf.common.util.EList;
+import org.eclipse.emf.ecore.EAnnotation;
+import org.eclipse.emf.ecore.EClassifier;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.resource.Resource;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static hu.blackbelt.judo.meta.asm.runtime.AsmUtils.getAnnotationUri;
+import static hu.blackbelt.judo.meta.asm.runtime.AsmUtils.getClassifierFQName;
+
+/**
+ * Root package of an ASM model with its name and version.
+ * <p>
+ * The root is resolved from the resource roots of the model (without traversing the whole model), fields are final so
+ * instances can be shared between threads via {@link AsmUtilsCache}. Relative fully qualified names of classifiers are
+ * memoized by the root they are relative to. Instances are bound to the modification count of the model they were
+ * resolved at, {@link AsmUtils#getModelRoot()} resolves a new one when the model is changed.
+ */
+public final class ModelRoot {
+
+    private static final String MODEL_VERSION_ANNOTATION_URI = getAnnotationUri("ModelVersion");
+
+    private final long modificationCount;
+
+    private final Optional<EPackage> rootPackage;
+
+    private final String name;
+
+    private final String version;
+
+    private final Map<EClassifier, String> relativeFqNames = new ConcurrentHashMap<>();
+
+    private ModelRoot(final long modificationCount, final Optional<EPackage> rootPackage) {
+        this.modificationCount = modificationCount;
+        this.rootPackage = rootPackage;
+        this.name = rootPackage.map(EPackage::getName).orElse(null);
+        this.version = rootPackage.map(ModelRoot::getModelVersion).orElse(null);
+    }
+
+    /**
+     * Resolve model root of resources.
+     *
+     * @param resources         resources of the model
+     * @param modificationCount modification count of the model
+     * @return model root
+     */
+    static ModelRoot resolve(final EList<Resource> resources, final long modificationCount) {
+        for (int i = 0; i < resources.size(); i++) {
+            for (EObject root : resources.get(i).getContents()) {
+                if (root instanceof EPackage) {
+                    return new ModelRoot(modificationCount, Optional.of((EPackage) root));
+                }
+            }
+        }
+        return new ModelRoot(modificationCount, Optional.empty());
+    }
+
+    /**
+     * Create model root of a root package.
+     *
+     * @param rootPackage       root package (or empty if model has no package)
+     * @param modificationCount modification count of the model
+     * @return model root
+     */
+    static ModelRoot of(final Optional<EPackage> rootPackage, final long modificationCount) {
+        return new ModelRoot(modificationCount, rootPackage);
+    }
+
+    private static String getModelVersion(final EPackage ePackage) {
+        for (EAnnotation annotation : ePackage.getEAnnotations()) {
+            if (MODEL_VERSION_ANNOTATION_URI.equals(annotation.getSource())) {
+                return annotation.getDetails().get("value");
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get modification count of the model the root was resolved at.
+     *
+     * @return modification count
+     */
+    public long getModificationCount() {
+        return modificationCount;
+    }
+
+    /**
+     * Get root package of the model.
+     *
+     * @return root package (or empty if model has no package)
+     */
+    public Optional<EPackage> getRootPackage() {
+        return rootPackage;
+    }
+
+    /**
+     * Get name of the model (name of the root package).
+     *
+     * @return model name (or <code>null</code> if model has no package)
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get version of the model defined by <i>ModelVersion</i> annotation of the root package.
+     *
+     * @return model version (or <code>null</code> if it is not defined)
+     */
+    public String getVersion() {
+        return version;
+    }
+
+    /**
+     * Get fully qualified name of a classifier without model name.
+     *
+     * @param eClassifier classifier
+     * @return fully qualified name without model name
+     */
+    public String getRelativeFQName(final EClassifier eClassifier) {
+        final String relativeFqName = relativeFqNames.get(eClassifier);
+        if (relativeFqName != null) {
+            return relativeFqName;
+        }
+        final String modelName = rootPackage.get().getName();
+        final String entityFQName = getClassifierFQName(eClassifier);
+        if (!entityFQName.startsWith(modelName)) {
+            throw new IllegalArgumentException("The classifier name does not start with model name - " + entityFQName);
+        }
+        final String entityTypeName = entityFQName.substring(modelName.length() + 1);
+        relativeFqNames.put(eClassifier, entityTypeName);
+        return entityTypeName;
+    }
+}
@@ -0,0 +1,158 @@
+package hu.blackbelt.judo.meta.asm.runtime;
+
+/*-
+ * #%L
+ * Judo :: Asm :: Model
+ * %%
+ * Copyright (C) 2018 - 2022 BlackBelt Technology
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+
+import org.eclipse.emf.common.util.ECollections;
+import org.eclipse.emf.common.util.EList;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EOperation;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Index of actor types exposing operations.
+ * <p>
+ * Operations are identified by dense IDs and actor types by ordinals, actor types exposing an operation are stored
+ * as bit set of actor ordinals (defined by {@link ActorTypeRegistry}). The index is immutable, it is built once per
+ * model (and rebuilt when actor type registry is rebuilt) by {@link AsmUtils#getOperationExposureIndex()}.
+ */
+public class OperationExposureIndex {
+
+    private final ActorTypeRegistry actorTypeRegistry;
+
+    private final Map<EOperation, Integer> operationIds = new HashMap<>();
+
+    private final BitSet[] exposures;
+
+    private final EList<EClass>[] actorTypesOfOperations;
+
+    @SuppressWarnings("unchecked")
+    OperationExposureIndex(final ActorTypeRegistry actorTypeRegistry, final List<EOperation> operations,
+                           final Function<EOperation, EList<EClass>> exposedBy) {
+        this.actorTypeRegistry = actorTypeRegistry;
+
+        exposures = new BitSet[operations.size()];
+        actorTypesOfOperations = new EList[operations.size()];
+        for (int id = 0; id < operations.size(); id++) {
+            final EOperation operation = operations.get(id);
+            operationIds.put(operation, id);
+
+            // actor types are kept in order of exposedBy annotations, list of the function is owned by the index
+            final EList<EClass> actorTypesOfOperation = exposedBy.apply(operation);
+            final BitSet exposure = new BitSet(actorTypeRegistry.size());
+            actorTypesOfOperation.stream()
+                    .mapToInt(actorTypeRegistry::getOrdinal)
+                    .filter(ordinal -> ordinal >= 0)
+                    .forEach(exposure::set);
+            exposures[id] = exposure;
+            actorTypesOfOperations[id] = ECollections.unmodifiableEList(actorTypesOfOperation);
+        }
+    }
+
+    /**
+     * Get actor type registry the index is built on.
+     *
+     * @return actor type registry
+     */
+    public ActorTypeRegistry getActorTypeRegistry() {
+        return actorTypeRegistry;
+    }
+
+    /**
+     * Get dense ID of an operation.
+     *
+     * @param eOperation operation
+     * @return operation ID (or -1 if operation is not indexed)
+     */
+    public int getOperationId(final EOperation eOperation) {
+        final Integer id = operationIds.get(eOperation);
+        return id != null ? id : -1;
+    }
+
+    /**
+     * Get ordinal of an actor type.
+     *
+     * @param actorType actor type
+     * @return actor ordinal (or -1 if class is not an actor type)
+     */
+    public int getActorOrdinal(final EClass actorType) {
+        return actorTypeRegistry.getOrdinal(actorType);
+    }
+
+    /**
+     * Get actor type by ordinal.
+     *
+     * @param ordinal actor ordinal
+     * @return actor type
+     */
+    public EClass getActorType(final int ordinal) {
+        return actorTypeRegistry.getSummary(ordinal).getActorType();
+    }
+
+    /**
+     * Check if an operation is indexed.
+     *
+     * @param eOperation operation
+     * @return <code>true</code> if operation is indexed, <code>false</code> otherwise
+     */
+    public boolean contains(final EOperation eOperation) {
+        return operationIds.containsKey(eOperation);
+    }
+
+    /**
+     * Get list of actor types exposing an operation.
+     *
+     * @param eOperation operation
+     * @return unmodifiable list of actor types in order of exposedBy annotations (empty list if operation is not
+     * indexed)
+     */
+    public EList<EClass> getActorTypesOfOperation(final EOperation eOperation) {
+        final int id = getOperationId(eOperation);
+        return id >= 0 ? actorTypesOfOperations[id] : ECollections.emptyEList();
+    }
+
+    /**
+     * Check if an operation is exposed by a given actor type.
+     *
+     * @param eOperation operation
+     * @param actorType  actor type
+     * @return <code>true</code> if operation is exposed by actor type, <code>false</code> otherwise
+     */
+    public boolean isOperationExposedTo(final EOperation eOperation, final EClass actorType) {
+        return isOperationExposedTo(getOperationId(eOperation), getActorOrdinal(actorType));
+    }
+
+    /**
+     * Check if an operation is exposed by a given actor type.
+     *
+     * @param operationId  operation ID
+     * @param actorOrdinal actor ordinal
+     * @return <code>true</code> if operation is exposed by actor type, <code>false</code> otherwise
+     */
+    public boolean isOperationExposedTo(final int operationId, final int actorOrdinal) {
+        return operationId >= 0 && operationId < exposures.length && actorOrdinal >= 0 && exposures[operationId].get(actorOrdinal);
+    }
+}
@@ -0,0 +1,188 @@
+package hu.blackbelt.judo.meta.asm.support;
+
+/*-
+ * #%L
+ * Judo :: Asm :: Model
+ * %%
+ * Copyright (C) 2018 - 2022 BlackBelt Technology
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.BinaryResourceImpl;
+import org.eclipse.emf.ecore.xmi.XMLResource;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary serialization of Asm models based on EMF's {@link BinaryResourceImpl} streams.
+ * <p>
+ * Resources created by {@link AsmModelResourceSupport#getAsmFactory()} are serialized in binary format when their
+ * {@link URI} has the {@link #FILE_EXTENSION} extension or the {@link #OPTION_BINARY} load / save option is set.
+ * xmiid-s of the elements are stored after the contents, so references by id from other resources and XMI
+ * serialization of a converted model remain the same.
+ */
+public class AsmBinaryFormat {
+
+    /**
+     * File extension of Asm models in binary format.
+     */
+    public static final String FILE_EXTENSION = "asmb";
+
+    /**
+     * Load / save option to use binary format regardless of the resource's {@link URI}.
+     */
+    public static final String OPTION_BINARY = "ASM_BINARY";
+
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * Checks the given resource is serialized in binary format.
+     *
+     * @param uri     URI of the resource
+     * @param options load / save options
+     * @return true if binary format is used
+     */
+    public static boolean isBinary(final URI uri, final Map<?, ?> options) {
+        if (options != null && options.containsKey(OPTION_BINARY)) {
+            return Boolean.TRUE.equals(options.get(OPTION_BINARY));
+        }
+        return isBinary(uri);
+    }
+
+    /**
+     * Checks the given URI has the {@link #FILE_EXTENSION} extension, optionally followed by the extension of an
+     * {@link AsmCompression}.
+     *
+     * @param uri URI of a resource
+     * @return true if binary format is used
+     */
+    public static boolean isBinary(final URI uri) {
+        return uri != null && FILE_EXTENSION.equals(AsmCompression.trimFileExtension(uri).fileExtension());
+    }
+
+    /**
+     * Checks the given file has the {@link #FILE_EXTENSION} extension, optionally followed by the extension of an
+     * {@link AsmCompression}.
+     *
+     * @param file model file
+     * @return true if binary format is used
+     */
+    public static boolean isBinary(final File file) {
+        if (file == null) {
+            return false;
+        }
+        final AsmCompression compression = AsmCompression.of(file);
+        return file.getName().endsWith("." + FILE_EXTENSION
+                + (compression != AsmCompression.NONE ? "." + compression.getFileExtension() : ""));
+    }
+
+    /**
+     * Write contents and xmiid-s of a resource in binary format.
+     *
+     * @param resource     resource to save
+     * @param outputStream target stream
+     * @param options      save options
+     * @throws IOException when contents cannot be written
+     */
+    public static void save(final XMLResource resource, final OutputStream outputStream, final Map<?, ?> options)
+            throws IOException {
+        final BinaryResourceImpl.EObjectOutputStream eObjectOutputStream =
+                new BinaryResourceImpl.EObjectOutputStream(outputStream, getBinaryOptions(options));
+        eObjectOutputStream.saveResource(resource);
+
+        final List<String> ids = new ArrayList<>();
+        for (TreeIterator<EObject> iterator = resource.getAllContents(); iterator.hasNext(); ) {
+            ids.add(resource.getID(iterator.next()));
+        }
+        eObjectOutputStream.writeCompressedInt(ids.size());
+        for (String id : ids) {
+            eObjectOutputStream.writeString(id);
+        }
+        eObjectOutputStream.flush();
+    }
+
+    /**
+     * Read contents and xmiid-s of a resource in binary format.
+     *
+     * @param resource    resource to load
+     * @param inputStream source stream
+     * @param options     load options
+     * @throws IOException when contents cannot be read
+     */
+    public static void load(final XMLResource resource, final InputStream inputStream, final Map<?, ?> options)
+            throws IOException {
+        final BinaryResourceImpl.EObjectInputStream eObjectInputStream =
+                new BinaryResourceImpl.EObjectInputStream(inputStream, getBinaryOptions(options));
+        eObjectInputStream.loadResource(resource);
+
+        final int count = eObjectInputStream.readCompressedInt();
+        final TreeIterator<EObject> iterator = resource.getAllContents();
+        for (int i = 0; i < count; i++) {
+            if (!iterator.hasNext()) {
+                throw new IOException("Invalid binary Asm model, xmiid-s do not match contents: " + resource.getURI());
+            }
+            resource.setID(iterator.next(), eObjectInputStream.readString());
+        }
+        if (iterator.hasNext()) {
+            throw new IOException("Invalid binary Asm model, xmiid-s do not match contents: " + resource.getURI());
+        }
+    }
+
+    private static Map<?, ?> getBinaryOptions(final Map<?, ?> options) {
+        if (options != null && options.containsKey(BinaryResourceImpl.OPTION_INTERNAL_BUFFER_CAPACITY)) {
+            return options;
+        }
+        // without internal buffer the streams are read / written byte by byte
+        final Map<Object, Object> binaryOptions = options != null ? new HashMap<>(options) : new HashMap<>();
+        binaryOptions.put(BinaryResourceImpl.OPTION_INTERNAL_BUFFER_CAPACITY, BUFFER_SIZE);
+        return binaryOptions;
+    }
+
+    /**
+     * Convert model file between XMI and binary format. Format of the files are selected by their extension (see
+     * {@link #FILE_EXTENSION}), relative references to other resources are resolved against the target file.
+     *
+     * @param source source model file
+     * @param target target model file
+     * @throws IOException when source cannot be read or target cannot be written
+     */
+    public static void convert(final File source, final File target) throws IOException {
+        final URI targetUri = URI.createFileURI(target.getAbsolutePath());
+        final ResourceSet resourceSet = AsmModelResourceSupport.createAsmResourceSet();
+        final Resource resource = resourceSet.createResource(URI.createFileURI(source.getAbsolutePath()));
+
+        final Map<Object, Object> loadOptions = new HashMap<>(AsmModelResourceSupport.getAsmModelDefaultLoadOptions());
+        loadOptions.put(OPTION_BINARY, isBinary(source));
+        resource.load(loadOptions);
+
+        resource.setURI(targetUri);
+        final Map<Object, Object> saveOptions = new HashMap<>(AsmModelResourceSupport.getAsmModelDefaultSaveOptions());
+        saveOptions.put(OPTION_BINARY, isBinary(target));
+        resource.save(saveOptions);
+    }
+}
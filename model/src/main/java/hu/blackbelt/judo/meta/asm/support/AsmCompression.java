@@ -0,0 +1,300 @@
+package hu.blackbelt.judo.meta.asm.support;
+
+/*-
+ * #%L
+ * Judo :: Asm :: Model
+ * %%
+ * Copyright (C) 2018 - 2022 BlackBelt Technology
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+
+import org.eclipse.emf.common.util.URI;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Compression of serialized Asm models.
+ * <p>
+ * Resources created by {@link AsmModelResourceSupport#getAsmFactory()} are compressed on save when the
+ * {@link #OPTION_COMPRESSION} save option is set or their {@link URI} has the file extension of a compression.
+ * On load the compression is selected by the {@link #OPTION_COMPRESSION} load option, the file extension or the
+ * magic bytes of the content. Content is compressed and decompressed while it is streamed, the model is never
+ * buffered in memory.
+ */
+public enum AsmCompression {
+
+    /**
+     * Uncompressed content.
+     */
+    NONE(null, new byte[0]) {
+        @Override
+        public InputStream decompress(final InputStream inputStream, final URI uri) {
+            return inputStream;
+        }
+
+        @Override
+        public OutputStream compress(final OutputStream outputStream, final URI uri) {
+            return outputStream;
+        }
+
+        @Override
+        public void finish(final OutputStream compressedOutputStream) throws IOException {
+            compressedOutputStream.flush();
+        }
+    },
+
+    /**
+     * gzip compressed content.
+     */
+    GZIP("gz", new byte[] {(byte) 0x1f, (byte) 0x8b}) {
+        @Override
+        public InputStream decompress(final InputStream inputStream, final URI uri) throws IOException {
+            return new GZIPInputStream(inputStream, BUFFER_SIZE);
+        }
+
+        @Override
+        public OutputStream compress(final OutputStream outputStream, final URI uri) throws IOException {
+            return new GZIPOutputStream(outputStream, BUFFER_SIZE);
+        }
+
+        @Override
+        public void finish(final OutputStream compressedOutputStream) throws IOException {
+            ((GZIPOutputStream) compressedOutputStream).finish();
+        }
+    },
+
+    /**
+     * Content compressed as the first entry of a ZIP archive, compatible with {@code XMLResource.OPTION_ZIP}.
+     */
+    ZIP("zip", new byte[] {'P', 'K', 3, 4}) {
+        @Override
+        public InputStream decompress(final InputStream inputStream, final URI uri) throws IOException {
+            final ZipInputStream zipInputStream = new ZipInputStream(inputStream);
+            if (zipInputStream.getNextEntry() == null) {
+                throw new IOException("Empty ZIP archive: " + uri);
+            }
+            return zipInputStream;
+        }
+
+        @Override
+        public OutputStream compress(final OutputStream outputStream, final URI uri) throws IOException {
+            final ZipOutputStream zipOutputStream = new ZipOutputStream(outputStream);
+            zipOutputStream.putNextEntry(new ZipEntry(getEntryName(uri)));
+            return zipOutputStream;
+        }
+
+        @Override
+        public void finish(final OutputStream compressedOutputStream) throws IOException {
+            ((ZipOutputStream) compressedOutputStream).closeEntry();
+            ((ZipOutputStream) compressedOutputStream).finish();
+        }
+    };
+
+    /**
+     * Load / save option to select the {@link AsmCompression} regardless of the resource's {@link URI}.
+     */
+    public static final String OPTION_COMPRESSION = "ASM_COMPRESSION";
+
+    private static final int BUFFER_SIZE = 65536;
+
+    private static final String DEFAULT_ENTRY_NAME = "ResourceContents";
+
+    private final String fileExtension;
+
+    private final byte[] magic;
+
+    AsmCompression(final String fileExtension, final byte[] magic) {
+        this.fileExtension = fileExtension;
+        this.magic = magic;
+    }
+
+    /**
+     * Get file extension of the compression.
+     *
+     * @return file extension, null for {@link #NONE}
+     */
+    public String getFileExtension() {
+        return fileExtension;
+    }
+
+    /**
+     * Wrap the given stream to decompress its content.
+     *
+     * @param inputStream compressed stream
+     * @param uri         URI of the resource
+     * @return decompressed stream
+     * @throws IOException when stream cannot be read
+     */
+    public abstract InputStream decompress(InputStream inputStream, URI uri) throws IOException;
+
+    /**
+     * Wrap the given stream to compress content written to it. Compressed stream has to be finished by
+     * {@link #finish(OutputStream)}.
+     *
+     * @param outputStream target stream
+     * @param uri          URI of the resource
+     * @return compressing stream
+     * @throws IOException when stream cannot be written
+     */
+    public abstract OutputStream compress(OutputStream outputStream, URI uri) throws IOException;
+
+    /**
+     * Write remaining compressed data of a stream returned by {@link #compress(OutputStream, URI)} without closing
+     * the target stream.
+     *
+     * @param compressedOutputStream compressing stream
+     * @throws IOException when stream cannot be written
+     */
+    public abstract void finish(OutputStream compressedOutputStream) throws IOException;
+
+    /**
+     * Get compression defined by the {@link #OPTION_COMPRESSION} option or the file extension of the URI.
+     *
+     * @param uri     URI of the resource
+     * @param options load / save options
+     * @return compression
+     */
+    public static AsmCompression of(final URI uri, final Map<?, ?> options) {
+        if (options != null && options.get(OPTION_COMPRESSION) instanceof AsmCompression) {
+            return (AsmCompression) options.get(OPTION_COMPRESSION);
+        }
+        return of(uri);
+    }
+
+    /**
+     * Get compression by the file extension of the URI.
+     *
+     * @param uri URI of a resource
+     * @return compression, {@link #NONE} if the extension is not the extension of any compression
+     */
+    public static AsmCompression of(final URI uri) {
+        return uri != null ? ofFileExtension(uri.fileExtension()) : NONE;
+    }
+
+    /**
+     * Get compression by the file extension of the file.
+     *
+     * @param file model file
+     * @return compression, {@link #NONE} if the extension is not the extension of any compression
+     */
+    public static AsmCompression of(final File file) {
+        if (file == null || file.getName().lastIndexOf('.') < 0) {
+            return NONE;
+        }
+        return ofFileExtension(file.getName().substring(file.getName().lastIndexOf('.') + 1));
+    }
+
+    private static AsmCompression ofFileExtension(final String fileExtension) {
+        for (AsmCompression compression : values()) {
+            if (compression.fileExtension != null && compression.fileExtension.equalsIgnoreCase(fileExtension)) {
+                return compression;
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Detect compression of a stream by its magic bytes. Bytes read to detect are pushed back, so the returned
+     * stream has to be used instead of the given one.
+     *
+     * @param inputStream stream to detect
+     * @return pushback stream of the content
+     * @throws IOException when stream cannot be read
+     */
+    public static PushbackInputStream detectable(final InputStream inputStream) throws IOException {
+        return inputStream instanceof PushbackInputStream
+                ? (PushbackInputStream) inputStream
+                : new PushbackInputStream(inputStream, ZIP.magic.length);
+    }
+
+    /**
+     * Detect compression of the stream returned by {@link #detectable(InputStream)}.
+     *
+     * @param inputStream pushback stream
+     * @return detected compression, {@link #NONE} if content is not compressed
+     * @throws IOException when stream cannot be read
+     */
+    public static AsmCompression detect(final PushbackInputStream inputStream) throws IOException {
+        final byte[] head = new byte[ZIP.magic.length];
+        int read = 0;
+        int count;
+        while (read < head.length && (count = inputStream.read(head, read, head.length - read)) > 0) {
+            read += count;
+        }
+        if (read > 0) {
+            inputStream.unread(head, 0, read);
+        }
+        for (AsmCompression compression : values()) {
+            if (compression.magic.length > 0 && compression.magic.length <= read) {
+                boolean matches = true;
+                for (int i = 0; i < compression.magic.length && matches; i++) {
+                    matches = compression.magic[i] == head[i];
+                }
+                if (matches) {
+                    return compression;
+                }
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Decompress the content of a resource. Compression is selected by {@link #of(URI, Map)}; when it is not
+     * defined by the options or the file extension, it is detected by the magic bytes of the content.
+     *
+     * @param inputStream content of the resource
+     * @param uri         URI of the resource
+     * @param options     load options
+     * @return decompressed content
+     * @throws IOException when content cannot be read
+     */
+    public static InputStream decompressed(final InputStream inputStream, final URI uri, final Map<?, ?> options)
+            throws IOException {
+        final AsmCompression compression = of(uri, options);
+        if (compression != NONE || options != null && options.get(OPTION_COMPRESSION) == NONE) {
+            return compression.decompress(inputStream, uri);
+        }
+        final PushbackInputStream pushbackInputStream = detectable(inputStream);
+        return detect(pushbackInputStream).decompress(pushbackInputStream, uri);
+    }
+
+    /**
+     * Get URI of the uncompressed content, file extension of the compression is removed.
+     *
+     * @param uri URI of a resource
+     * @return URI without compression file extension
+     */
+    public static URI trimFileExtension(final URI uri) {
+        return uri != null && of(uri) != NONE ? uri.trimFileExtension() : uri;
+    }
+
+    private static String getEntryName(final URI uri) {
+        final URI contentUri = trimFileExtension(uri);
+        return contentUri != null && contentUri.lastSegment() != null && !contentUri.lastSegment().isEmpty()
+                ? contentUri.lastSegment()
+                : DEFAULT_ENTRY_NAME;
+    }
+}
@@ -0,0 +1,169 @@
+package hu.blackbelt.judo.meta.asm.support;
+
+/*-
+ * #%L
+ * Judo :: Asm :: Model
+ * %%
+ * Copyright (C) 2018 - 2022 BlackBelt Technology
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+
+import org.eclipse.emf.common.util.Diagnostic;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Diagnostic of structural validation with a structured key.
+ * <p>
+ * The key (source, code and URI of the element) identifies the diagnostic without creating the string representation
+ * of the diagnostic and its data (as {@link Diagnostic#toString()} does).
+ */
+public class AsmDiagnostic {
+
+    private final Diagnostic diagnostic;
+
+    private volatile Key key;
+
+    public AsmDiagnostic(final Diagnostic diagnostic) {
+        this.diagnostic = diagnostic;
+    }
+
+    /**
+     * Get the wrapped EMF diagnostic.
+     *
+     * @return diagnostic
+     */
+    public Diagnostic getDiagnostic() {
+        return diagnostic;
+    }
+
+    public int getSeverity() {
+        return diagnostic.getSeverity();
+    }
+
+    public String getSource() {
+        return diagnostic.getSource();
+    }
+
+    public int getCode() {
+        return diagnostic.getCode();
+    }
+
+    public String getMessage() {
+        return diagnostic.getMessage();
+    }
+
+    /**
+     * Get the element the diagnostic is reported on (first data of the diagnostic).
+     *
+     * @return element (or empty if diagnostic is not reported on an element)
+     */
+    public Optional<EObject> getElement() {
+        if (!diagnostic.getData().isEmpty() && diagnostic.getData().get(0) instanceof EObject) {
+            return Optional.of((EObject) diagnostic.getData().get(0));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Get structured key of the diagnostic. Key is created on first call.
+     *
+     * @return diagnostic key
+     */
+    public Key getKey() {
+        Key result = key;
+        if (result == null) {
+            result = new Key(diagnostic.getSource(), diagnostic.getCode(), getElement().map(EcoreUtil::getURI).orElse(null));
+            key = result;
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        final String severity;
+        switch (diagnostic.getSeverity()) {
+            case Diagnostic.ERROR:
+                severity = "ERROR";
+                break;
+            case Diagnostic.WARNING:
+                severity = "WARNING";
+                break;
+            case Diagnostic.INFO:
+                severity = "INFO";
+                break;
+            default:
+                severity = "OK";
+        }
+        return severity + " " + getKey() + " " + diagnostic.getMessage();
+    }
+
+    /**
+     * Structured key of a diagnostic: source, code and URI of the element.
+     */
+    public static final class Key {
+
+        private final String source;
+
+        private final int code;
+
+        private final URI elementUri;
+
+        public Key(final String source, final int code, final URI elementUri) {
+            this.source = source;
+            this.code = code;
+            this.elementUri = elementUri;
+        }
+
+        public String getSource() {
+            return source;
+        }
+
+        public int getCode() {
+            return code;
+        }
+
+        public URI getElementUri() {
+            return elementUri;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final Key key = (Key) o;
+            return code == key.code && Objects.equals(source, key.source) && Objects.equals(elementUri, key.elementUri);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(source, code, elementUri);
+        }
+
+        @Override
+        public String toString() {
+            return source + ":" + code + "@" + elementUri;
+        }
+    }
+}
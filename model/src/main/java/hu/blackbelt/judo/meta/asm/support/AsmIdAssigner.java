@@ -0,0 +1,126 @@
+package hu.blackbelt.judo.meta.asm.support;
+
+/*-
+ * #%L
+ * Judo :: Asm :: Model
+ * %%
+ * Copyright (C) 2018 - 2022 BlackBelt Technology
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+
+import org.eclipse.emf.ecore.EAnnotation;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.ENamedElement;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.util.InternalEList;
+import org.eclipse.emf.ecore.xmi.XMLResource;
+import org.eclipse.emf.ecore.xmi.impl.XMLResourceImpl;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulk assignment of xmiid-s by {@link AsmIdStrategy}.
+ */
+class AsmIdAssigner {
+
+    private static final ThreadLocal<MessageDigest> MESSAGE_DIGEST = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    });
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private AsmIdAssigner() {
+    }
+
+    static void assignIds(final XMLResourceImpl resource, final AsmIdStrategy idStrategy) {
+        // number of existing xmiid-s is the best estimate of the number of elements (xmiid maps are accessed by the
+        // resource implementation, accessors of XMLResource interface are deprecated)
+        final Map<String, EObject> ids = new LinkedHashMap<>(
+                Math.max(16, resource.getEObjectToIDMap().size() * 4 / 3 + 1));
+        assignIds(resource, resource.getContents(), null, idStrategy, ids);
+
+        resource.getEObjectToIDMap().clear();
+        resource.getIDToEObjectMap().clear();
+        ids.forEach((id, eObject) -> resource.setID(eObject, id));
+    }
+
+    private static void assignIds(final XMLResource resource, final List<EObject> contents, final String containerPath,
+                                  final AsmIdStrategy idStrategy, final Map<String, EObject> ids) {
+        // paths of elements are unique if they are unique among siblings
+        final Set<String> siblingSegments = contents.size() > 1 ? new HashSet<>() : null;
+        for (EObject eObject : contents) {
+            if (eObject.eResource() != resource) {
+                // contained across resources (see AsmPackageResources) or not resolved
+                continue;
+            }
+            final String baseSegment = getPathSegment(eObject);
+            String segment = baseSegment;
+            for (int index = 1; siblingSegments != null && !siblingSegments.add(segment); index++) {
+                segment = baseSegment + "." + index;
+            }
+            // roots of resources of packages are identified by the same paths as in the resource of the model
+            final String parentPath = containerPath == null && eObject.eContainer() != null
+                    ? getPath(eObject.eContainer()) : containerPath;
+            final String path = parentPath != null ? parentPath + "/" + segment : segment;
+
+            final String id = idStrategy.createId(eObject, path);
+            final EObject existing = ids.put(id, eObject);
+            if (existing != null) {
+                throw new IllegalStateException("Duplicated xmiid " + id + " created for " + existing + " and "
+                        + eObject);
+            }
+            assignIds(resource, ((InternalEList<EObject>) eObject.eContents()).basicList(), path, idStrategy, ids);
+        }
+    }
+
+    private static String getPath(final EObject eObject) {
+        final String segment = getPathSegment(eObject);
+        return eObject.eContainer() != null ? getPath(eObject.eContainer()) + "/" + segment : segment;
+    }
+
+    private static String getPathSegment(final EObject eObject) {
+        if (eObject instanceof ENamedElement && ((ENamedElement) eObject).getName() != null
+                && !((ENamedElement) eObject).getName().isEmpty()) {
+            return ((ENamedElement) eObject).getName();
+        } else if (eObject instanceof EAnnotation && ((EAnnotation) eObject).getSource() != null) {
+            final String source = ((EAnnotation) eObject).getSource();
+            return source.substring(source.lastIndexOf('/') + 1);
+        } else if (eObject instanceof Map.Entry && ((Map.Entry<?, ?>) eObject).getKey() != null) {
+            return String.valueOf(((Map.Entry<?, ?>) eObject).getKey());
+        }
+        final EStructuralFeature containingFeature = eObject.eContainingFeature();
+        return containingFeature != null ? containingFeature.getName() : eObject.eClass().getName();
+    }
+
+    static String hash(final String path) {
+        final byte[] digest = MESSAGE_DIGEST.get().digest(path.getBytes(StandardCharsets.UTF_8));
+        // 16 bytes are encoded to 22 characters like UUIDs of EcoreUtil.generateUUID()
+        return "_" + ENCODER.encodeToString(Arrays.copyOf(digest, 16));
+    }
+}
@@ -0,0 +1,99 @@
+package hu.blackbelt.judo.meta.asm.support;
+
+/*-
+ * #%L
+ * Judo :: Asm :: Model
+ * %%
+ * Copyright (C) 2018 - 2022 BlackBelt Technology
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.ecore.xmi.XMLResource;
+import org.eclipse.emf.ecore.xmi.impl.XMLResourceImpl;
+
+import java.util.Map;
+
+/**
+ * Strategy of xmiid-s of Asm model elements. xmiid-s are assigned to all elements of a resource in bulk when it is
+ * saved with the {@link #OPTION_ID_STRATEGY} save option (see {@link #assignIds(XMLResourceImpl, AsmIdStrategy)}).
+ * <p>
+ * Strategies get the path of the element: names of named elements (sources of annotations, keys of map entries and
+ * containment feature names of other elements) from the root, separated by <code>/</code>. Paths are unique in the
+ * resource, an index is appended to the path of same named siblings.
+ */
+@FunctionalInterface
+public interface AsmIdStrategy {
+
+    /**
+     * Save option to assign xmiid-s by an {@link AsmIdStrategy} before save. When it is set as default save option of
+     * a resource created by {@link AsmModelResourceSupport#getAsmFactory()}, random UUIDs are not generated for
+     * elements attached to the resource.
+     */
+    String OPTION_ID_STRATEGY = "ASM_ID_STRATEGY";
+
+    /**
+     * Random UUIDs, existing xmiid-s are kept.
+     */
+    AsmIdStrategy UUID = (eObject, path) -> {
+        final String id = ((XMLResource) eObject.eResource()).getID(eObject);
+        return id != null ? id : EcoreUtil.generateUUID();
+    };
+
+    /**
+     * Path of the element, stable across regenerations of the same model and readable in diffs.
+     */
+    AsmIdStrategy PATH = (eObject, path) -> path;
+
+    /**
+     * Hash of the path of the element in the same format as UUIDs, stable across regenerations of the same model.
+     */
+    AsmIdStrategy HASH = (eObject, path) -> AsmIdAssigner.hash(path);
+
+    /**
+     * Create xmiid of an element.
+     *
+     * @param eObject element of a resource
+     * @param path    unique path of the element in the resource
+     * @return xmiid of the element
+     */
+    String createId(EObject eObject, String path);
+
+    /**
+     * Get strategy defined by the {@link #OPTION_ID_STRATEGY} option.
+     *
+     * @param options load / save options
+     * @return strategy, null if it is not defined
+     */
+    static AsmIdStrategy of(final Map<?, ?> options) {
+        return options != null && options.get(OPTION_ID_STRATEGY) instanceof AsmIdStrategy
+                ? (AsmIdStrategy) options.get(OPTION_ID_STRATEGY)
+                : null;
+    }
+
+    /**
+     * Assign xmiid-s to all elements of a resource. xmiid-s are calculated before they are set, so xmiid-s of elements
+     * can be swapped.
+     *
+     * @param resource   resource
+     * @param idStrategy strategy of xmiid-s
+     * @throws IllegalStateException if the strategy creates the same xmiid for different elements
+     */
+    static void assignIds(final XMLResourceImpl resource, final AsmIdStrategy idStrategy) {
+        AsmIdAssigner.assignIds(resource, idStrategy);
+    }
+}
@@ -0,0 +1,293 @@
+package hu.blackbelt.judo.meta.asm.support;
+
+/*-
+ * #%L
+ * Judo :: Asm :: Model
+ * %%
+ * Copyright (C) 2018 - 2022 BlackBelt Technology
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+
+import org.eclipse.emf.common.notify.Adapter;
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.util.BasicDiagnostic;
+import org.eclipse.emf.common.util.Diagnostic;
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.util.EContentAdapter;
+import org.eclipse.emf.ecore.util.ECrossReferenceAdapter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Incremental structural validator of ASM models.
+ * <p>
+ * The validator is a content adapter attached to a {@link ResourceSet}. The whole model is validated on first use, then
+ * changed elements are collected from EMF notifications and only they are validated again when diagnostics are
+ * requested. An element is considered as changed if it is the notifier of a change, if it is (or is contained by) an
+ * element added to the model, or if it contains a changed element (constraints of containers, for example unique
+ * names of classifiers in a package, depend on their contents). Diagnostics of elements removed from the model are
+ * dropped.
+ * <p>
+ * Constraints of an element may depend on the elements it references (for example the opposite of a reference or
+ * features inherited from supertypes), so elements referencing a changed or removed element (collected by an
+ * {@link ECrossReferenceAdapter} attached with the validator) and the old and new values of changed non-containment
+ * references are validated again too. Only direct references are followed.
+ */
+public class AsmIncrementalValidator extends EContentAdapter {
+
+    private final Map<EObject, List<Diagnostic>> diagnosticsByElement = new LinkedHashMap<>();
+
+    private final Set<EObject> changedElements = new LinkedHashSet<>();
+
+    private final ECrossReferenceAdapter crossReferenceAdapter = new ECrossReferenceAdapter() {
+        @Override
+        protected boolean resolve() {
+            return false;
+        }
+    };
+
+    private ResourceSet resourceSet;
+
+    private boolean fullValidationRequired = true;
+
+    private AsmIncrementalValidator() {
+    }
+
+    /**
+     * Get incremental validator of a {@link ResourceSet}. Validator is attached to the resource set if it is not
+     * attached yet.
+     *
+     * @param resourceSet resource set
+     * @return incremental validator attached to the resource set
+     */
+    public static AsmIncrementalValidator getIncrementalValidator(final ResourceSet resourceSet) {
+        synchronized (resourceSet) {
+            for (Adapter adapter : resourceSet.eAdapters()) {
+                if (adapter instanceof AsmIncrementalValidator) {
+                    return (AsmIncrementalValidator) adapter;
+                }
+            }
+            final AsmIncrementalValidator incrementalValidator = new AsmIncrementalValidator();
+            incrementalValidator.resourceSet = resourceSet;
+            resourceSet.eAdapters().add(incrementalValidator.crossReferenceAdapter);
+            resourceSet.eAdapters().add(incrementalValidator);
+            return incrementalValidator;
+        }
+    }
+
+    /**
+     * Detach validator from the resource set.
+     */
+    public void detach() {
+        synchronized (resourceSet) {
+            resourceSet.eAdapters().remove(this);
+            resourceSet.eAdapters().remove(crossReferenceAdapter);
+        }
+    }
+
+    /**
+     * Get {@link Diagnostic#WARNING} and {@link Diagnostic#ERROR} diagnostics of the model. Changed elements are
+     * validated before returning diagnostics.
+     *
+     * @return diagnostics
+     */
+    public synchronized List<Diagnostic> getDiagnostics() {
+        update();
+        final List<Diagnostic> result = new ArrayList<>();
+        diagnosticsByElement.values().forEach(result::addAll);
+        return result;
+    }
+
+    /**
+     * Check if the model has no {@link Diagnostic#ERROR} diagnostic. Changed elements are validated before checking.
+     *
+     * @return <code>true</code> if model is valid
+     */
+    public synchronized boolean isValid() {
+        update();
+        for (List<Diagnostic> diagnostics : diagnosticsByElement.values()) {
+            for (Diagnostic diagnostic : diagnostics) {
+                if (diagnostic.getSeverity() >= Diagnostic.ERROR) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get number of elements changed since the last validation.
+     *
+     * @return number of changed elements
+     */
+    public synchronized int getChangedElementCount() {
+        return fullValidationRequired ? -1 : changedElements.size();
+    }
+
+    @Override
+    public void notifyChanged(final Notification notification) {
+        super.notifyChanged(notification);
+        if (notification.isTouch()) {
+            return;
+        }
+
+        synchronized (this) {
+            if (fullValidationRequired) {
+                return;
+            }
+            final Object notifier = notification.getNotifier();
+            if (notifier instanceof EObject) {
+                markChanged((EObject) notifier);
+                if (notification.getFeature() instanceof EReference) {
+                    if (((EReference) notification.getFeature()).isContainment()) {
+                        markAdded(notification.getNewValue());
+                        markRemoved(notification.getOldValue());
+                    } else {
+                        markReferenced(notification.getNewValue());
+                        markReferenced(notification.getOldValue());
+                    }
+                }
+            } else if (notifier instanceof Resource
+                    && notification.getFeatureID(Resource.class) == Resource.RESOURCE__CONTENTS) {
+                markAdded(notification.getNewValue());
+                markRemoved(notification.getOldValue());
+            } else if (notifier instanceof ResourceSet
+                    && notification.getFeatureID(ResourceSet.class) == ResourceSet.RESOURCE_SET__RESOURCES) {
+                markAdded(notification.getNewValue());
+            }
+        }
+    }
+
+    @Override
+    protected boolean resolve() {
+        return false;
+    }
+
+    @Override
+    public boolean isAdapterForType(final Object type) {
+        return type == AsmIncrementalValidator.class;
+    }
+
+    private void markChanged(final EObject eObject) {
+        for (EObject element = eObject; element != null; element = element.eContainer()) {
+            changedElements.add(element);
+        }
+    }
+
+    private void markReferenced(final Object value) {
+        if (value instanceof Collection) {
+            ((Collection<?>) value).forEach(this::markReferenced);
+        } else if (value instanceof EObject && isAttached((EObject) value)) {
+            markChanged((EObject) value);
+        }
+    }
+
+    private void markRemoved(final Object value) {
+        if (value instanceof Collection) {
+            ((Collection<?>) value).forEach(this::markRemoved);
+        } else if (value instanceof EObject) {
+            markReferencing((EObject) value);
+            for (TreeIterator<EObject> iterator = ((EObject) value).eAllContents(); iterator.hasNext(); ) {
+                markReferencing(iterator.next());
+            }
+        }
+    }
+
+    private void markReferencing(final EObject eObject) {
+        for (EStructuralFeature.Setting setting : crossReferenceAdapter.getInverseReferences(eObject, false)) {
+            if (isAttached(setting.getEObject())) {
+                markChanged(setting.getEObject());
+            }
+        }
+    }
+
+    private void markAdded(final Object value) {
+        if (value instanceof Collection) {
+            ((Collection<?>) value).forEach(this::markAdded);
+        } else if (value instanceof EObject) {
+            markChanged((EObject) value);
+            for (TreeIterator<EObject> iterator = ((EObject) value).eAllContents(); iterator.hasNext(); ) {
+                changedElements.add(iterator.next());
+            }
+        } else if (value instanceof Resource) {
+            for (TreeIterator<EObject> iterator = ((Resource) value).getAllContents(); iterator.hasNext(); ) {
+                changedElements.add(iterator.next());
+            }
+        }
+    }
+
+    private void update() {
+        final AsmValidationSession session = new AsmValidationSession();
+        if (fullValidationRequired) {
+            diagnosticsByElement.clear();
+            changedElements.clear();
+            for (Iterator<EObject> iterator = new AsmModelValidator.ContentsIterator(resourceSet); iterator.hasNext(); ) {
+                validate(session, iterator.next());
+            }
+            fullValidationRequired = false;
+            return;
+        }
+
+        diagnosticsByElement.keySet().removeIf(eObject -> !isAttached(eObject));
+        new ArrayList<>(changedElements).forEach(this::markReferencing);
+        for (EObject eObject : changedElements) {
+            if (isAttached(eObject)) {
+                validate(session, eObject);
+            } else {
+                diagnosticsByElement.remove(eObject);
+            }
+        }
+        changedElements.clear();
+    }
+
+    private void validate(final AsmValidationSession session, final EObject eObject) {
+        final BasicDiagnostic diagnostics = new BasicDiagnostic();
+        session.validate(eObject, diagnostics);
+
+        List<Diagnostic> reported = null;
+        for (Diagnostic diagnostic : diagnostics.getChildren()) {
+            if (diagnostic.getSeverity() > Diagnostic.INFO) {
+                if (reported == null) {
+                    reported = new ArrayList<>();
+                }
+                reported.add(diagnostic);
+            }
+        }
+        if (reported != null) {
+            diagnosticsByElement.put(eObject, Collections.unmodifiableList(reported));
+        } else {
+            diagnosticsByElement.remove(eObject);
+        }
+    }
+
+    private boolean isAttached(final EObject eObject) {
+        final Resource resource = eObject.eResource();
+        return resource != null && resource.getResourceSet() == resourceSet;
+    }
+}
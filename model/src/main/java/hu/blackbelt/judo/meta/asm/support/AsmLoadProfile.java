@@ -0,0 +1,136 @@
+package hu.blackbelt.judo.meta.asm.support;
+
+/*-
+ * #%L
+ * Judo :: Asm :: Model
+ * %%
+ * Copyright (C) 2018 - 2022 BlackBelt Technology
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+
+import org.eclipse.emf.common.util.BasicEList;
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.xmi.XMLResource;
+
+import java.util.Map;
+
+/**
+ * Load profiles of Asm models. Load options of a profile are used by
+ * {@link AsmModelResourceSupport#loadResource(AsmModelResourceSupport.LoadArguments)} when load options are not
+ * defined explicitly.
+ */
+public enum AsmLoadProfile {
+
+    /**
+     * Options of {@link AsmModelResourceSupport#getAsmModelDefaultLoadOptions()}.
+     */
+    DEFAULT,
+
+    /**
+     * Optimized for loading many models: XML parsers are pooled, name to feature map and lookup table are shared
+     * across loads of the same {@link AsmLoadSession}, contents are attached to the resource when they are parsed
+     * completely and xmiid maps are sized by the expected model size.
+     */
+    FAST {
+        @Override
+        public Map<Object, Object> getLoadOptions(final long expectedSize, final AsmLoadSession loadSession) {
+            final Map<Object, Object> loadOptions = super.getLoadOptions(expectedSize, loadSession);
+            (loadSession != null ? loadSession : new AsmLoadSession()).apply(loadOptions);
+            // non-deprecated handler methods work with the namespace aware parsers of the pool only
+            loadOptions.put(XMLResource.OPTION_USE_DEPRECATED_METHODS, Boolean.FALSE);
+            loadOptions.put(XMLResource.OPTION_CONFIGURATION_CACHE, Boolean.TRUE);
+            loadOptions.put(XMLResource.OPTION_DEFER_ATTACHMENT, Boolean.TRUE);
+            if (expectedSize > 0) {
+                loadOptions.put(OPTION_ID_MAP_CAPACITY,
+                        (int) Math.min(Integer.MAX_VALUE, expectedSize / BYTES_PER_ELEMENT * 4 / 3 + 1));
+            }
+            return loadOptions;
+        }
+    },
+
+    /**
+     * Optimized for memory footprint of loaded models: options of {@link #DEFAULT}, nothing is cached across loads
+     * and lists of the loaded model are trimmed to their size.
+     */
+    LOW_MEMORY {
+        @Override
+        public void afterLoad(final Resource resource) {
+            for (TreeIterator<EObject> iterator = resource.getAllContents(); iterator.hasNext(); ) {
+                final EObject eObject = iterator.next();
+                for (EStructuralFeature feature : eObject.eClass().getEAllStructuralFeatures()) {
+                    if (feature.isMany() && !feature.isDerived() && !feature.isTransient()
+                            && eObject.eIsSet(feature)) {
+                        final Object value = eObject.eGet(feature, false);
+                        if (value instanceof BasicEList) {
+                            ((BasicEList<?>) value).shrink();
+                        }
+                    }
+                }
+            }
+        }
+    };
+
+    /**
+     * Load option of the initial capacity of xmiid maps of resources created by
+     * {@link AsmModelResourceSupport#getAsmFactory()}.
+     */
+    public static final String OPTION_ID_MAP_CAPACITY = "ASM_ID_MAP_CAPACITY";
+
+    // average size of an element in XMI serialization, used to estimate number of elements
+    private static final int BYTES_PER_ELEMENT = 80;
+
+    /**
+     * Get load options of the profile.
+     *
+     * @return load options
+     */
+    public Map<Object, Object> getLoadOptions() {
+        return getLoadOptions(0, null);
+    }
+
+    /**
+     * Get load options of the profile for a model of the given size. State is not shared with other loads.
+     *
+     * @param expectedSize size of the serialized model in bytes, 0 if unknown
+     * @return load options
+     */
+    public Map<Object, Object> getLoadOptions(final long expectedSize) {
+        return getLoadOptions(expectedSize, null);
+    }
+
+    /**
+     * Get load options of the profile for a model of the given size. Options sharing state across loads use the
+     * state of the given session, so they have to be used on the thread of the session.
+     *
+     * @param expectedSize size of the serialized model in bytes, 0 if unknown
+     * @param loadSession  session sharing state across loads, <code>null</code> to share no state
+     * @return load options
+     */
+    public Map<Object, Object> getLoadOptions(final long expectedSize, final AsmLoadSession loadSession) {
+        return AsmModelResourceSupport.getAsmModelDefaultLoadOptions();
+    }
+
+    /**
+     * Called after a resource is loaded with the profile.
+     *
+     * @param resource loaded resource
+     */
+    public void afterLoad(final Resource resource) {
+    }
+}
@@ -0,0 +1,71 @@
+package hu.blackbelt.judo.meta.asm.support;
+
+/*-
+ * #%L
+ * Judo :: Asm :: Model
+ * %%
+ * Copyright (C) 2018 - 2022 BlackBelt Technology
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+
+import org.eclipse.emf.ecore.xmi.XMLParserPool;
+import org.eclipse.emf.ecore.xmi.XMLResource;
+import org.eclipse.emf.ecore.xmi.impl.XMLParserPoolImpl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * State shared by loads of Asm models with {@link AsmLoadProfile#FAST} profile: pool of XML parsers, name to feature
+ * map and lookup table of XML handlers.
+ * <p>
+ * A session is owned by the caller, the state is released with the session, so metamodels referred by the shared
+ * maps are not kept after the session is dropped. Sessions are not thread-safe (the lookup table is updated by
+ * every load), use one session per thread.
+ */
+public class AsmLoadSession {
+
+    private final XMLParserPool parserPool = new XMLParserPoolImpl();
+
+    private final Map<Object, Object> nameToFeatureMap = Collections.synchronizedMap(new HashMap<>());
+
+    private final List<Object> lookupTable = new ArrayList<>();
+
+    /**
+     * Add options sharing the state of the session to load options.
+     *
+     * @param loadOptions load options
+     * @return load options
+     */
+    public Map<Object, Object> apply(final Map<Object, Object> loadOptions) {
+        loadOptions.put(XMLResource.OPTION_USE_PARSER_POOL, parserPool);
+        loadOptions.put(XMLResource.OPTION_USE_XML_NAME_TO_FEATURE_MAP, nameToFeatureMap);
+        loadOptions.put(XMLResource.OPTION_USE_CACHED_LOOKUP_TABLE, lookupTable);
+        return loadOptions;
+    }
+
+    /**
+     * Get name to feature map shared by loads.
+     *
+     * @return name to feature map
+     */
+    public Map<Object, Object> getNameToFeatureMap() {
+        return nameToFeatureMap;
+    }
+}
@@ -0,0 +1,136 @@
+package hu.blackbelt.judo.meta.asm.support;
+
+/*-
+ * #%L
+ * Judo :: Asm :: Model
+ * %%
+ * Copyright (C) 2018 - 2022 BlackBelt Technology
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+
+import org.eclipse.emf.common.notify.Adapter;
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.util.EContentAdapter;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Content adapter counting modifications of a {@link ResourceSet}. Caches derived from the model (indexes,
+ * validation results) store the modification count they were computed at and they are considered as valid while the
+ * modification count is unchanged.
+ * <p>
+ * One tracker is attached to a {@link ResourceSet}, use {@link #getChangeTracker(ResourceSet)} to get it for the
+ * lifetime of the resource set, or {@link #acquire(ResourceSet)} and {@link #release()} when it is used by a cache
+ * which can be dropped. Tracker is detached when it is released by all of its users and it is not got by
+ * {@link #getChangeTracker(ResourceSet)}. Proxies are not resolved by the tracker, so attaching it does not load
+ * lazily loaded resources.
+ */
+public class AsmModelChangeTracker extends EContentAdapter {
+
+    private final AtomicLong modificationCount = new AtomicLong();
+
+    private final ResourceSet resourceSet;
+
+    // guarded by the resource set
+    private int users;
+
+    // guarded by the resource set
+    private boolean permanent;
+
+    private AsmModelChangeTracker(final ResourceSet resourceSet) {
+        this.resourceSet = resourceSet;
+    }
+
+    /**
+     * Get change tracker of a {@link ResourceSet}. Tracker is attached to the resource set if it is not attached yet.
+     *
+     * @param resourceSet resource set
+     * @return change tracker attached to the resource set
+     */
+    public static AsmModelChangeTracker getChangeTracker(final ResourceSet resourceSet) {
+        synchronized (resourceSet) {
+            final AsmModelChangeTracker changeTracker = attach(resourceSet);
+            changeTracker.permanent = true;
+            return changeTracker;
+        }
+    }
+
+    /**
+     * Get change tracker of a {@link ResourceSet} for a user which releases it by {@link #release()} when it is not
+     * needed anymore. Tracker is attached to the resource set if it is not attached yet.
+     *
+     * @param resourceSet resource set
+     * @return change tracker attached to the resource set
+     */
+    public static AsmModelChangeTracker acquire(final ResourceSet resourceSet) {
+        synchronized (resourceSet) {
+            final AsmModelChangeTracker changeTracker = attach(resourceSet);
+            changeTracker.users++;
+            return changeTracker;
+        }
+    }
+
+    /**
+     * Release the tracker got by {@link #acquire(ResourceSet)}. Tracker is detached from the resource set when it
+     * is released by all users and it is not got by {@link #getChangeTracker(ResourceSet)}.
+     */
+    public void release() {
+        synchronized (resourceSet) {
+            if (users > 0 && --users == 0 && !permanent) {
+                resourceSet.eAdapters().remove(this);
+            }
+        }
+    }
+
+    private static AsmModelChangeTracker attach(final ResourceSet resourceSet) {
+        for (Adapter adapter : resourceSet.eAdapters()) {
+            if (adapter instanceof AsmModelChangeTracker) {
+                return (AsmModelChangeTracker) adapter;
+            }
+        }
+        final AsmModelChangeTracker changeTracker = new AsmModelChangeTracker(resourceSet);
+        resourceSet.eAdapters().add(changeTracker);
+        return changeTracker;
+    }
+
+    /**
+     * Get number of modifications since the tracker is attached.
+     *
+     * @return modification count
+     */
+    public long getModificationCount() {
+        return modificationCount.get();
+    }
+
+    @Override
+    public void notifyChanged(final Notification notification) {
+        super.notifyChanged(notification);
+        if (!notification.isTouch()) {
+            modificationCount.incrementAndGet();
+        }
+    }
+
+    @Override
+    protected boolean resolve() {
+        return false;
+    }
+
+    @Override
+    public boolean isAdapterForType(final Object type) {
+        return type == AsmModelChangeTracker.class;
+    }
+}
@@ -21,13 +21,10 @@ package hu.blackbelt.judo.meta.asm.support;
  */
 
 import org.eclipse.emf.common.notify.Notifier;
-import org.eclipse.emf.common.util.BasicDiagnostic;
-import org.eclipse.emf.common.util.DelegatingResourceLocator;
 import org.eclipse.emf.common.util.Diagnostic;
 import org.eclipse.emf.common.util.EList;
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.EObject;
-import org.eclipse.emf.ecore.plugin.EcorePlugin;
 import org.eclipse.emf.ecore.resource.ContentHandler;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.resource.ResourceSet;
@@ -35,38 +32,34 @@ import org.eclipse.emf.ecore.resource.URIHandler;
 import org.eclipse.emf.ecore.resource.impl.ExtensibleURIConverterImpl;
 import org.eclipse.emf.ecore.resource.impl.ResourceFactoryRegistryImpl;
 import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
-import org.eclipse.emf.ecore.util.Diagnostician;
-import org.eclipse.emf.ecore.util.EObjectValidator;
 import org.eclipse.emf.ecore.xmi.XMLResource;
 import org.eclipse.emf.ecore.xmi.impl.EcoreResourceFactoryImpl;
 import org.eclipse.emf.ecore.xmi.impl.URIHandlerImpl;
 
 import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.lang.reflect.Field;
-import java.net.URL;
 import java.nio.charset.Charset;
-import java.util.Collections;
+import java.security.DigestInputStream;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.function.Function;
-import java.util.function.Predicate;
-import java.util.stream.Collectors;
+import java.util.concurrent.Executor;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 import org.eclipse.emf.ecore.EcorePackage;
 import org.eclipse.emf.ecore.xmi.impl.XMIResourceImpl;
+import org.eclipse.emf.ecore.xmi.impl.XMLResourceImpl;
 
 import static java.util.Objects.requireNonNull;
 import static java.util.Optional.ofNullable;
@@ -124,12 +117,24 @@ import static java.util.Optional.ofNullable;
  */
 public class AsmModelResourceSupport {
 
-    private static Diagnostician diagnostician = new Diagnostician();
-
     private ResourceSet resourceSet;
 
     private URI uri;
 
+    private volatile AsmValidationResult validationResult;
+
+    private volatile long validModificationCount = -1;
+
+    private volatile boolean parallelValidation;
+
+    private volatile AsmIncrementalValidator incrementalValidator;
+
+    private volatile AsmValidationCache validationCache;
+
+    private volatile String cachedModelDigest;
+
+    private volatile long cachedModificationCount = -1;
+
     /**
      * Create {@link Stream} from {@link Iterator}.
      * @param sourceIterator the {@link Iterator} {@link Stream} made from
@@ -363,9 +368,77 @@ public class AsmModelResourceSupport {
             @Override
             public Resource createResource(URI uri) {
                 return new XMIResourceImpl(uri) {
+                    private AsmXmiIdValidator xmiIdValidator;
+                    private boolean binaryLoading;
+
                     @Override
                     protected boolean useUUIDs() {
-                        return true;
+                        // with an id strategy xmiid-s are assigned in bulk on save
+                        return AsmIdStrategy.of(defaultSaveOptions) == null;
+                    }
+
+                    @Override
+                    public void doLoad(InputStream inputStream, Map<?, ?> options) throws IOException {
+                        xmiIdValidator = options != null
+                                ? (AsmXmiIdValidator) options.get(AsmXmiIdValidator.OPTION_XMI_ID_VALIDATOR)
+                                : null;
+                        if (xmiIdValidator != null) {
+                            xmiIdValidator.setAttached(true);
+                        }
+                        final Object idMapCapacity = options != null
+                                ? options.get(AsmLoadProfile.OPTION_ID_MAP_CAPACITY)
+                                : null;
+                        // XMLResourceImpl accessors create xmiid maps lazily, they are not deprecated like XMLResource ones
+                        if (idMapCapacity instanceof Integer && getEObjectToIDMap().isEmpty()) {
+                            eObjectToIDMap = new HashMap<>((Integer) idMapCapacity);
+                            idToEObjectMap = new HashMap<>((Integer) idMapCapacity);
+                        }
+                        try {
+                            final InputStream contentInputStream =
+                                    AsmCompression.decompressed(inputStream, getURI(), options);
+                            if (AsmBinaryFormat.isBinary(getURI(), options)) {
+                                binaryLoading = true;
+                                AsmBinaryFormat.load(this, contentInputStream, options);
+                            } else {
+                                super.doLoad(contentInputStream, options);
+                            }
+                        } finally {
+                            xmiIdValidator = null;
+                            binaryLoading = false;
+                        }
+                    }
+
+                    @Override
+                    protected boolean assignIDsWhileLoading() {
+                        // xmiid-s of binary resources are set after their contents are loaded
+                        return !binaryLoading && super.assignIDsWhileLoading();
+                    }
+
+                    @Override
+                    public void doSave(OutputStream outputStream, Map<?, ?> options) throws IOException {
+                        final AsmIdStrategy idStrategy = AsmIdStrategy.of(options);
+                        if (idStrategy != null) {
+                            AsmIdStrategy.assignIds(this, idStrategy);
+                        }
+                        final AsmCompression compression = AsmCompression.of(getURI(), options);
+                        final OutputStream contentOutputStream = compression.compress(outputStream, getURI());
+                        if (AsmBinaryFormat.isBinary(getURI(), options)) {
+                            AsmBinaryFormat.save(this, contentOutputStream, options);
+                        } else {
+                            super.doSave(contentOutputStream, options);
+                        }
+                        compression.finish(contentOutputStream);
+                    }
+
+                    @Override
+                    public void setID(EObject eObject, String id) {
+                        if (xmiIdValidator != null && id != null) {
+                            final EObject existing = getIDToEObjectMap().get(id);
+                            if (existing != null && existing != eObject) {
+                                xmiIdValidator.addDuplicate(id, existing, eObject);
+                            }
+                        }
+                        super.setID(eObject, id);
                     }
                 };
             }
@@ -521,19 +594,50 @@ public class AsmModelResourceSupport {
                                                 loadArguments)
             throws IOException, AsmValidationException {
 
+        parallelValidation = loadArguments.isParallelValidation();
         Resource resource = getResource();
         Map loadOptions = loadArguments.getLoadOptions()
-                .orElseGet(AsmModelResourceSupport::getAsmModelDefaultLoadOptions);
+                .orElseGet(() -> loadArguments.getLoadProfile()
+                        .getLoadOptions(loadArguments.getFile().map(File::length).orElse(0L),
+                                loadArguments.getLoadSession().orElse(null)));
+        AsmXmiIdValidator xmiIdValidator = null;
+        if (loadArguments.isValidateUniqueXmiids()) {
+            xmiIdValidator = new AsmXmiIdValidator();
+            loadOptions = new HashMap<>(loadOptions);
+            loadOptions.put(AsmXmiIdValidator.OPTION_XMI_ID_VALIDATOR, xmiIdValidator);
+        }
+        if (loadArguments.isBinary() || AsmBinaryFormat.isBinary(loadArguments.getFile().orElse(null))) {
+            loadOptions = new HashMap<>(loadOptions);
+            loadOptions.put(AsmBinaryFormat.OPTION_BINARY, Boolean.TRUE);
+        }
+        AsmCompression compression = loadArguments.getCompression()
+                .orElseGet(() -> AsmCompression.of(loadArguments.getFile().orElse(null)));
+        if (compression != AsmCompression.NONE || loadArguments.getCompression().isPresent()) {
+            loadOptions = new HashMap<>(loadOptions);
+            loadOptions.put(AsmCompression.OPTION_COMPRESSION, compression);
+        }
+        AsmValidationCache validationCache = loadArguments.getValidationCache().orElse(null);
+        String modelDigest = null;
 
+        InputStream openedInputStream = null;
         try {
-            InputStream inputStream = loadArguments.getInputStream()
-                    .orElseGet(() -> loadArguments.getFile().map(f -> {
-                try {
-                    return new FileInputStream(f);
-                } catch (FileNotFoundException e) {
-                    throw new RuntimeException(e);
+            InputStream inputStream = loadArguments.getInputStream().orElse(null);
+            if (inputStream == null && loadArguments.getFile().isPresent()) {
+                openedInputStream = loadArguments.getReadStrategy().open(loadArguments.getFile().get());
+                inputStream = openedInputStream;
+            }
+
+            DigestInputStream digestInputStream = null;
+            if (validationCache != null) {
+                // model content is digested while it is loaded
+                if (inputStream == null) {
+                    openedInputStream = resource.getResourceSet().getURIConverter()
+                            .createInputStream(resource.getURI(), loadOptions);
+                    inputStream = openedInputStream;
                 }
-            }).orElse(null));
+                digestInputStream = AsmValidationCache.digestInputStream(inputStream);
+                inputStream = digestInputStream;
+            }
 
             if (inputStream != null) {
                 resource.load(inputStream, loadOptions);
@@ -541,12 +645,44 @@ public class AsmModelResourceSupport {
                 resource.load(loadOptions);
             }
 
+            if (digestInputStream != null) {
+                modelDigest = AsmValidationCache.getDigest(digestInputStream);
+            }
         } catch (RuntimeException e) {
             if (e.getCause() instanceof IOException) {
                 throw (IOException) e.getCause();
             } else {
                 throw e;
             }
+        } finally {
+            if (openedInputStream != null) {
+                openedInputStream.close();
+            }
+        }
+
+        if (AsmPackageResources.isSplit(resource)) {
+            // digest covers the resource of the model only, cached result of split models would ignore changes of
+            // package resources
+            modelDigest = null;
+            if (resource.getResourceSet().getLoadOptions().isEmpty()) {
+                // resources of packages are loaded on demand by the resource set
+                resource.getResourceSet().getLoadOptions().putAll(getAsmModelDefaultLoadOptions());
+            }
+            if (loadArguments.getExecutor().isPresent()) {
+                AsmParallelLoader.loadPackages(resource, loadArguments.getExecutor().get());
+            }
+        }
+        loadArguments.getLoadProfile().afterLoad(resource);
+
+        if (xmiIdValidator != null) {
+            if (!xmiIdValidator.isAttached()) {
+                xmiIdValidator.addAll(resource.getAllContents());
+            }
+            xmiIdValidator.check();
+        }
+
+        if (modelDigest != null) {
+            useValidationCache(validationCache, modelDigest);
         }
 
         if (loadArguments.isValidateModel() && !isValid()) {
@@ -629,6 +765,60 @@ public class AsmModelResourceSupport {
         }
         Map saveOptions = saveArguments.getSaveOptions()
                 .orElseGet(AsmModelResourceSupport::getAsmModelDefaultSaveOptions);
+        if (saveArguments.isBinary() || AsmBinaryFormat.isBinary(saveArguments.getFile().orElse(null))) {
+            saveOptions = new HashMap<>(saveOptions);
+            saveOptions.put(AsmBinaryFormat.OPTION_BINARY, Boolean.TRUE);
+        }
+        AsmCompression compression = saveArguments.getCompression()
+                .orElseGet(() -> AsmCompression.of(saveArguments.getFile().orElse(null)));
+        if (compression != AsmCompression.NONE || saveArguments.getCompression().isPresent()) {
+            saveOptions = new HashMap<>(saveOptions);
+            saveOptions.put(AsmCompression.OPTION_COMPRESSION, compression);
+        }
+        if (saveArguments.getIdStrategy().isPresent()) {
+            saveOptions = new HashMap<>(saveOptions);
+            saveOptions.put(AsmIdStrategy.OPTION_ID_STRATEGY, saveArguments.getIdStrategy().get());
+        }
+        if (saveArguments.isSplitPackages()) {
+            if (saveArguments.getOutputStream().isPresent()) {
+                throw new IllegalArgumentException("Model with split packages cannot be saved to an output stream");
+            }
+            // resource of the model is identified by its URI, so the URI is restored after save, and the layout of
+            // a model which is not split is restored too
+            final Resource modelResource = getResource();
+            final URI modelUri = modelResource.getURI();
+            final boolean split = AsmPackageResources.isSplit(modelResource);
+            final AsmIdStrategy idStrategy = AsmIdStrategy.of(saveOptions) != null
+                    ? AsmIdStrategy.of(saveOptions)
+                    : getIdStrategy();
+            saveArguments.getFile().ifPresent(f -> modelResource.setURI(URI.createFileURI(f.getAbsolutePath())));
+            try {
+                final List<Resource> resources = new ArrayList<>(AsmPackageResources.split(modelResource));
+                resources.add(modelResource);
+                if (idStrategy != null) {
+                    // references across resources are serialized with xmiid-s of the referenced resource, so
+                    // xmiid-s of all resources are assigned before any of them is saved
+                    for (Resource resource : resources) {
+                        if (resource instanceof XMLResourceImpl) {
+                            AsmIdStrategy.assignIds((XMLResourceImpl) resource, idStrategy);
+                        }
+                    }
+                    saveOptions = new HashMap<>(saveOptions);
+                    saveOptions.put(AsmIdStrategy.OPTION_ID_STRATEGY, null);
+                }
+                for (Resource resource : resources) {
+                    resource.save(saveOptions);
+                }
+            } finally {
+                if (!split) {
+                    AsmPackageResources.merge(modelResource);
+                }
+                modelResource.setURI(modelUri);
+            }
+            return;
+        } else if (AsmPackageResources.isSplit(getResource())) {
+            AsmPackageResources.merge(getResource());
+        }
         try {
             OutputStream outputStream = saveArguments.getOutputStream()
                     .orElseGet(() -> saveArguments.getFile().map(f -> {
@@ -652,49 +842,158 @@ public class AsmModelResourceSupport {
         }
     }
 
-    private Diagnostic getDiagnostic(EObject eObject) {
-        // TODO: The hack is called here
-        fixEcoreUri();
-        BasicDiagnostic diagnostics = new BasicDiagnostic
-                (EObjectValidator.DIAGNOSTIC_SOURCE,
-                        0,
-                        String.format("Diagnosis of %s\n", diagnostician.getObjectLabel(eObject)),
-                        new Object [] { eObject });
-
-        diagnostician.validate(eObject, diagnostics, diagnostician.createDefaultContext());
-        return diagnostics;
+    /**
+     * Get distinct diagnostics for model. Only  {@link Diagnostic}.WARN and {@link Diagnostic}.ERROR are returns.
+     * The returned set is a copy of the diagnostics of the cached {@link #getValidationResult() validation result}.
+     * @return set of {@link Diagnostic}
+     */
+    public Set<Diagnostic> getDiagnostics() {
+        return new LinkedHashSet<>(getValidationResult().getDiagnostics());
+    }
+
+    /**
+     * Get diagnostics for model as a lazy stream. Model is validated while the stream is consumed.
+     * @param minSeverity minimal severity of returned diagnostics
+     * @return stream of {@link AsmDiagnostic}
+     */
+    public Stream<AsmDiagnostic> streamDiagnostics(int minSeverity) {
+        return new AsmModelValidator(resourceSet).stream(minSeverity);
+    }
+
+    /**
+     * Get result of model validation. The last result is cached, model is validated again only if it is changed
+     * since the last validation.
+     * @return validation result
+     */
+    public AsmValidationResult getValidationResult() {
+        final long modificationCount = AsmModelChangeTracker.getChangeTracker(resourceSet).getModificationCount();
+        AsmValidationResult result = validationResult;
+        if (result == null || result.getModificationCount() != modificationCount) {
+            final AsmIncrementalValidator incremental = incrementalValidator;
+            if (incremental != null) {
+                result = new AsmValidationResult(modificationCount, incremental.getDiagnostics());
+            } else {
+                final AsmModelValidator validator = new AsmModelValidator(resourceSet);
+                result = new AsmValidationResult(modificationCount,
+                        parallelValidation ? validator.validateParallel() : validator.validate());
+            }
+            validationResult = result;
+        }
+        return result;
+    }
+
+    /**
+     * Checks the model is validated in parallel.
+     * @return true when parallel validation is enabled
+     */
+    public boolean isParallelValidation() {
+        return parallelValidation;
     }
 
-    private static <T> Predicate<T> distinctByKey(
-            Function<? super T, ?> keyExtractor) {
+    /**
+     * Enable or disable parallel validation of the model (see {@link AsmModelValidator#validateParallel()}).
+     * @param parallelValidation true to validate model in parallel
+     */
+    public void setParallelValidation(boolean parallelValidation) {
+        this.parallelValidation = parallelValidation;
+    }
 
-        Map<Object, Boolean> seen = new ConcurrentHashMap<>();
-        return t -> seen.putIfAbsent(keyExtractor.apply(t), Boolean.TRUE) == null;
+    /**
+     * Checks changed elements of the model are validated incrementally.
+     * @return true when incremental validation is enabled
+     */
+    public boolean isIncrementalValidation() {
+        return incrementalValidator != null;
     }
 
     /**
-     * Get distinct diagnostics for model. Only  {@link Diagnostic}.WARN and {@link Diagnostic}.ERROR are returns.
-     * @return set of {@link Diagnostic}
+     * Enable or disable incremental validation of the model (see {@link AsmIncrementalValidator}). When it is enabled
+     * only elements changed since the last validation are validated again.
+     * @param incrementalValidation true to validate model incrementally
      */
-    public Set<Diagnostic> getDiagnostics() {
-        return all()
-                .filter(EObject.class :: isInstance)
-                .map(EObject.class :: cast)
-                .map(this :: getDiagnostic)
-                .filter(d -> d.getSeverity() > Diagnostic.INFO)
-                .filter(d -> d.getChildren().size() > 0)
-                .flatMap(d -> d.getChildren().stream())
-                .filter(distinctByKey(Object::toString))
-                .collect(Collectors.toSet());
+    public synchronized void setIncrementalValidation(boolean incrementalValidation) {
+        if (incrementalValidation && incrementalValidator == null) {
+            incrementalValidator = AsmIncrementalValidator.getIncrementalValidator(resourceSet);
+        } else if (!incrementalValidation && incrementalValidator != null) {
+            incrementalValidator.detach();
+            incrementalValidator = null;
+        }
+    }
+
+    /**
+     * Get the strategy of xmiid-s of the model.
+     * @return strategy of xmiid-s, null if random UUIDs are generated for elements attached to the model
+     */
+    public AsmIdStrategy getIdStrategy() {
+        return getResource() instanceof XMLResource
+                ? AsmIdStrategy.of(((XMLResource) getResource()).getDefaultSaveOptions())
+                : null;
+    }
+
+    /**
+     * Set the strategy of xmiid-s of the model (see {@link AsmIdStrategy}). When it is set, random UUIDs are not
+     * generated for elements attached to the model, xmiid-s of all elements are assigned in bulk on save.
+     * @param idStrategy strategy of xmiid-s, null to generate random UUIDs for attached elements
+     * @throws IllegalStateException if the resource of the model does not support xmiid-s
+     */
+    public void setIdStrategy(AsmIdStrategy idStrategy) {
+        if (!(getResource() instanceof XMLResource)) {
+            throw new IllegalStateException("xmiid-s are not supported by resource: " + getResource().getURI());
+        }
+        if (idStrategy != null) {
+            ((XMLResource) getResource()).getDefaultSaveOptions().put(AsmIdStrategy.OPTION_ID_STRATEGY, idStrategy);
+        } else {
+            ((XMLResource) getResource()).getDefaultSaveOptions().remove(AsmIdStrategy.OPTION_ID_STRATEGY);
+        }
     }
 
     /**
      * Checks the model have any {@link Diagnostic}.ERROR diagnostics. When there is no any the model assumed as valid.
+     * If there is no validation result of the current model state, validation stops on the first error (or only
+     * changed elements are validated when incremental validation is enabled).
      * @return true when model is valid
      */
     public boolean isValid() {
-        Set<Diagnostic> diagnostics = getDiagnostics();
-        return diagnostics.stream().noneMatch(e -> e.getSeverity() >= Diagnostic.ERROR);
+        final long modificationCount = AsmModelChangeTracker.getChangeTracker(resourceSet).getModificationCount();
+        final AsmValidationResult result = validationResult;
+        if (result != null && result.getModificationCount() == modificationCount) {
+            return result.isValid();
+        }
+        if (validModificationCount == modificationCount) {
+            return true;
+        }
+        if (validationCache != null && cachedModificationCount == modificationCount) {
+            final boolean valid = AsmValidationCache.isValid(validationCache.computeIfAbsent(cachedModelDigest,
+                    AsmValidationCache.getStructuralRulesetDigest(), () -> getValidationResult().getDiagnostics()));
+            if (valid) {
+                validModificationCount = modificationCount;
+            }
+            return valid;
+        }
+        final AsmIncrementalValidator incremental = incrementalValidator;
+        if (incremental != null) {
+            return incremental.isValid();
+        }
+        final AsmModelValidator validator = new AsmModelValidator(resourceSet);
+        final boolean valid = parallelValidation ? validator.isValidParallel() : validator.isValid();
+        if (valid) {
+            validModificationCount = modificationCount;
+        }
+        return valid;
+    }
+
+    /**
+     * Use a persistent validation cache for the current model content. Until the model is changed,
+     * {@link #isValid()} validates it only if there is no cached result for the given model content and the
+     * structural ruleset (see {@link AsmValidationCache#getStructuralRulesetDigest()}).
+     * @param validationCache validation cache
+     * @param modelDigest digest of the current model content
+     */
+    public void useValidationCache(AsmValidationCache validationCache, String modelDigest) {
+        this.validationCache = validationCache;
+        this.cachedModelDigest = modelDigest;
+        this.cachedModificationCount =
+                AsmModelChangeTracker.getChangeTracker(resourceSet).getModificationCount();
     }
 
     /**
@@ -704,8 +1003,11 @@ public class AsmModelResourceSupport {
     public String asString() {
         ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
         try {
-            // Do not call save on model to bypass the validation
-            getResource().save(byteArrayOutputStream, Collections.EMPTY_MAP);
+            // Do not call save on model to bypass the validation, XMI is used regardless of the URI
+            Map<Object, Object> saveOptions = new HashMap<>();
+            saveOptions.put(AsmBinaryFormat.OPTION_BINARY, Boolean.FALSE);
+            saveOptions.put(AsmCompression.OPTION_COMPRESSION, AsmCompression.NONE);
+            getResource().save(byteArrayOutputStream, saveOptions);
         } catch (IOException ignored) {
         }
         return new String(byteArrayOutputStream.toByteArray(), Charset.defaultCharset());
@@ -716,7 +1018,7 @@ public class AsmModelResourceSupport {
      * @return diagnostic list as string. Every line represents one diagnostic.
      */
     public String getDiagnosticsAsString() {
-        return getDiagnostics().stream().map(Object::toString).collect(Collectors.joining("\n"));
+        return getValidationResult().getDiagnosticsAsString();
     }
 
     /**
@@ -729,6 +1031,15 @@ public class AsmModelResourceSupport {
         private ResourceSet resourceSet;
         private Map<Object, Object> loadOptions;
         private boolean validateModel;
+        private boolean parallelValidation;
+        private boolean validateUniqueXmiids;
+        private boolean binary;
+        private AsmValidationCache validationCache;
+        private AsmReadStrategy readStrategy;
+        private AsmLoadProfile loadProfile;
+        private AsmCompression compression;
+        private Executor executor;
+        private AsmLoadSession loadSession;
         private InputStream inputStream;
         private File file;
 
@@ -748,8 +1059,32 @@ public class AsmModelResourceSupport {
             return null;
         }
 
+        private static AsmValidationCache $default$validationCache() {
+            return null;
+        }
+
+        private static AsmReadStrategy $default$readStrategy() {
+            return AsmReadStrategy.BUFFERED;
+        }
+
+        private static AsmLoadProfile $default$loadProfile() {
+            return AsmLoadProfile.DEFAULT;
+        }
+
+        private static AsmCompression $default$compression() {
+            return null;
+        }
+
+        private static Executor $default$executor() {
+            return null;
+        }
+
+        private static AsmLoadSession $default$loadSession() {
+            return null;
+        }
+
         private static Map<Object, Object> $default$loadOptions() {
-            return AsmModelResourceSupport.getAsmModelDefaultLoadOptions();
+            return null;
         }
 
         Optional<URI> getUri() {
@@ -772,6 +1107,42 @@ public class AsmModelResourceSupport {
             return validateModel;
         }
 
+        boolean isParallelValidation() {
+            return parallelValidation;
+        }
+
+        boolean isValidateUniqueXmiids() {
+            return validateUniqueXmiids;
+        }
+
+        boolean isBinary() {
+            return binary;
+        }
+
+        Optional<AsmValidationCache> getValidationCache() {
+            return ofNullable(validationCache);
+        }
+
+        AsmReadStrategy getReadStrategy() {
+            return readStrategy;
+        }
+
+        AsmLoadProfile getLoadProfile() {
+            return loadProfile;
+        }
+
+        Optional<AsmCompression> getCompression() {
+            return ofNullable(compression);
+        }
+
+        Optional<Executor> getExecutor() {
+            return ofNullable(executor);
+        }
+
+        Optional<AsmLoadSession> getLoadSession() {
+            return ofNullable(loadSession);
+        }
+
         Optional<InputStream> getInputStream() {
             return ofNullable(inputStream);
         }
@@ -789,6 +1160,9 @@ public class AsmModelResourceSupport {
         public static class LoadArgumentsBuilder {
             private URI uri;
             private boolean validateModel = true;
+            private boolean parallelValidation;
+            private boolean validateUniqueXmiids;
+            private boolean binary;
 
             private boolean uriHandler$set;
             private URIHandler uriHandler;
@@ -805,6 +1179,24 @@ public class AsmModelResourceSupport {
             private boolean inputStream$set;
             private InputStream inputStream;
 
+            private boolean validationCache$set;
+            private AsmValidationCache validationCache;
+
+            private boolean readStrategy$set;
+            private AsmReadStrategy readStrategy;
+
+            private boolean loadProfile$set;
+            private AsmLoadProfile loadProfile;
+
+            private boolean compression$set;
+            private AsmCompression compression;
+
+            private boolean executor$set;
+            private Executor executor;
+
+            private boolean loadSession$set;
+            private AsmLoadSession loadSession;
+
             LoadArgumentsBuilder() {
             }
 
@@ -844,8 +1236,8 @@ public class AsmModelResourceSupport {
 
             @java.lang.SuppressWarnings("all")
             /**
-             * Defines the load options for model. If not defined the
-             * {@link AsmModelResourceSupport#getAsmModelDefaultLoadOptions()} us used.
+             * Defines the load options for model. If not defined the options of load profile
+             * (see {@link AsmLoadProfile#getLoadOptions(long)}) are used.
              */
             public AsmModelResourceSupport.LoadArguments.LoadArgumentsBuilder loadOptions(
                     final Map<Object, Object> loadOptions) {
@@ -857,13 +1249,122 @@ public class AsmModelResourceSupport {
 
             @java.lang.SuppressWarnings("all")
             /**
-             * Defines that model validation required or not on load. Default: true
+             * Defines that model validation required or not on load. Validation of a split model (see
+             * {@link AsmPackageResources}) loads resources of all packages, so packages are not loaded on demand.
+             * Default: true
              */
             public AsmModelResourceSupport.LoadArguments.LoadArgumentsBuilder validateModel(boolean validateModel) {
                 this.validateModel = validateModel;
                 return this;
             }
 
+            @java.lang.SuppressWarnings("all")
+            /**
+             * Defines that model is validated in parallel or not. Default: false
+             */
+            public AsmModelResourceSupport.LoadArguments.LoadArgumentsBuilder parallelValidation(
+                    boolean parallelValidation) {
+                this.parallelValidation = parallelValidation;
+                return this;
+            }
+
+            @java.lang.SuppressWarnings("all")
+            /**
+             * Defines that xmiid-s are checked for uniqueness while the model is loaded. Default: false
+             */
+            public AsmModelResourceSupport.LoadArguments.LoadArgumentsBuilder validateUniqueXmiids(
+                    boolean validateUniqueXmiids) {
+                this.validateUniqueXmiids = validateUniqueXmiids;
+                return this;
+            }
+
+            @java.lang.SuppressWarnings("all")
+            /**
+             * Defines that model is loaded in binary format (see {@link AsmBinaryFormat}). Default: false, binary
+             * format is used only if the URI or file has {@link AsmBinaryFormat#FILE_EXTENSION} extension.
+             */
+            public AsmModelResourceSupport.LoadArguments.LoadArgumentsBuilder binary(boolean binary) {
+                this.binary = binary;
+                return this;
+            }
+
+            @java.lang.SuppressWarnings("all")
+            /**
+             * Defines the persistent cache of validation results. When it is defined, validation is skipped if the
+             * same model content was validated before. If not defined, model is always validated. Cache is not used
+             * for split models (see {@link AsmPackageResources}), only content of the resource of the model is
+             * digested.
+             */
+            public AsmModelResourceSupport.LoadArguments.LoadArgumentsBuilder validationCache(
+                    final AsmValidationCache validationCache) {
+                requireNonNull(validationCache);
+                this.validationCache = validationCache;
+                validationCache$set = true;
+                return this;
+            }
+
+            @java.lang.SuppressWarnings("all")
+            /**
+             * Defines how the file is read (see {@link AsmReadStrategy}). Default: {@link AsmReadStrategy#BUFFERED}
+             */
+            public AsmModelResourceSupport.LoadArguments.LoadArgumentsBuilder readStrategy(final AsmReadStrategy readStrategy) {
+                requireNonNull(readStrategy);
+                this.readStrategy = readStrategy;
+                readStrategy$set = true;
+                return this;
+            }
+
+            @java.lang.SuppressWarnings("all")
+            /**
+             * Defines the load profile (see {@link AsmLoadProfile}), its load options are used when load options are
+             * not defined. Default: {@link AsmLoadProfile#DEFAULT}
+             */
+            public AsmModelResourceSupport.LoadArguments.LoadArgumentsBuilder loadProfile(final AsmLoadProfile loadProfile) {
+                requireNonNull(loadProfile);
+                this.loadProfile = loadProfile;
+                loadProfile$set = true;
+                return this;
+            }
+
+            @java.lang.SuppressWarnings("all")
+            /**
+             * Defines the compression of the model (see {@link AsmCompression}). If not defined, compression is
+             * selected by the file extension of the file or URI, or it is detected by the magic bytes of the content.
+             */
+            public AsmModelResourceSupport.LoadArguments.LoadArgumentsBuilder compression(
+                    final AsmCompression compression) {
+                requireNonNull(compression);
+                this.compression = compression;
+                compression$set = true;
+                return this;
+            }
+
+            @java.lang.SuppressWarnings("all")
+            /**
+             * Defines the executor resources of packages of a split model (see {@link AsmPackageResources}) are
+             * loaded in parallel (see {@link AsmParallelLoader}) after the model is loaded. If not defined,
+             * resources of packages are loaded on demand.
+             */
+            public AsmModelResourceSupport.LoadArguments.LoadArgumentsBuilder executor(final Executor executor) {
+                requireNonNull(executor);
+                this.executor = executor;
+                executor$set = true;
+                return this;
+            }
+
+            @java.lang.SuppressWarnings("all")
+            /**
+             * Defines the load session sharing parser pool, name to feature map and lookup table between loads of
+             * {@link AsmLoadProfile#FAST} profile (see {@link AsmLoadSession}). If not defined, a new session is
+             * created for each load.
+             */
+            public AsmModelResourceSupport.LoadArguments.LoadArgumentsBuilder loadSession(final AsmLoadSession loadSession) {
+                requireNonNull(loadSession);
+                this.loadSession = loadSession;
+                loadSession$set = true;
+                return this;
+            }
+
             @java.lang.SuppressWarnings("all")
             /**
              * Defines the file if it is not loaded from URI. If not defined, URI is used. If inputStream is defined
@@ -900,9 +1401,22 @@ public class AsmModelResourceSupport {
                 if (!file$set) file = AsmModelResourceSupport.LoadArguments.$default$file();
                 InputStream inputStream = this.inputStream;
                 if (!inputStream$set) inputStream = AsmModelResourceSupport.LoadArguments.$default$inputStream();
+                AsmValidationCache validationCache = this.validationCache;
+                if (!validationCache$set) validationCache = AsmModelResourceSupport.LoadArguments.$default$validationCache();
+                AsmReadStrategy readStrategy = this.readStrategy;
+                if (!readStrategy$set) readStrategy = AsmModelResourceSupport.LoadArguments.$default$readStrategy();
+                AsmLoadProfile loadProfile = this.loadProfile;
+                if (!loadProfile$set) loadProfile = AsmModelResourceSupport.LoadArguments.$default$loadProfile();
+                AsmCompression compression = this.compression;
+                if (!compression$set) compression = AsmModelResourceSupport.LoadArguments.$default$compression();
+                Executor executor = this.executor;
+                if (!executor$set) executor = AsmModelResourceSupport.LoadArguments.$default$executor();
+                AsmLoadSession loadSession = this.loadSession;
+                if (!loadSession$set) loadSession = AsmModelResourceSupport.LoadArguments.$default$loadSession();
 
                 return new AsmModelResourceSupport.LoadArguments(uri, uriHandler, resourceSet,
-                        loadOptions, validateModel, file, inputStream);
+                        loadOptions, validateModel, parallelValidation, validateUniqueXmiids, binary, validationCache,
+                        readStrategy, loadProfile, compression, executor, loadSession, file, inputStream);
             }
 
             @java.lang.Override
@@ -913,6 +1427,15 @@ public class AsmModelResourceSupport {
                         + ", resourceSet=" + this.resourceSet
                         + ", loadOptions=" + this.loadOptions
                         + ", validateModel=" + this.validateModel
+                        + ", parallelValidation=" + this.parallelValidation
+                        + ", validateUniqueXmiids=" + this.validateUniqueXmiids
+                        + ", binary=" + this.binary
+                        + ", validationCache=" + this.validationCache
+                        + ", readStrategy=" + this.readStrategy
+                        + ", loadProfile=" + this.loadProfile
+                        + ", compression=" + this.compression
+                        + ", executor=" + this.executor
+                        + ", loadSession=" + this.loadSession
                         + ", file=" + this.file
                         + ", inputStream=" + this.inputStream
                         + ")";
@@ -928,6 +1451,15 @@ public class AsmModelResourceSupport {
                               final ResourceSet resourceSet,
                               final Map<Object, Object> loadOptions,
                               final boolean validateModel,
+                              final boolean parallelValidation,
+                              final boolean validateUniqueXmiids,
+                              final boolean binary,
+                              final AsmValidationCache validationCache,
+                              final AsmReadStrategy readStrategy,
+                              final AsmLoadProfile loadProfile,
+                              final AsmCompression compression,
+                              final Executor executor,
+                              final AsmLoadSession loadSession,
                               final File file,
                               final InputStream inputStream) {
             this.uri = uri;
@@ -935,6 +1467,15 @@ public class AsmModelResourceSupport {
             this.resourceSet = resourceSet;
             this.loadOptions = loadOptions;
             this.validateModel = validateModel;
+            this.parallelValidation = parallelValidation;
+            this.validateUniqueXmiids = validateUniqueXmiids;
+            this.binary = binary;
+            this.validationCache = validationCache;
+            this.readStrategy = readStrategy;
+            this.loadProfile = loadProfile;
+            this.compression = compression;
+            this.executor = executor;
+            this.loadSession = loadSession;
             this.file = file;
             this.inputStream = inputStream;
         }
@@ -949,6 +1490,10 @@ public class AsmModelResourceSupport {
         File file;
         Map<Object, Object> saveOptions;
         boolean validateModel;
+        boolean binary;
+        AsmCompression compression;
+        AsmIdStrategy idStrategy;
+        boolean splitPackages;
 
         private static OutputStream $default$outputStream() {
             return null;
@@ -962,6 +1507,14 @@ public class AsmModelResourceSupport {
             return null;
         }
 
+        private static AsmCompression $default$compression() {
+            return null;
+        }
+
+        private static AsmIdStrategy $default$idStrategy() {
+            return null;
+        }
+
         Optional<OutputStream> getOutputStream() {
             return ofNullable(outputStream);
         }
@@ -978,6 +1531,22 @@ public class AsmModelResourceSupport {
             return validateModel;
         }
 
+        boolean isBinary() {
+            return binary;
+        }
+
+        Optional<AsmCompression> getCompression() {
+            return ofNullable(compression);
+        }
+
+        Optional<AsmIdStrategy> getIdStrategy() {
+            return ofNullable(idStrategy);
+        }
+
+        boolean isSplitPackages() {
+            return splitPackages;
+        }
+
         @java.lang.SuppressWarnings("all")
         /**
          * Builder for {@link AsmModelResourceSupport#saveAsmModel(AsmModelResourceSupport.SaveArguments)}.
@@ -994,6 +1563,16 @@ public class AsmModelResourceSupport {
 
             private boolean validateModel = true;
 
+            private boolean binary;
+
+            private boolean compression$set;
+            private AsmCompression compression;
+
+            private boolean idStrategy$set;
+            private AsmIdStrategy idStrategy;
+
+            private boolean splitPackages;
+
             public Optional<OutputStream> getOutputStream() {
                 return ofNullable(outputStream);
             }
@@ -1010,6 +1589,22 @@ public class AsmModelResourceSupport {
                 return validateModel;
             }
 
+            public boolean isBinary() {
+                return binary;
+            }
+
+            public Optional<AsmCompression> getCompression() {
+                return ofNullable(compression);
+            }
+
+            public Optional<AsmIdStrategy> getIdStrategy() {
+                return ofNullable(idStrategy);
+            }
+
+            public boolean isSplitPackages() {
+                return splitPackages;
+            }
+
             SaveArgumentsBuilder() {
             }
 
@@ -1057,6 +1652,50 @@ public class AsmModelResourceSupport {
                 return this;
             }
 
+            /**
+             * Defines that model is saved in binary format (see {@link AsmBinaryFormat}). Default: false, binary
+             * format is used only if the URI or file has {@link AsmBinaryFormat#FILE_EXTENSION} extension.
+             */
+            public AsmModelResourceSupport.SaveArguments.SaveArgumentsBuilder binary(boolean binary) {
+                this.binary = binary;
+                return this;
+            }
+
+            /**
+             * Defines the compression of the saved model (see {@link AsmCompression}). If not defined, compression is
+             * selected by the file extension of the file or URI.
+             */
+            public AsmModelResourceSupport.SaveArguments.SaveArgumentsBuilder compression(
+                    final AsmCompression compression) {
+                requireNonNull(compression);
+                this.compression = compression;
+                compression$set = true;
+                return this;
+            }
+
+            /**
+             * Defines the strategy of xmiid-s (see {@link AsmIdStrategy}), xmiid-s of all elements are assigned by it
+             * before save. If not defined, the strategy of the model is used, existing xmiid-s are kept without it.
+             */
+            public AsmModelResourceSupport.SaveArguments.SaveArgumentsBuilder idStrategy(
+                    final AsmIdStrategy idStrategy) {
+                requireNonNull(idStrategy);
+                this.idStrategy = idStrategy;
+                idStrategy$set = true;
+                return this;
+            }
+
+            /**
+             * Defines that sub-packages of the model are saved to their own resources (see
+             * {@link AsmPackageResources}). The model is saved to its URI or to the file, it keeps its URI after save
+             * and a model which was not split is merged back. When it is false, split packages are merged back to
+             * the model. Default: false
+             */
+            public AsmModelResourceSupport.SaveArguments.SaveArgumentsBuilder splitPackages(boolean splitPackages) {
+                this.splitPackages = splitPackages;
+                return this;
+            }
+
             public AsmModelResourceSupport.SaveArguments build() {
                 OutputStream outputStream = this.outputStream;
                 if (!outputStream$set) outputStream = AsmModelResourceSupport.SaveArguments.$default$outputStream();
@@ -1064,14 +1703,23 @@ public class AsmModelResourceSupport {
                 if (!file$set) file = AsmModelResourceSupport.SaveArguments.$default$file();
                 Map<Object, Object> saveOptions = this.saveOptions;
                 if (!saveOptions$set) saveOptions = AsmModelResourceSupport.SaveArguments.$default$saveOptions();
-                return new AsmModelResourceSupport.SaveArguments(outputStream, file, saveOptions, validateModel);
+                AsmCompression compression = this.compression;
+                if (!compression$set) compression = AsmModelResourceSupport.SaveArguments.$default$compression();
+                AsmIdStrategy idStrategy = this.idStrategy;
+                if (!idStrategy$set) idStrategy = AsmModelResourceSupport.SaveArguments.$default$idStrategy();
+                return new AsmModelResourceSupport.SaveArguments(outputStream, file, saveOptions, validateModel,
+                        binary, compression, idStrategy, splitPackages);
             }
 
             @java.lang.Override
             public java.lang.String toString() {
                 return "AsmModelResourceSupport.SaveArguments.SaveArgumentsBuilder(outputStream=" + this.outputStream
                         + ", file=" + this.file
-                        + ", saveOptions=" + this.saveOptions + ")";
+                        + ", saveOptions=" + this.saveOptions
+                        + ", binary=" + this.binary
+                        + ", compression=" + this.compression
+                        + ", idStrategy=" + this.idStrategy
+                        + ", splitPackages=" + this.splitPackages + ")";
             }
         }
 
@@ -1082,11 +1730,19 @@ public class AsmModelResourceSupport {
         private SaveArguments(final OutputStream outputStream,
                               final File file,
                               final Map<Object, Object> saveOptions,
-                              final boolean validateModel) {
+                              final boolean validateModel,
+                              final boolean binary,
+                              final AsmCompression compression,
+                              final AsmIdStrategy idStrategy,
+                              final boolean splitPackages) {
             this.outputStream = outputStream;
             this.file = file;
             this.saveOptions = saveOptions;
             this.validateModel = validateModel;
+            this.binary = binary;
+            this.compression = compression;
+            this.idStrategy = idStrategy;
+            this.splitPackages = splitPackages;
         }
     }
 
@@ -1109,36 +1765,4 @@ public class AsmModelResourceSupport {
         }
     }
 
-    // TODO: Create ticket on Eclipse. The problem is that the DelegatingResourceLocator
-    // creating a baseURL which ends with two trailing slash and the ResourceBundle cannot open the files.
-    // This bug is came on Felix based OSGi container.
-    private static void fixEcoreUri() {
-        try {
-            URL baseUrl = EcorePlugin.INSTANCE.getBaseURL();
-            if (baseUrl.toString().startsWith("bundle:") && baseUrl.toString().endsWith("//")) {
-                URL fixedUrl = new URL(baseUrl.toString().substring(0, baseUrl.toString().length() - 1));
-                Field myField = getField(DelegatingResourceLocator.class, "baseURL");
-                myField.setAccessible(true);
-                myField.set(EcorePlugin.INSTANCE, fixedUrl);
-            }
-        } catch (Throwable t) {
-            t.printStackTrace(System.out);
-        }
-
-    }
-
-    private static Field getField(Class clazz, String fieldName)
-            throws NoSuchFieldException {
-        try {
-            return clazz.getDeclaredField(fieldName);
-        } catch (NoSuchFieldException e) {
-            Class superClass = clazz.getSuperclass();
-            if (superClass == null) {
-                throw e;
-            } else {
-                return getField(superClass, fieldName);
-            }
-        }
-    }
-
 }
@@ -0,0 +1,427 @@
+package hu.blackbelt.judo.meta.asm.support;
+
+/*-
+ * #%L
+ * Judo :: Asm :: Model
+ * %%
+ * Copyright (C) 2018 - 2022 BlackBelt Technology
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+
+import org.eclipse.emf.common.notify.Notifier;
+import org.eclipse.emf.common.util.BasicDiagnostic;
+import org.eclipse.emf.common.util.Diagnostic;
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.InternalEObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.util.Diagnostician;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Structural (EMF constraint) validator of ASM models.
+ * <p>
+ * {@link Diagnostician#validate(EObject)} validates the whole containment subtree of the given object, so validating
+ * every element of a model one by one visits each element once per containment ancestor. This validator traverses
+ * the contents of the resources once (starting from resource roots) and validates each element without its contents,
+ * so every element is validated exactly once. Elements contained by an element of an other resource (for example
+ * packages split to their own resources) are validated with the contents of their own resource only.
+ */
+public class AsmModelValidator {
+
+    private final ResourceSet resourceSet;
+
+    public AsmModelValidator(final ResourceSet resourceSet) {
+        this.resourceSet = resourceSet;
+    }
+
+    /**
+     * Validate all elements of the model in a new {@link AsmValidationSession}. Only {@link Diagnostic#WARNING} and
+     * {@link Diagnostic#ERROR} diagnostics are returned.
+     *
+     * @return diagnostics in order of model traversal
+     */
+    public List<Diagnostic> validate() {
+        return validate(new AsmValidationSession());
+    }
+
+    /**
+     * Validate all elements of the model. Only {@link Diagnostic#WARNING} and {@link Diagnostic#ERROR} diagnostics
+     * are returned.
+     *
+     * @param session validation session
+     * @return diagnostics in order of model traversal
+     */
+    public List<Diagnostic> validate(final AsmValidationSession session) {
+        final BasicDiagnostic diagnostics = new BasicDiagnostic();
+        for (Iterator<EObject> iterator = new ContentsIterator(resourceSet); iterator.hasNext(); ) {
+            session.validate(iterator.next(), diagnostics);
+        }
+        return getReportedDiagnostics(diagnostics);
+    }
+
+    /**
+     * Get diagnostics of the model as a lazy stream. Elements are validated while the stream is consumed, so
+     * limiting the stream (for example by {@link Stream#limit(long)} or {@link Stream#findFirst()}) stops
+     * validation.
+     *
+     * @param minSeverity minimal severity of diagnostics (for example {@link Diagnostic#WARNING})
+     * @return stream of diagnostics in order of model traversal
+     */
+    public Stream<AsmDiagnostic> stream(final int minSeverity) {
+        return StreamSupport.stream(new DiagnosticSpliterator(new ContentsIterator(resourceSet), minSeverity), false);
+    }
+
+    /**
+     * Validate the model and pass diagnostics to a consumer as they are found.
+     *
+     * @param consumer    consumer of diagnostics
+     * @param minSeverity minimal severity of diagnostics (for example {@link Diagnostic#WARNING})
+     * @param maxCount    maximum number of diagnostics, validation stops when it is reached
+     * @return number of diagnostics passed to consumer
+     */
+    public long validate(final Consumer<? super AsmDiagnostic> consumer, final int minSeverity, final long maxCount) {
+        final long[] count = new long[1];
+        stream(minSeverity).limit(maxCount).forEach(diagnostic -> {
+            consumer.accept(diagnostic);
+            count[0]++;
+        });
+        return count[0];
+    }
+
+    /**
+     * Validate all elements of the model in parallel on the common {@link ForkJoinPool}.
+     *
+     * @return diagnostics in order of model traversal
+     * @see #validateParallel(ForkJoinPool)
+     */
+    public List<Diagnostic> validateParallel() {
+        return validateParallel(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Validate all elements of the model in parallel. Containment tree is split by packages: packages are validated
+     * without their contents, all other elements (classifiers, annotations, etc.) contained by packages are validated
+     * with their contents as separate tasks. Each task uses its own {@link AsmValidationSession}, diagnostics of
+     * tasks are merged in order of model traversal, so the result is the same as of {@link #validate()}.
+     * <p>
+     * Resolving proxies and the first access of derived features of classes (<code>eAllSuperTypes</code>,
+     * <code>eAllStructuralFeatures</code>, etc.) change the model, so they are done on the calling thread before
+     * tasks are forked: all proxies of the resource set are resolved and derived features of model classes and
+     * their metaclasses are computed. Model must not be changed during validation.
+     *
+     * @param pool fork-join pool tasks are executed on
+     * @return diagnostics in order of model traversal
+     */
+    public List<Diagnostic> validateParallel(final ForkJoinPool pool) {
+        final List<ValidationTask> tasks = split();
+        final List<List<Diagnostic>> taskDiagnostics = execute(pool, () -> tasks.parallelStream()
+                .map(ValidationTask::validate)
+                .collect(Collectors.toList()));
+
+        final List<Diagnostic> result = new ArrayList<>();
+        taskDiagnostics.forEach(result::addAll);
+        return result;
+    }
+
+    /**
+     * Check if the model has no {@link Diagnostic#ERROR} diagnostic. Validation stops on the first error and
+     * diagnostics are not created for valid elements, so it is cheaper than checking result of {@link #validate()}.
+     *
+     * @return <code>true</code> if model is valid, <code>false</code> otherwise
+     */
+    public boolean isValid() {
+        return isValid(new AsmValidationSession());
+    }
+
+    /**
+     * Check if the model has no {@link Diagnostic#ERROR} diagnostic. Validation stops on the first error.
+     *
+     * @param session validation session
+     * @return <code>true</code> if model is valid, <code>false</code> otherwise
+     * @see #isValid()
+     */
+    public boolean isValid(final AsmValidationSession session) {
+        for (Iterator<EObject> iterator = new ContentsIterator(resourceSet); iterator.hasNext(); ) {
+            if (session.hasError(iterator.next())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Check if the model has no {@link Diagnostic#ERROR} diagnostic in parallel on the common {@link ForkJoinPool}.
+     *
+     * @return <code>true</code> if model is valid, <code>false</code> otherwise
+     * @see #isValidParallel(ForkJoinPool)
+     */
+    public boolean isValidParallel() {
+        return isValidParallel(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Check if the model has no {@link Diagnostic#ERROR} diagnostic in parallel. Model is split as by
+     * {@link #validateParallel(ForkJoinPool)}, all tasks are stopped on the first error.
+     *
+     * @param pool fork-join pool tasks are executed on
+     * @return <code>true</code> if model is valid, <code>false</code> otherwise
+     */
+    public boolean isValidParallel(final ForkJoinPool pool) {
+        final List<ValidationTask> tasks = split();
+        final AtomicBoolean errorFound = new AtomicBoolean();
+        return execute(pool, () -> tasks.parallelStream().noneMatch(task -> task.hasError(errorFound)));
+    }
+
+    private List<ValidationTask> split() {
+        prepare();
+        final List<ValidationTask> tasks = new ArrayList<>();
+        for (int i = 0; i < resourceSet.getResources().size(); i++) {
+            for (EObject root : resourceSet.getResources().get(i).getContents()) {
+                split(root, tasks);
+            }
+        }
+        return tasks;
+    }
+
+    private void prepare() {
+        EcoreUtil.resolveAll(resourceSet);
+        final Set<EClass> eClasses = new HashSet<>();
+        for (Iterator<Notifier> iterator = resourceSet.getAllContents(); iterator.hasNext(); ) {
+            final Notifier notifier = iterator.next();
+            if (notifier instanceof EObject) {
+                eClasses.add(((EObject) notifier).eClass());
+            }
+            if (notifier instanceof EClass) {
+                eClasses.add((EClass) notifier);
+            }
+        }
+        eClasses.forEach(eClass -> {
+            eClass.getEAllSuperTypes();
+            eClass.getEAllGenericSuperTypes();
+            eClass.getEAllStructuralFeatures();
+            eClass.getEAllAttributes();
+            eClass.getEAllReferences();
+            eClass.getEAllContainments();
+            eClass.getEAllOperations();
+            eClass.getEIDAttribute();
+        });
+    }
+
+    private static <T> T execute(final ForkJoinPool pool, final Callable<T> callable) {
+        try {
+            return pool.submit(callable).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Model validation is interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Model validation failed", e.getCause());
+        }
+    }
+
+    private static void split(final EObject eObject, final List<ValidationTask> tasks) {
+        if (eObject instanceof EPackage) {
+            tasks.add(new ValidationTask(eObject, false));
+            for (EObject content : eObject.eContents()) {
+                if (!isContainedByOtherResource(content, eObject.eResource())) {
+                    split(content, tasks);
+                }
+            }
+        } else {
+            tasks.add(new ValidationTask(eObject, true));
+        }
+    }
+
+    private static boolean isContainedByOtherResource(final EObject eObject, final Resource resource) {
+        final Resource directResource = ((InternalEObject) eObject).eDirectResource();
+        return directResource != null && directResource != resource;
+    }
+
+    private static List<Diagnostic> getReportedDiagnostics(final Diagnostic diagnostics) {
+        final List<Diagnostic> result = new ArrayList<>();
+        for (Diagnostic diagnostic : diagnostics.getChildren()) {
+            if (diagnostic.getSeverity() > Diagnostic.INFO) {
+                result.add(diagnostic);
+            }
+        }
+        return result;
+    }
+
+    private static class ValidationTask {
+
+        private final EObject root;
+
+        private final boolean contentsIncluded;
+
+        ValidationTask(final EObject root, final boolean contentsIncluded) {
+            this.root = root;
+            this.contentsIncluded = contentsIncluded;
+        }
+
+        List<Diagnostic> validate() {
+            final AsmValidationSession session = new AsmValidationSession();
+            final BasicDiagnostic diagnostics = new BasicDiagnostic();
+            session.validate(root, diagnostics);
+            if (contentsIncluded) {
+                for (Iterator<EObject> iterator = new ContentsIterator(root); iterator.hasNext(); ) {
+                    session.validate(iterator.next(), diagnostics);
+                }
+            }
+            return getReportedDiagnostics(diagnostics);
+        }
+
+        boolean hasError(final AtomicBoolean errorFound) {
+            final AsmValidationSession session = new AsmValidationSession();
+            if (session.hasError(root)) {
+                errorFound.set(true);
+                return true;
+            }
+            if (contentsIncluded) {
+                for (Iterator<EObject> iterator = new ContentsIterator(root); iterator.hasNext() && !errorFound.get(); ) {
+                    if (session.hasError(iterator.next())) {
+                        errorFound.set(true);
+                        return true;
+                    }
+                }
+            }
+            return errorFound.get();
+        }
+    }
+
+    private static class DiagnosticSpliterator extends Spliterators.AbstractSpliterator<AsmDiagnostic> {
+
+        private final Iterator<EObject> contents;
+
+        private final int minSeverity;
+
+        private final AsmValidationSession session = new AsmValidationSession();
+
+        private final Deque<AsmDiagnostic> buffer = new ArrayDeque<>();
+
+        DiagnosticSpliterator(final Iterator<EObject> contents, final int minSeverity) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.contents = contents;
+            this.minSeverity = minSeverity;
+        }
+
+        @Override
+        public boolean tryAdvance(final Consumer<? super AsmDiagnostic> action) {
+            while (buffer.isEmpty()) {
+                if (!contents.hasNext()) {
+                    return false;
+                }
+                validate(contents.next());
+            }
+            action.accept(buffer.poll());
+            return true;
+        }
+
+        private void validate(final EObject eObject) {
+            if (minSeverity >= Diagnostic.ERROR && !session.hasError(eObject)) {
+                return;
+            }
+            final BasicDiagnostic diagnostics = new BasicDiagnostic();
+            session.validate(eObject, diagnostics);
+            for (Diagnostic diagnostic : diagnostics.getChildren()) {
+                if (diagnostic.getSeverity() >= minSeverity) {
+                    buffer.add(new AsmDiagnostic(diagnostic));
+                }
+            }
+        }
+    }
+
+    /**
+     * Iterator of elements of resources (or contents of an element) skipping elements contained by other resources.
+     * Resources are iterated by index, so resources loaded by resolving proxies during iteration are iterated too.
+     */
+    static class ContentsIterator implements Iterator<EObject> {
+
+        private final ResourceSet resourceSet;
+
+        private int resourceIndex;
+
+        private Resource resource;
+
+        private TreeIterator<EObject> contents;
+
+        private EObject next;
+
+        ContentsIterator(final ResourceSet resourceSet) {
+            this.resourceSet = resourceSet;
+        }
+
+        ContentsIterator(final EObject root) {
+            this.resourceSet = null;
+            this.resource = root.eResource();
+            this.contents = root.eAllContents();
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null) {
+                if (contents != null && contents.hasNext()) {
+                    final EObject eObject = contents.next();
+                    if (isContainedByOtherResource(eObject, resource)) {
+                        contents.prune();
+                    } else {
+                        next = eObject;
+                    }
+                } else if (resourceSet != null && resourceIndex < resourceSet.getResources().size()) {
+                    resource = resourceSet.getResources().get(resourceIndex++);
+                    contents = resource.getAllContents();
+                } else {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public EObject next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final EObject result = next;
+            next = null;
+            return result;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package hu.blackbelt.judo.meta.asm.support;
+
+/*-
+ * #%L
+ * Judo :: Asm :: Model
+ * %%
+ * Copyright (C) 2018 - 2022 BlackBelt Technology
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.InternalEObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.ecore.util.InternalEList;
+import org.eclipse.emf.ecore.xmi.XMLResource;
+import org.eclipse.emf.ecore.xmi.impl.XMLResourceImpl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resources of packages of split Asm models.
+ * <p>
+ * A split model is stored in the resource of the model (containing the root packages) and one resource per
+ * sub-package, sub-packages are contained across resources. When a split model is loaded only the resource of the
+ * model is loaded, sub-packages are proxies until they are accessed, so resources of packages which are not used
+ * are never loaded.
+ * <p>
+ * URI of the resource of a package is the URI of the model with the names of the packages from the root package
+ * inserted before the file extension, e.g. <code>model.demo.entities.asm</code> for the <code>entities</code>
+ * package of the <code>demo</code> package stored in <code>model.asm</code>.
+ */
+public class AsmPackageResources {
+
+    /**
+     * Get URI of the resource of a package.
+     *
+     * @param modelUri URI of the model
+     * @param ePackage package
+     * @return URI of the resource of the package
+     */
+    public static URI getPackageResourceUri(final URI modelUri, final EPackage ePackage) {
+        final StringBuilder packagePath = new StringBuilder(ePackage.getName());
+        for (EPackage parent = ePackage.getESuperPackage(); parent != null; parent = parent.getESuperPackage()) {
+            packagePath.insert(0, parent.getName() + ".");
+        }
+
+        final AsmCompression compression = AsmCompression.of(modelUri);
+        final URI uncompressedUri = AsmCompression.trimFileExtension(modelUri);
+        final String fileExtension = uncompressedUri.fileExtension();
+        final URI baseUri = fileExtension != null ? uncompressedUri.trimFileExtension() : uncompressedUri;
+        // URIs without path segments (for example urn:model) are extended as a whole
+        URI packageUri = baseUri.segmentCount() > 0
+                ? baseUri.trimSegments(1).appendSegment(baseUri.lastSegment() + "." + packagePath)
+                : URI.createURI(baseUri + "." + packagePath);
+        if (fileExtension != null) {
+            packageUri = packageUri.appendFileExtension(fileExtension);
+        }
+        if (compression != AsmCompression.NONE) {
+            packageUri = packageUri.appendFileExtension(compression.getFileExtension());
+        }
+        return packageUri;
+    }
+
+    /**
+     * Move all sub-packages of the model to their own resources (see
+     * {@link #getPackageResourceUri(URI, EPackage)}). Resources are created in the resource set of the model.
+     *
+     * @param resource resource of the model
+     * @return resources of packages
+     * @throws IllegalStateException if the resource of the model does not belong to a resource set
+     */
+    public static List<Resource> split(final Resource resource) {
+        if (resource.getResourceSet() == null) {
+            throw new IllegalStateException("Resource is not in a resource set: " + resource.getURI());
+        }
+        final List<Resource> packageResources = new ArrayList<>();
+        for (EObject root : resource.getContents()) {
+            if (root instanceof EPackage) {
+                split(resource, (EPackage) root, packageResources);
+            }
+        }
+        return packageResources;
+    }
+
+    private static void split(final Resource resource, final EPackage ePackage, final List<Resource> packageResources) {
+        for (EPackage subPackage : ePackage.getESubpackages()) {
+            final URI packageResourceUri = getPackageResourceUri(resource.getURI(), subPackage);
+            final Resource directResource = ((InternalEObject) subPackage).eDirectResource();
+            if (directResource == null || !packageResourceUri.equals(directResource.getURI())) {
+                final ResourceSet resourceSet = resource.getResourceSet();
+                Resource packageResource = resourceSet.getResource(packageResourceUri, false);
+                if (packageResource == null) {
+                    packageResource = resourceSet.createResource(packageResourceUri);
+                } else {
+                    packageResource.getContents().clear();
+                }
+                packageResource.getContents().add(subPackage);
+            }
+            packageResources.add(subPackage.eResource());
+            split(resource, subPackage, packageResources);
+        }
+    }
+
+    /**
+     * Move all sub-packages back to the resource of the model, resources of packages are loaded if they are not
+     * loaded yet and they are removed from the resource set. xmiid-s of moved elements are kept.
+     * <p>
+     * All proxies of the model are resolved before, references to elements of packages are not serialized as
+     * references to resources of packages which are removed.
+     *
+     * @param resource resource of the model
+     */
+    public static void merge(final Resource resource) {
+        EcoreUtil.resolveAll(resource);
+        for (EObject root : resource.getContents()) {
+            if (root instanceof EPackage) {
+                merge((EPackage) root);
+            }
+        }
+    }
+
+    private static void merge(final EPackage ePackage) {
+        for (EPackage subPackage : ePackage.getESubpackages()) {
+            final Resource packageResource = ((InternalEObject) subPackage).eDirectResource();
+            if (packageResource != null) {
+                final Map<EObject, String> ids = packageResource instanceof XMLResourceImpl
+                        ? new HashMap<>(((XMLResourceImpl) packageResource).getEObjectToIDMap())
+                        : Collections.emptyMap();
+                packageResource.getContents().remove(subPackage);
+                if (subPackage.eResource() instanceof XMLResource) {
+                    final XMLResource resource = (XMLResource) subPackage.eResource();
+                    ids.forEach(resource::setID);
+                }
+                if (packageResource.getContents().isEmpty() && packageResource.getResourceSet() != null) {
+                    packageResource.getResourceSet().getResources().remove(packageResource);
+                }
+            }
+            merge(subPackage);
+        }
+    }
+
+    /**
+     * Checks the model is split, proxies of sub-packages are not resolved.
+     *
+     * @param resource resource of the model
+     * @return true if any sub-package is stored in another resource
+     */
+    public static boolean isSplit(final Resource resource) {
+        for (EObject root : resource.getContents()) {
+            if (root instanceof EPackage && isSplit((EPackage) root)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isSplit(final EPackage ePackage) {
+        for (EPackage subPackage : ((InternalEList<EPackage>) ePackage.getESubpackages()).basicList()) {
+            if (subPackage.eIsProxy() || ((InternalEObject) subPackage).eDirectResource() != null
+                    || isSplit(subPackage)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,219 @@
+package hu.blackbelt.judo.meta.asm.support;
+
+/*-
+ * #%L
+ * Judo :: Asm :: Model
+ * %%
+ * Copyright (C) 2018 - 2022 BlackBelt Technology
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.InternalEObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.emf.ecore.util.InternalEList;
+import org.eclipse.emf.ecore.xmi.XMLResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Parallel loading of resources of Asm models.
+ * <p>
+ * Resources are parsed concurrently on an executor. Each resource is parsed in its own resource set sharing the
+ * package registry and URI converter of the target resource set, so a resource being parsed is confined to the
+ * thread parsing it. Parsed resources are linked to the target resource set on the calling thread, references
+ * between them are resolved by the target resource set as usual.
+ */
+public class AsmParallelLoader {
+
+    private AsmParallelLoader() {
+    }
+
+    /**
+     * Load resources in parallel on the common {@link ForkJoinPool}.
+     *
+     * @param resourceSet target resource set
+     * @param uris        URIs of resources
+     * @return resources in order of URIs
+     * @throws IOException when IO error occurred
+     * @see #load(ResourceSet, Collection, Map, Executor)
+     */
+    public static List<Resource> load(final ResourceSet resourceSet, final Collection<URI> uris)
+            throws IOException {
+        return load(resourceSet, uris, resourceSet.getLoadOptions(), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Load resources in parallel and add them to the target resource set. Resources which are in the target
+     * resource set already are not parsed again, they are loaded on demand by the resource set if they are not
+     * loaded yet.
+     *
+     * @param resourceSet target resource set
+     * @param uris        URIs of resources
+     * @param loadOptions load options of resources
+     * @param executor    executor resources are parsed on
+     * @return resources in order of URIs
+     * @throws IOException when IO error occurred
+     */
+    public static List<Resource> load(final ResourceSet resourceSet, final Collection<URI> uris,
+                                      final Map<?, ?> loadOptions, final Executor executor) throws IOException {
+        final Set<URI> resourceUris = new LinkedHashSet<>(uris);
+        final List<CompletableFuture<Resource>> futures = new ArrayList<>(resourceUris.size());
+        for (URI uri : resourceUris) {
+            if (resourceSet.getResource(uri, false) != null) {
+                futures.add(null);
+                continue;
+            }
+            final Resource.Factory factory = resourceSet.getResourceFactoryRegistry().getFactory(uri);
+            if (factory == null) {
+                throw new IllegalArgumentException("No resource factory is registered for " + uri);
+            }
+            final Resource resource = factory.createResource(uri);
+            futures.add(CompletableFuture.supplyAsync(() -> parse(resourceSet, resource, loadOptions), executor));
+        }
+
+        final List<Resource> resources = new ArrayList<>(resourceUris.size());
+        IOException failure = null;
+        int index = 0;
+        for (URI uri : resourceUris) {
+            final CompletableFuture<Resource> future = futures.get(index++);
+            try {
+                if (future != null) {
+                    // all resources are parsed before the first failure is thrown
+                    resources.add(future.get());
+                } else if (failure == null) {
+                    resources.add(resourceSet.getResource(uri, true));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Loading of " + uri + " is interrupted", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof UncheckedIOException) {
+                    failure = failure != null ? failure : ((UncheckedIOException) e.getCause()).getCause();
+                } else if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                } else {
+                    throw new IllegalStateException("Loading of " + uri + " failed", e.getCause());
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+
+        for (Resource resource : resources) {
+            if (resource.getResourceSet() == null) {
+                resourceSet.getResources().add(resource);
+            }
+        }
+        return resources;
+    }
+
+    /**
+     * Load resources of packages of a split model (see {@link AsmPackageResources}) in parallel on the common
+     * {@link ForkJoinPool}.
+     *
+     * @param resource resource of the model
+     * @return resources of packages
+     * @throws IOException when IO error occurred
+     * @see #loadPackages(Resource, Executor)
+     */
+    public static List<Resource> loadPackages(final Resource resource) throws IOException {
+        return loadPackages(resource, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Load resources of packages of a split model (see {@link AsmPackageResources}) in parallel with the load
+     * options of its resource set. Packages are loaded level by level, resources of all sub-packages of a level are
+     * loaded at once, so sub-packages are not resolved one by one.
+     *
+     * @param resource resource of the model
+     * @param executor executor resources are parsed on
+     * @return resources of packages
+     * @throws IOException when IO error occurred
+     */
+    public static List<Resource> loadPackages(final Resource resource, final Executor executor) throws IOException {
+        final ResourceSet resourceSet = resource.getResourceSet();
+        if (resourceSet == null) {
+            throw new IllegalStateException("Resource is not in a resource set: " + resource.getURI());
+        }
+        final List<Resource> packageResources = new ArrayList<>();
+        List<EPackage> ePackages = new ArrayList<>();
+        for (EObject root : resource.getContents()) {
+            if (root instanceof EPackage) {
+                ePackages.add((EPackage) root);
+            }
+        }
+        while (!ePackages.isEmpty()) {
+            final Set<URI> uris = new LinkedHashSet<>();
+            for (EPackage ePackage : ePackages) {
+                for (EPackage subPackage : ((InternalEList<EPackage>) ePackage.getESubpackages()).basicList()) {
+                    if (subPackage.eIsProxy()) {
+                        uris.add(((InternalEObject) subPackage).eProxyURI().trimFragment());
+                    }
+                }
+            }
+            packageResources.addAll(load(resourceSet, uris, resourceSet.getLoadOptions(), executor));
+
+            final List<EPackage> subPackages = new ArrayList<>();
+            for (EPackage ePackage : ePackages) {
+                // proxies are resolved from the loaded resources
+                subPackages.addAll(ePackage.getESubpackages());
+            }
+            ePackages = subPackages;
+        }
+        return packageResources;
+    }
+
+    private static Resource parse(final ResourceSet resourceSet, final Resource resource,
+                                  final Map<?, ?> loadOptions) {
+        final ResourceSet confinedResourceSet = new ResourceSetImpl();
+        confinedResourceSet.setPackageRegistry(resourceSet.getPackageRegistry());
+        confinedResourceSet.setURIConverter(resourceSet.getURIConverter());
+        confinedResourceSet.getResources().add(resource);
+
+        final Map<Object, Object> options = new HashMap<>(loadOptions);
+        if (options.containsKey(XMLResource.OPTION_USE_CACHED_LOOKUP_TABLE)) {
+            // lookup table is not thread safe
+            options.put(XMLResource.OPTION_USE_CACHED_LOOKUP_TABLE, new ArrayList<>());
+        }
+        try (InputStream inputStream = resourceSet.getURIConverter().createInputStream(resource.getURI(), options)) {
+            resource.load(inputStream, options);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            confinedResourceSet.getResources().remove(resource);
+        }
+        return resource;
+    }
+}
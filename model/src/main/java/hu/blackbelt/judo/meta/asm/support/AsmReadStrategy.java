@@ -0,0 +1,220 @@
+package hu.blackbelt.judo.meta.asm.support;
+
+/*-
+ * #%L
+ * Judo :: Asm :: Model
+ * %%
+ * Copyright (C) 2018 - 2022 BlackBelt Technology
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Strategy of reading model files. The stream returned by {@link #open(File)} has to be closed by the caller.
+ */
+public enum AsmReadStrategy {
+
+    /**
+     * Read file through a buffered {@link FileInputStream}.
+     */
+    BUFFERED {
+        @Override
+        public InputStream open(final File file) throws IOException {
+            return new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE);
+        }
+    },
+
+    /**
+     * Read file through memory-mapped regions of a {@link FileChannel}. Large files are read without copying them
+     * into the heap, mapped regions are released by the garbage collector.
+     */
+    MAPPED {
+        @Override
+        public InputStream open(final File file) throws IOException {
+            return new MappedFileInputStream(FileChannel.open(file.toPath(), StandardOpenOption.READ));
+        }
+    },
+
+    /**
+     * Read file from a {@link FileChannel} into a large direct buffer. Buffers are reused by streams opened later on
+     * the same thread, so loading several files does not allocate a direct buffer for each of them.
+     */
+    DIRECT_BUFFER {
+        @Override
+        public InputStream open(final File file) throws IOException {
+            return new DirectBufferInputStream(FileChannel.open(file.toPath(), StandardOpenOption.READ));
+        }
+    };
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final int DIRECT_BUFFER_SIZE = 1024 * 1024;
+
+    private static final long MAPPED_REGION_SIZE = 256L * 1024 * 1024;
+
+    /**
+     * Open the given file for reading.
+     *
+     * @param file model file
+     * @return input stream of the file
+     * @throws IOException when file cannot be opened
+     */
+    public abstract InputStream open(File file) throws IOException;
+
+    private static final class MappedFileInputStream extends InputStream {
+
+        private final FileChannel channel;
+
+        private final long size;
+
+        private long regionEnd;
+
+        private MappedByteBuffer region;
+
+        MappedFileInputStream(final FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.size = channel.size();
+        }
+
+        private boolean fill() throws IOException {
+            if (region != null && region.hasRemaining()) {
+                return true;
+            }
+            if (regionEnd >= size) {
+                return false;
+            }
+            final long regionSize = Math.min(MAPPED_REGION_SIZE, size - regionEnd);
+            region = channel.map(FileChannel.MapMode.READ_ONLY, regionEnd, regionSize);
+            regionEnd += regionSize;
+            return true;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return fill() ? region.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (!fill()) {
+                return -1;
+            }
+            final int count = Math.min(len, region.remaining());
+            region.get(b, off, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            final long remaining = size - regionEnd + (region != null ? region.remaining() : 0);
+            return (int) Math.min(Integer.MAX_VALUE, remaining);
+        }
+
+        @Override
+        public void close() throws IOException {
+            region = null;
+            channel.close();
+        }
+    }
+
+    private static final class DirectBufferInputStream extends InputStream {
+
+        // buffer released by the last closed stream of the thread, streams open at the same time use their own buffers
+        private static final ThreadLocal<ByteBuffer> RELEASED_BUFFER = new ThreadLocal<>();
+
+        private final FileChannel channel;
+
+        private ByteBuffer buffer;
+
+        DirectBufferInputStream(final FileChannel channel) {
+            this.channel = channel;
+            final ByteBuffer releasedBuffer = RELEASED_BUFFER.get();
+            if (releasedBuffer != null) {
+                RELEASED_BUFFER.remove();
+                buffer = releasedBuffer;
+                buffer.clear();
+            } else {
+                buffer = ByteBuffer.allocateDirect(DIRECT_BUFFER_SIZE);
+            }
+            buffer.flip();
+        }
+
+        private boolean fill() throws IOException {
+            if (buffer == null) {
+                throw new IOException("Stream closed");
+            }
+            if (buffer.hasRemaining()) {
+                return true;
+            }
+            buffer.clear();
+            int count;
+            do {
+                count = channel.read(buffer);
+            } while (count == 0);
+            buffer.flip();
+            return count > 0;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return fill() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (!fill()) {
+                return -1;
+            }
+            final int count = Math.min(len, buffer.remaining());
+            buffer.get(b, off, count);
+            return count;
+        }
+
+        @Override
+        public int available() throws IOException {
+            if (buffer == null) {
+                throw new IOException("Stream closed");
+            }
+            return (int) Math.min(Integer.MAX_VALUE, buffer.remaining() + channel.size() - channel.position());
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (buffer != null) {
+                if (RELEASED_BUFFER.get() == null) {
+                    RELEASED_BUFFER.set(buffer);
+                }
+                buffer = null;
+            }
+            channel.close();
+        }
+    }
+}
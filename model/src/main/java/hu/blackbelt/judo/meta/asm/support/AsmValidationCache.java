@@ -0,0 +1,414 @@
+package hu.blackbelt.judo.meta.asm.support;
+
+/*-
+ * #%L
+ * Judo :: Asm :: Model
+ * %%
+ * Copyright (C) 2018 - 2022 BlackBelt Technology
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+
+import org.eclipse.emf.common.util.BasicDiagnostic;
+import org.eclipse.emf.common.util.Diagnostic;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.Diagnostician;
+import org.slf4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.jar.Attributes;
+import java.util.jar.Manifest;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Persistent cache of validation results.
+ * <p>
+ * Entries are keyed by the digest of model content and the digest of the ruleset (validation scripts, rule versions)
+ * the model was validated with, so an entry is never invalidated, changed models or rules simply get new keys. Values
+ * are the reported diagnostics (severity, source, code and message), model elements referred by diagnostics are not
+ * stored. Every entry is a file in the cache directory, entries are written atomically, so a cache directory can be
+ * shared by concurrent builds.
+ */
+public class AsmValidationCache {
+
+    private static final Logger log = org.slf4j.LoggerFactory.getLogger(AsmValidationCache.class);
+
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    private static final String ENTRY_EXTENSION = ".diagnostics";
+
+    private static final Pattern EVL_IMPORT = Pattern.compile("import\\s+[\"']([^\"']+)[\"']");
+
+    /**
+     * Version of structural validation, it must be increased when the way structural validation is done changes (or
+     * when the EMF dependency is upgraded and EMF version cannot be read from the bundle manifest).
+     */
+    private static final String STRUCTURAL_RULESET_VERSION = "1";
+
+    private static volatile String structuralRulesetDigest;
+
+    private final Path directory;
+
+    /**
+     * Create cache storing entries in the given directory. Directory is created if it does not exist.
+     *
+     * @param directory cache directory
+     */
+    public AsmValidationCache(final Path directory) {
+        this.directory = directory;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Get cached diagnostics.
+     *
+     * @param modelDigest   digest of model content
+     * @param rulesetDigest digest of ruleset
+     * @return diagnostics if model was validated with the ruleset, empty otherwise
+     */
+    public Optional<List<Diagnostic>> get(final String modelDigest, final String rulesetDigest) {
+        final Path entry = getEntry(modelDigest, rulesetDigest);
+        try (BufferedReader reader = Files.newBufferedReader(entry, StandardCharsets.UTF_8)) {
+            final List<Diagnostic> diagnostics = new ArrayList<>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                diagnostics.add(parse(line));
+            }
+            return Optional.of(Collections.unmodifiableList(diagnostics));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not read validation cache entry: " + entry, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Store diagnostics of a model validated with a ruleset. Failures are logged only, cache is optional.
+     *
+     * @param modelDigest   digest of model content
+     * @param rulesetDigest digest of ruleset
+     * @param diagnostics   reported diagnostics
+     */
+    public void put(final String modelDigest, final String rulesetDigest,
+                    final Collection<? extends Diagnostic> diagnostics) {
+        final Path entry = getEntry(modelDigest, rulesetDigest);
+        try {
+            Files.createDirectories(directory);
+            final Path temp = Files.createTempFile(directory, entry.getFileName().toString(), ".tmp");
+            try {
+                final StringBuilder builder = new StringBuilder();
+                for (Diagnostic diagnostic : diagnostics) {
+                    builder.append(format(diagnostic)).append('\n');
+                }
+                Files.write(temp, builder.toString().getBytes(StandardCharsets.UTF_8));
+                try {
+                    Files.move(temp, entry, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temp, entry, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            log.warn("Could not write validation cache entry: " + entry, e);
+        }
+    }
+
+    /**
+     * Get cached diagnostics or validate model and store its diagnostics.
+     *
+     * @param modelDigest   digest of model content
+     * @param rulesetDigest digest of ruleset
+     * @param validation    validation of the model
+     * @return diagnostics
+     */
+    public List<Diagnostic> computeIfAbsent(final String modelDigest, final String rulesetDigest,
+                                            final Supplier<? extends Collection<? extends Diagnostic>> validation) {
+        final Optional<List<Diagnostic>> cached = get(modelDigest, rulesetDigest);
+        if (cached.isPresent()) {
+            log.debug("Validation cache hit: {}", modelDigest);
+            return cached.get();
+        }
+        final List<Diagnostic> diagnostics = new ArrayList<>(validation.get());
+        put(modelDigest, rulesetDigest, diagnostics);
+        return diagnostics;
+    }
+
+    /**
+     * Checks there is no {@link Diagnostic#ERROR} diagnostic.
+     *
+     * @param diagnostics diagnostics
+     * @return true if there is no error
+     */
+    public static boolean isValid(final Collection<? extends Diagnostic> diagnostics) {
+        return diagnostics.stream().noneMatch(d -> d.getSeverity() >= Diagnostic.ERROR);
+    }
+
+    /**
+     * Wrap model input to calculate digest of model content while it is loaded. Use {@link #getDigest(DigestInputStream)}
+     * after load. Closing the returned input (ie. by the parser) does not close the given input, it is owned by the
+     * caller.
+     *
+     * @param inputStream model input
+     * @return input calculating digest
+     */
+    public static DigestInputStream digestInputStream(final InputStream inputStream) {
+        return new ModelDigestInputStream(inputStream, createMessageDigest());
+    }
+
+    /**
+     * Get digest of content read by a {@link DigestInputStream}. Content not consumed by the parser is read before,
+     * the input is not closed.
+     *
+     * @param inputStream input created by {@link #digestInputStream(InputStream)}
+     * @return digest
+     * @throws IOException when input cannot be read
+     */
+    public static String getDigest(final DigestInputStream inputStream) throws IOException {
+        final byte[] buffer = new byte[8192];
+        while (inputStream.read(buffer) >= 0) {
+            // consume content not read by the parser
+        }
+        return toHex(inputStream.getMessageDigest().digest());
+    }
+
+    /**
+     * Get digest of a resource serialized with {@link AsmModelResourceSupport#getAsmModelDefaultSaveOptions()}.
+     *
+     * @param resource resource
+     * @return digest
+     * @throws IOException when resource cannot be serialized
+     */
+    public static String digest(final Resource resource) throws IOException {
+        final MessageDigest messageDigest = createMessageDigest();
+        try (OutputStream outputStream = new DigestOutputStream(NullOutputStream.INSTANCE, messageDigest)) {
+            resource.save(outputStream, AsmModelResourceSupport.getAsmModelDefaultSaveOptions());
+        }
+        return toHex(messageDigest.digest());
+    }
+
+    /**
+     * Get digest of the given strings (ie. rule names and versions).
+     *
+     * @param values values
+     * @return digest
+     */
+    public static String digest(final String... values) {
+        final MessageDigest messageDigest = createMessageDigest();
+        for (String value : values) {
+            messageDigest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+            messageDigest.update((byte) 0);
+        }
+        return toHex(messageDigest.digest());
+    }
+
+    /**
+     * Get digest of structural (EMF constraint) validation ruleset. It depends on the bundle version of EMF (read from
+     * the manifest of the bundle of {@link Diagnostician}) and the version of structural validation of this module.
+     *
+     * @return ruleset digest
+     */
+    public static String getStructuralRulesetDigest() {
+        String digest = structuralRulesetDigest;
+        if (digest == null) {
+            digest = digest("emf", STRUCTURAL_RULESET_VERSION, getBundleVersion(Diagnostician.class));
+            structuralRulesetDigest = digest;
+        }
+        return digest;
+    }
+
+    private static String getBundleVersion(final Class<?> type) {
+        final URL classUrl = type.getResource(type.getSimpleName() + ".class");
+        if (classUrl == null) {
+            return "";
+        }
+        try (InputStream inputStream = new URL(classUrl, "/META-INF/MANIFEST.MF").openStream()) {
+            final Attributes attributes = new Manifest(inputStream).getMainAttributes();
+            String version = attributes.getValue("Bundle-Version");
+            if (version == null) {
+                version = attributes.getValue("Implementation-Version");
+            }
+            return version != null ? version : "";
+        } catch (IOException e) {
+            log.warn("Could not read bundle version of " + type.getName() + ", validation cache entries are kept until "
+                    + "structural ruleset version is changed", e);
+            return "";
+        }
+    }
+
+    /**
+     * Get digest of an EVL script and all of the scripts imported by it (transitively).
+     *
+     * @param script   script URI
+     * @param versions additional versions the result depends on
+     * @return ruleset digest
+     * @throws IOException when a script cannot be read
+     */
+    public static String getScriptRulesetDigest(final URI script, final String... versions) throws IOException {
+        final MessageDigest messageDigest = createMessageDigest();
+        digestScript(script, messageDigest, new LinkedHashSet<>());
+        for (String version : versions) {
+            messageDigest.update(String.valueOf(version).getBytes(StandardCharsets.UTF_8));
+            messageDigest.update((byte) 0);
+        }
+        return toHex(messageDigest.digest());
+    }
+
+    private static void digestScript(final URI script, final MessageDigest messageDigest, final Set<URI> visited)
+            throws IOException {
+        if (!visited.add(script)) {
+            return;
+        }
+        final byte[] content;
+        try (InputStream inputStream = script.toURL().openStream()) {
+            content = readAll(inputStream);
+        }
+        messageDigest.update(script.toString().getBytes(StandardCharsets.UTF_8));
+        messageDigest.update((byte) 0);
+        messageDigest.update(content);
+        final Matcher matcher = EVL_IMPORT.matcher(new String(content, StandardCharsets.UTF_8));
+        while (matcher.find()) {
+            digestScript(resolve(script, matcher.group(1)), messageDigest, visited);
+        }
+    }
+
+    private static URI resolve(final URI base, final String path) {
+        if (base.isOpaque()) {
+            // jar:file:...!/validations/asm.evl
+            final String uri = base.toString();
+            return URI.create(uri.substring(0, uri.lastIndexOf('/') + 1) + path);
+        }
+        return base.resolve(path);
+    }
+
+    private static byte[] readAll(final InputStream inputStream) throws IOException {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[8192];
+        int read;
+        while ((read = inputStream.read(buffer)) >= 0) {
+            outputStream.write(buffer, 0, read);
+        }
+        return outputStream.toByteArray();
+    }
+
+    private Path getEntry(final String modelDigest, final String rulesetDigest) {
+        return directory.resolve(digest(modelDigest, rulesetDigest) + ENTRY_EXTENSION);
+    }
+
+    private static String format(final Diagnostic diagnostic) {
+        return diagnostic.getSeverity() + "\t" + escape(diagnostic.getSource()) + "\t" + diagnostic.getCode() + "\t"
+                + escape(diagnostic.getMessage());
+    }
+
+    private static Diagnostic parse(final String line) {
+        final String[] fields = line.split("\t", 4);
+        if (fields.length != 4) {
+            throw new IllegalStateException("Invalid validation cache entry: " + line);
+        }
+        return new BasicDiagnostic(Integer.parseInt(fields[0]), unescape(fields[1]), Integer.parseInt(fields[2]),
+                unescape(fields[3]), null);
+    }
+
+    private static String escape(final String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n").replace("\r", "\\r");
+    }
+
+    private static String unescape(final String value) {
+        final StringBuilder builder = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                final char next = value.charAt(++i);
+                builder.append(next == 't' ? '\t' : next == 'n' ? '\n' : next == 'r' ? '\r' : next);
+            } else {
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+
+    private static MessageDigest createMessageDigest() {
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toHex(final byte[] bytes) {
+        final StringBuilder builder = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            builder.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return builder.toString();
+    }
+
+    private static class NullOutputStream extends OutputStream {
+        static final NullOutputStream INSTANCE = new NullOutputStream();
+
+        @Override
+        public void write(final int b) {
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) {
+        }
+    }
+
+    private static class ModelDigestInputStream extends DigestInputStream {
+
+        ModelDigestInputStream(final InputStream inputStream, final MessageDigest messageDigest) {
+            super(inputStream, messageDigest);
+        }
+
+        @Override
+        public void close() {
+            // parsers close their input when the document is read, remaining content is digested later, the wrapped
+            // input is closed by its owner
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package hu.blackbelt.judo.meta.asm.support;
+
+/*-
+ * #%L
+ * Judo :: Asm :: Model
+ * %%
+ * Copyright (C) 2018 - 2022 BlackBelt Technology
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Profile of validation constraints collected by {@link AsmValidationProfiler}.
+ */
+public class AsmValidationProfile {
+
+    private final List<ConstraintProfile> constraints;
+
+    AsmValidationProfile(final List<ConstraintProfile> constraints) {
+        this.constraints = Collections.unmodifiableList(constraints);
+    }
+
+    /**
+     * Get profiles of constraints ordered by total evaluation time descending.
+     *
+     * @return constraint profiles
+     */
+    public List<ConstraintProfile> getConstraints() {
+        return constraints;
+    }
+
+    /**
+     * Get profile of a constraint.
+     *
+     * @param name name of constraint prefixed by its source
+     * @return constraint profile
+     */
+    public Optional<ConstraintProfile> getConstraint(final String name) {
+        return constraints.stream().filter(c -> c.getName().equals(name)).findFirst();
+    }
+
+    /**
+     * Write profile report to a file.
+     *
+     * @param file target file
+     * @throws IOException when file cannot be written
+     */
+    public void writeTo(final File file) throws IOException {
+        Files.write(file.toPath(), toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Get profile report. Every constraint is represented by a line, slowest contexts are listed below it.
+     *
+     * @return profile report
+     */
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append(String.format("%-60s %12s %12s %12s%n", "constraint", "invocations", "total (ms)", "max (ms)"));
+        for (ConstraintProfile constraint : constraints) {
+            builder.append(String.format("%-60s %12d %12.3f %12.3f%n", constraint.getName(),
+                    constraint.getInvocationCount(), toMillis(constraint.getTotalNanos()),
+                    toMillis(constraint.getMaxNanos())));
+            for (ContextProfile context : constraint.getSlowestContexts()) {
+                builder.append(String.format("    %12.3f ms  %s%n", toMillis(context.getNanos()), context.getContext()));
+            }
+        }
+        return builder.toString();
+    }
+
+    private static double toMillis(final long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * Evaluation statistics of a constraint.
+     */
+    public static class ConstraintProfile {
+        private final String name;
+
+        private final long invocationCount;
+
+        private final long totalNanos;
+
+        private final long maxNanos;
+
+        private final List<ContextProfile> slowestContexts;
+
+        ConstraintProfile(final String name, final long invocationCount, final long totalNanos, final long maxNanos,
+                          final List<ContextProfile> slowestContexts) {
+            this.name = name;
+            this.invocationCount = invocationCount;
+            this.totalNanos = totalNanos;
+            this.maxNanos = maxNanos;
+            this.slowestContexts = Collections.unmodifiableList(slowestContexts);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getInvocationCount() {
+            return invocationCount;
+        }
+
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+
+        /**
+         * Get the slowest evaluations of the constraint ordered by evaluation time descending.
+         *
+         * @return slowest contexts
+         */
+        public List<ContextProfile> getSlowestContexts() {
+            return slowestContexts;
+        }
+
+        @Override
+        public String toString() {
+            return "ConstraintProfile(" + name + ", invocationCount=" + invocationCount + ", totalNanos=" + totalNanos
+                    + ", maxNanos=" + maxNanos + ")";
+        }
+    }
+
+    /**
+     * Evaluation time of a constraint on a context element.
+     */
+    public static class ContextProfile {
+        private final String context;
+
+        private final long nanos;
+
+        ContextProfile(final String context, final long nanos) {
+            this.context = context;
+            this.nanos = nanos;
+        }
+
+        /**
+         * Get label of context element (containment path in case of model elements).
+         *
+         * @return context label
+         */
+        public String getContext() {
+            return context;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+
+        @Override
+        public String toString() {
+            return context + "=" + nanos + "ns";
+        }
+    }
+}
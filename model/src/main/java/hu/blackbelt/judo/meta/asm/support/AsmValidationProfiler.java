@@ -0,0 +1,146 @@
+package hu.blackbelt.judo.meta.asm.support;
+
+/*-
+ * #%L
+ * Judo :: Asm :: Model
+ * %%
+ * Copyright (C) 2018 - 2022 BlackBelt Technology
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+
+import org.eclipse.emf.ecore.EObject;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Collects evaluation times of validation constraints.
+ * <p>
+ * Validators record every evaluation of a constraint on a context element, the profiler aggregates invocation count,
+ * total and maximal time per constraint and keeps the slowest contexts. Constraint names are prefixed by the source of
+ * the constraint: {@link #EMF} (constraints of an EClass checked by EMF diagnostician), {@link #EVL} and
+ * {@link #JAVA}. Profiler is thread-safe, it can be shared by parallel validations.
+ */
+public class AsmValidationProfiler {
+
+    public static final String EMF = "emf:";
+
+    public static final String EVL = "evl:";
+
+    public static final String JAVA = "java:";
+
+    public static final int DEFAULT_SLOWEST_CONTEXT_COUNT = 5;
+
+    private final int slowestContextCount;
+
+    private final Map<String, Statistics> statistics = new ConcurrentHashMap<>();
+
+    public AsmValidationProfiler() {
+        this(DEFAULT_SLOWEST_CONTEXT_COUNT);
+    }
+
+    /**
+     * Create profiler.
+     *
+     * @param slowestContextCount number of slowest contexts kept per constraint
+     */
+    public AsmValidationProfiler(final int slowestContextCount) {
+        this.slowestContextCount = slowestContextCount;
+    }
+
+    /**
+     * Record an evaluation of a constraint.
+     *
+     * @param constraint name of constraint prefixed by its source
+     * @param context    context element of evaluation
+     * @param nanos      evaluation time in nanoseconds
+     */
+    public void record(final String constraint, final Object context, final long nanos) {
+        statistics.computeIfAbsent(constraint, k -> new Statistics()).record(context, nanos, slowestContextCount);
+    }
+
+    /**
+     * Get profile of recorded evaluations. Constraints are ordered by total evaluation time descending.
+     *
+     * @return validation profile
+     */
+    public AsmValidationProfile getProfile() {
+        return new AsmValidationProfile(statistics.entrySet().stream()
+                .map(e -> e.getValue().toConstraintProfile(e.getKey()))
+                .sorted(Comparator.comparingLong(AsmValidationProfile.ConstraintProfile::getTotalNanos).reversed()
+                        .thenComparing(AsmValidationProfile.ConstraintProfile::getName))
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Discard recorded evaluations.
+     */
+    public void reset() {
+        statistics.clear();
+    }
+
+    static String getContextLabel(final Object context) {
+        return context instanceof EObject ? AsmXmiIdValidator.getPath((EObject) context) : String.valueOf(context);
+    }
+
+    private static class Statistics {
+        private long invocationCount;
+
+        private long totalNanos;
+
+        private long maxNanos;
+
+        private final PriorityQueue<ContextTime> slowestContexts =
+                new PriorityQueue<>(Comparator.comparingLong(contextTime -> contextTime.nanos));
+
+        synchronized void record(final Object context, final long nanos, final int slowestContextCount) {
+            invocationCount++;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+            if (slowestContexts.size() < slowestContextCount) {
+                slowestContexts.add(new ContextTime(context, nanos));
+            } else if (slowestContextCount > 0 && slowestContexts.peek().nanos < nanos) {
+                slowestContexts.poll();
+                slowestContexts.add(new ContextTime(context, nanos));
+            }
+        }
+
+        synchronized AsmValidationProfile.ConstraintProfile toConstraintProfile(final String name) {
+            final List<ContextTime> contexts = new ArrayList<>(slowestContexts);
+            contexts.sort(Comparator.comparingLong((ContextTime contextTime) -> contextTime.nanos).reversed());
+            return new AsmValidationProfile.ConstraintProfile(name, invocationCount, totalNanos, maxNanos,
+                    contexts.stream()
+                            .map(c -> new AsmValidationProfile.ContextProfile(getContextLabel(c.context), c.nanos))
+                            .collect(Collectors.toList()));
+        }
+    }
+
+    private static class ContextTime {
+        private final Object context;
+
+        private final long nanos;
+
+        ContextTime(final Object context, final long nanos) {
+            this.context = context;
+            this.nanos = nanos;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package hu.blackbelt.judo.meta.asm.support;
+
+/*-
+ * #%L
+ * Judo :: Asm :: Model
+ * %%
+ * Copyright (C) 2018 - 2022 BlackBelt Technology
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+
+import org.eclipse.emf.common.util.Diagnostic;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Result of structural validation of a model. The result is immutable, it is bound to the modification count (see
+ * {@link AsmModelChangeTracker}) of the model it was computed at.
+ */
+public class AsmValidationResult {
+
+    private final long modificationCount;
+
+    private final Set<Diagnostic> diagnostics;
+
+    private final boolean valid;
+
+    private volatile String diagnosticsAsString;
+
+    public AsmValidationResult(final long modificationCount, final Collection<Diagnostic> diagnostics) {
+        this.modificationCount = modificationCount;
+        this.diagnostics = Collections.unmodifiableSet(new LinkedHashSet<>(diagnostics));
+        this.valid = diagnostics.stream().noneMatch(d -> d.getSeverity() >= Diagnostic.ERROR);
+    }
+
+    /**
+     * Get modification count of the model the result was computed at.
+     *
+     * @return modification count
+     */
+    public long getModificationCount() {
+        return modificationCount;
+    }
+
+    /**
+     * Get {@link Diagnostic#WARNING} and {@link Diagnostic#ERROR} diagnostics. The set is shared by all callers of the
+     * result, so it is unmodifiable, {@link AsmModelResourceSupport#getDiagnostics()} returns a modifiable copy.
+     *
+     * @return unmodifiable set of diagnostics
+     */
+    public Set<Diagnostic> getDiagnostics() {
+        return diagnostics;
+    }
+
+    /**
+     * Check if there is no {@link Diagnostic#ERROR} diagnostic.
+     *
+     * @return <code>true</code> if model is valid
+     */
+    public boolean isValid() {
+        return valid;
+    }
+
+    /**
+     * Get diagnostics as a String. String is created on first call.
+     *
+     * @return diagnostic list as string. Every line represents one diagnostic.
+     */
+    public String getDiagnosticsAsString() {
+        String result = diagnosticsAsString;
+        if (result == null) {
+            result = diagnostics.stream().map(Object::toString).collect(Collectors.joining("\n"));
+            diagnosticsAsString = result;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,180 @@
+package hu.blackbelt.judo.meta.asm.support;
+
+/*-
+ * #%L
+ * Judo :: Asm :: Model
+ * %%
+ * Copyright (C) 2018 - 2022 BlackBelt Technology
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+
+import org.eclipse.emf.common.util.BasicDiagnostic;
+import org.eclipse.emf.common.util.DelegatingResourceLocator;
+import org.eclipse.emf.common.util.Diagnostic;
+import org.eclipse.emf.common.util.DiagnosticChain;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.plugin.EcorePlugin;
+import org.eclipse.emf.ecore.util.Diagnostician;
+import org.eclipse.emf.ecore.util.EObjectValidator;
+
+import java.lang.reflect.Field;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Session of structural (EMF constraint) validation.
+ * <p>
+ * A session sets up the validation environment once and reuses the same {@link Diagnostician} context for all
+ * elements validated in it. Labels of elements are created only for reported diagnostics and they are memoized for
+ * the lifetime of the session. Sessions are not thread-safe, use one session per thread.
+ */
+public class AsmValidationSession {
+
+    private static volatile boolean ecoreUriFixed;
+
+    private final Diagnostician diagnostician = new Diagnostician() {
+        @Override
+        public String getObjectLabel(final EObject eObject) {
+            return labels.computeIfAbsent(eObject, super::getObjectLabel);
+        }
+    };
+
+    private final Map<EObject, String> labels = new HashMap<>();
+
+    private Map<Object, Object> context;
+
+    private final AsmValidationProfiler profiler;
+
+    public AsmValidationSession() {
+        this(null);
+    }
+
+    /**
+     * Create session recording validation time of elements. EMF diagnostician evaluates all constraints of an element
+     * in one call, so evaluations are recorded per {@link org.eclipse.emf.ecore.EClass} of validated elements.
+     *
+     * @param profiler profiler, <code>null</code> to disable profiling
+     */
+    public AsmValidationSession(final AsmValidationProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    /**
+     * Set up the validation environment and create the {@link Diagnostician} context of the session. It is called
+     * once per session, before the first element is validated.
+     *
+     * @return context of the session
+     */
+    protected Map<Object, Object> createContext() {
+        fixEcoreUri();
+        final Map<Object, Object> defaultContext = diagnostician.createDefaultContext();
+        defaultContext.put(Diagnostician.VALIDATE_RECURSIVELY, Boolean.FALSE);
+        return defaultContext;
+    }
+
+    private Map<Object, Object> getContext() {
+        if (context == null) {
+            context = createContext();
+        }
+        // elements are validated one by one, root object of the previous element must not be reported as circular
+        // containment
+        context.remove(EObjectValidator.ROOT_OBJECT);
+        return context;
+    }
+
+    /**
+     * Validate an element without its contents.
+     *
+     * @param eObject     element to validate
+     * @param diagnostics chain diagnostics are added to
+     * @return <code>true</code> if element is valid, <code>false</code> otherwise
+     */
+    public boolean validate(final EObject eObject, final DiagnosticChain diagnostics) {
+        if (profiler == null) {
+            return diagnostician.validate(eObject.eClass(), eObject, diagnostics, getContext());
+        }
+        final long start = System.nanoTime();
+        try {
+            return diagnostician.validate(eObject.eClass(), eObject, diagnostics, getContext());
+        } finally {
+            profiler.record(AsmValidationProfiler.EMF + eObject.eClass().getName(), eObject,
+                    System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Check if an element (without its contents) has any {@link Diagnostic#ERROR} diagnostic. Constraints are
+     * evaluated without diagnostic chain first (so evaluation stops on the first violated constraint and no
+     * diagnostic is created), diagnostics are created only for elements violating any constraint.
+     *
+     * @param eObject element to validate
+     * @return <code>true</code> if element has any error, <code>false</code> otherwise
+     */
+    public boolean hasError(final EObject eObject) {
+        if (diagnostician.validate(eObject.eClass(), eObject, null, getContext())) {
+            return false;
+        }
+        final BasicDiagnostic diagnostics = new BasicDiagnostic();
+        validate(eObject, diagnostics);
+        return diagnostics.getSeverity() >= Diagnostic.ERROR;
+    }
+
+    /**
+     * Get label of an element used in diagnostic messages.
+     *
+     * @param eObject element
+     * @return label
+     */
+    public String getObjectLabel(final EObject eObject) {
+        return diagnostician.getObjectLabel(eObject);
+    }
+
+    // TODO: Create ticket on Eclipse. The problem is that the DelegatingResourceLocator
+    // creating a baseURL which ends with two trailing slash and the ResourceBundle cannot open the files.
+    // This bug is came on Felix based OSGi container.
+    static void fixEcoreUri() {
+        if (ecoreUriFixed) {
+            return;
+        }
+        try {
+            URL baseUrl = EcorePlugin.INSTANCE.getBaseURL();
+            if (baseUrl.toString().startsWith("bundle:") && baseUrl.toString().endsWith("//")) {
+                URL fixedUrl = new URL(baseUrl.toString().substring(0, baseUrl.toString().length() - 1));
+                Field myField = getField(DelegatingResourceLocator.class, "baseURL");
+                myField.setAccessible(true);
+                myField.set(EcorePlugin.INSTANCE, fixedUrl);
+                ecoreUriFixed = true;
+            }
+        } catch (Throwable t) {
+            t.printStackTrace(System.out);
+        }
+    }
+
+    private static Field getField(Class clazz, String fieldName)
+            throws NoSuchFieldException {
+        try {
+            return clazz.getDeclaredField(fieldName);
+        } catch (NoSuchFieldException e) {
+            Class superClass = clazz.getSuperclass();
+            if (superClass == null) {
+                throw e;
+            } else {
+                return getField(superClass, fieldName);
+            }
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package hu.blackbelt.judo.meta.asm.support;
+
+/*-
+ * #%L
+ * Judo :: Asm :: Model
+ * %%
+ * Copyright (C) 2018 - 2022 BlackBelt Technology
+ * %%
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the Eclipse
+ * Public License, v. 2.0 are satisfied: GNU General Public License, version 2
+ * with the GNU Classpath Exception which is
+ * available at https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ * #L%
+ */
+
+
+import org.eclipse.emf.common.notify.Notifier;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.ENamedElement;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.xmi.XMLResource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Single pass detector of non-unique xmiid-s.
+ * <p>
+ * Elements can be added one by one (see {@link #add(String, EObject)}) or by iterating model contents (see
+ * {@link #validate(Iterator)}). The detector can also be passed to resource load in the
+ * {@link #OPTION_XMI_ID_VALIDATOR} load option, in this case resources created by
+ * {@link AsmModelResourceSupport#getAsmFactory()} report duplicates while their ID map is filled.
+ */
+public class AsmXmiIdValidator {
+
+    /**
+     * Load option of an {@link AsmXmiIdValidator} instance collecting non-unique xmiid-s while loading a resource.
+     */
+    public static final String OPTION_XMI_ID_VALIDATOR = "ASM_XMI_ID_VALIDATOR";
+
+    private final Map<String, EObject> elementsById = new HashMap<>();
+
+    private final Map<String, List<EObject>> duplicates = new LinkedHashMap<>();
+
+    private boolean attached;
+
+    /**
+     * Collect non-unique xmiid-s of the given contents. Only elements of {@link XMLResource}s are checked.
+     *
+     * @param contents contents iterator, ie. {@link org.eclipse.emf.ecore.resource.ResourceSet#getAllContents()}
+     * @return detector containing non-unique xmiid-s
+     */
+    public static AsmXmiIdValidator validate(final Iterator<? extends Notifier> contents) {
+        final AsmXmiIdValidator validator = new AsmXmiIdValidator();
+        validator.addAll(contents);
+        return validator;
+    }
+
+    /**
+     * Add all elements of the given contents. Only elements of {@link XMLResource}s are checked.
+     *
+     * @param contents contents iterator
+     */
+    public void addAll(final Iterator<? extends Notifier> contents) {
+        while (contents.hasNext()) {
+            final Notifier notifier = contents.next();
+            if (notifier instanceof EObject && ((EObject) notifier).eResource() instanceof XMLResource) {
+                final EObject eObject = (EObject) notifier;
+                add(((XMLResource) eObject.eResource()).getID(eObject), eObject);
+            }
+        }
+    }
+
+    /**
+     * Add an element with its xmiid.
+     *
+     * @param id      xmiid, <code>null</code> is ignored
+     * @param eObject element
+     */
+    public void add(final String id, final EObject eObject) {
+        if (id == null) {
+            return;
+        }
+        final EObject existing = elementsById.putIfAbsent(id, eObject);
+        if (existing != null && existing != eObject) {
+            addDuplicate(id, existing, eObject);
+        }
+    }
+
+    /**
+     * Register two different elements having the same xmiid. It is used when ID map of a resource is filled, so
+     * elements do not have to be collected again.
+     *
+     * @param id       xmiid
+     * @param existing element registered first
+     * @param eObject  element registered with the same xmiid
+     */
+    void addDuplicate(final String id, final EObject existing, final EObject eObject) {
+        final List<EObject> elements = duplicates.computeIfAbsent(id, k -> new ArrayList<>());
+        if (!elements.contains(existing)) {
+            elements.add(existing);
+        }
+        if (!elements.contains(eObject)) {
+            elements.add(eObject);
+        }
+    }
+
+    void setAttached(boolean attached) {
+        this.attached = attached;
+    }
+
+    /**
+     * Checks the detector was filled by a resource while it was loaded (see {@link #OPTION_XMI_ID_VALIDATOR}). When
+     * the resource does not support it, elements have to be added after load.
+     *
+     * @return true if duplicates were collected on load
+     */
+    public boolean isAttached() {
+        return attached;
+    }
+
+    /**
+     * Checks any non-unique xmiid is found.
+     *
+     * @return true if there is any duplicate
+     */
+    public boolean hasDuplicates() {
+        return !duplicates.isEmpty();
+    }
+
+    /**
+     * Get non-unique xmiid-s with the elements sharing them.
+     *
+     * @return elements by xmiid
+     */
+    public Map<String, List<EObject>> getDuplicates() {
+        return Collections.unmodifiableMap(duplicates);
+    }
+
+    /**
+     * Get non-unique xmiid-s as a String.
+     *
+     * @return duplicates, every line represents one xmiid with the paths of elements
+     */
+    public String getDuplicatesAsString() {
+        return duplicates.entrySet().stream()
+                .map(e -> "Xmiid " + e.getKey() + " must be unique: "
+                        + e.getValue().stream().map(AsmXmiIdValidator::getPath).collect(Collectors.joining(", ")))
+                .collect(Collectors.joining("\n"));
+    }
+
+    /**
+     * Check if all collected xmiid-s are unique.
+     *
+     * @throws IllegalStateException if duplicates were found
+     */
+    public void check() {
+        if (hasDuplicates()) {
+            throw new IllegalStateException("There are non-unique xmiid-s\n" + getDuplicatesAsString());
+        }
+    }
+
+    /**
+     * Get containment path of an element. Named elements are represented by their names, other elements by their
+     * containing feature and index, ie. <code>demo/entities/Person/eAnnotations[0]</code>.
+     *
+     * @param eObject element
+     * @return path of the element
+     */
+    public static String getPath(final EObject eObject) {
+        final LinkedList<String> segments = new LinkedList<>();
+        for (EObject element = eObject; element != null; element = element.eContainer()) {
+            segments.addFirst(getSegment(element));
+        }
+        return String.join("/", segments);
+    }
+
+    private static String getSegment(final EObject eObject) {
+        if (eObject instanceof ENamedElement && ((ENamedElement) eObject).getName() != null) {
+            return ((ENamedElement) eObject).getName();
+        }
+        final EStructuralFeature feature = eObject.eContainingFeature();
+        if (feature == null) {
+            final Resource resource = eObject.eResource();
+            return resource != null ? "[" + resource.getContents().indexOf(eObject) + "]" : "[]";
+        } else if (feature.isMany()) {
+            return feature.getName() + "[" + ((List<?>) eObject.eContainer().eGet(feature)).indexOf(eObject) + "]";
+        } else {
+            return feature.getName();
+        }
+    }
+}